@@ -43,6 +43,7 @@ public class ArtemisWriter implements Writer<byte[]> {
     @Override
     public void recordWrite(DataType<byte[]> dType, byte[] data, int size, Time time, Status status, SendChannel record, int id) {
         final long ctime = time.getCurrentTime();
+        final long intendedTime = status.intendedTime;
         status.startTime = ctime;
         status.bytes = size;
         status.records = 1;
@@ -52,7 +53,7 @@ public class ArtemisWriter implements Writer<byte[]> {
         try {
             producer.send(msg, handler -> {
                 final long endTime = time.getCurrentTime();
-                record.send(id, ctime, endTime, size, 1);
+                record.send(id, ctime, endTime, size, 1, intendedTime);
             });
         } catch (ActiveMQException ex) {
             ex.printStackTrace();
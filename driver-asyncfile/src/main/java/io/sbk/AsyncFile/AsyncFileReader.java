@@ -23,16 +23,26 @@ import java.nio.channels.AsynchronousFileChannel;
 import java.nio.channels.CompletionHandler;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Class for File Reader.
+ * The read buffers are taken from a pool and returned to the pool on the completion of the read;
+ * if the queue depth ('-qdepth') is set, the pool is pre-allocated with that many buffers, so that
+ * there is no buffer allocation per read. The pool keeps at most the queue depth or
+ * {@link AsyncFileReader#MAX_POOL_BUFFERS} buffers; the other buffers are released after the read.
+ * Every read covers its own range of the file; a short read is continued until the buffer is full
+ * or the end of the file. Every read is completed to the send channel, the reads at the end of the file
+ * with an {@link EOFException}.
  */
 public class AsyncFileReader implements Reader<ByteBuffer> {
+    final public static int MAX_POOL_BUFFERS = 64;
     final private String fileName;
     final private ParameterOptions params;
     final private AsynchronousFileChannel in;
     final private AtomicBoolean isEOF;
+    final private ArrayBlockingQueue<ByteBuffer> bufferPool;
     private long pos;
 
     public AsyncFileReader(int id, ParameterOptions params, String fileName) throws IOException {
@@ -41,6 +51,11 @@ public class AsyncFileReader implements Reader<ByteBuffer> {
         this.in = AsynchronousFileChannel.open(Paths.get(fileName), StandardOpenOption.READ);
         this.pos = 0;
         this.isEOF = new AtomicBoolean(false);
+        this.bufferPool = new ArrayBlockingQueue<>(params.getQueueDepth() > 0 ?
+                params.getQueueDepth() : MAX_POOL_BUFFERS);
+        for (int i = 0; i < params.getQueueDepth(); i++) {
+            bufferPool.add(ByteBuffer.allocateDirect(params.getRecordSize()));
+        }
     }
 
     @Override
@@ -48,64 +63,110 @@ public class AsyncFileReader implements Reader<ByteBuffer> {
         return null;
     }
 
+    private ByteBuffer getBuffer(DataType<ByteBuffer> dType) {
+        final ByteBuffer buffer = bufferPool.poll();
+        if (buffer == null) {
+            return dType.allocate(params.getRecordSize());
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    private void read(ByteBuffer buffer, RecordTime recordTime, long intendedTime, Time time,
+                      SendChannel sendChannel, int id) throws EOFException {
+        if (isEOF.get()) {
+            bufferPool.offer(buffer);
+            throw new EOFException();
+        }
+        final long position = pos;
+        pos += buffer.remaining();
+        in.read(buffer, position, buffer,
+                new ReadHandler(position, recordTime, intendedTime, time, sendChannel, id));
+    }
+
 
     @Override
     public void recordRead(DataType<ByteBuffer> dType, int size, Time time, Status status, SendChannel sendChannel, int id) throws IOException {
         final long ctime = time.getCurrentTime();
-        final ByteBuffer buffer = dType.allocate(params.getRecordSize());
-        in.read(buffer, pos, buffer,
-                new CompletionHandler<Integer, ByteBuffer>() {
-                    @Override
-                    public void completed(Integer result, ByteBuffer attachment) {
-                        final long endTime = time.getCurrentTime();
-                        if (result <= 0 && !isEOF.get()) {
-                            isEOF.set(true);
-                            sendChannel.sendException(id, new EOFException());
-                        } else {
-                            sendChannel.send(id, ctime, endTime, result, 1);
-                        }
-                    }
-
-                    @Override
-                    public void failed(Throwable ex, ByteBuffer attachment) {
-                        if (!isEOF.get()) {
-                            sendChannel.sendException(id, ex);
-                        }
-                    }
-                });
-        pos += dType.length(buffer);
+        status.startTime = ctime;
+        status.endTime = ctime;
+        status.records = 1;
+        status.bytes = size;
+        read(getBuffer(dType), buffer -> ctime, status.intendedTime, time, sendChannel, id);
     }
 
 
     @Override
     public void recordReadTime(DataType<ByteBuffer> dType, int size, Time time, Status status, SendChannel sendChannel, int id) throws IOException {
-        final ByteBuffer buffer = dType.allocate(params.getRecordSize());
-        in.read(buffer, pos, buffer,
-                new CompletionHandler<Integer, ByteBuffer>() {
-
-                    @Override
-                    public void completed(Integer result, ByteBuffer attachment) {
-                        final long endTime = time.getCurrentTime();
-                        if (result <= 0 && !isEOF.get()) {
-                            isEOF.set(true);
-                            sendChannel.sendException(id, new EOFException());
-                        } else {
-                            sendChannel.send(id, dType.getTime(attachment), endTime, result, 1);
-                        }
-                    }
-
-                    @Override
-                    public void failed(Throwable ex, ByteBuffer attachment) {
-                        if (!isEOF.get()) {
-                            sendChannel.sendException(id, ex);
-                        }
-                    }
-                });
-        pos += dType.length(buffer);
+        final long ctime = time.getCurrentTime();
+        status.startTime = ctime;
+        status.endTime = ctime;
+        status.records = 1;
+        status.bytes = size;
+        read(getBuffer(dType), dType::getTime, 0, time, sendChannel, id);
     }
 
     @Override
     public void close() throws IOException {
         in.close();
     }
-}
\ No newline at end of file
+
+    private interface RecordTime {
+        long getStartTime(ByteBuffer buffer);
+    }
+
+    final private class ReadHandler implements CompletionHandler<Integer, ByteBuffer> {
+        final private long position;
+        final private RecordTime recordTime;
+        final private long intendedTime;
+        final private Time time;
+        final private SendChannel sendChannel;
+        final private int id;
+        private int bytes;
+
+        private ReadHandler(long position, RecordTime recordTime, long intendedTime, Time time,
+                            SendChannel sendChannel, int id) {
+            this.position = position;
+            this.recordTime = recordTime;
+            this.intendedTime = intendedTime;
+            this.time = time;
+            this.sendChannel = sendChannel;
+            this.id = id;
+            this.bytes = 0;
+        }
+
+        @Override
+        public void completed(Integer result, ByteBuffer attachment) {
+            if (result > 0) {
+                bytes += result;
+                if (attachment.hasRemaining()) {
+                    // short read; continue from the end of the bytes read so far
+                    try {
+                        in.read(attachment, position + bytes, attachment, this);
+                        return;
+                    } catch (RuntimeException ex) {
+                        failed(ex, attachment);
+                        return;
+                    }
+                }
+            } else {
+                isEOF.set(true);
+            }
+            final long endTime = time.getCurrentTime();
+            if (bytes > 0) {
+                final long startTime = recordTime.getStartTime(attachment);
+                bufferPool.offer(attachment);
+                sendChannel.send(id, startTime, endTime, bytes, 1, intendedTime);
+            } else {
+                bufferPool.offer(attachment);
+                sendChannel.sendException(id, new EOFException());
+            }
+        }
+
+        @Override
+        public void failed(Throwable ex, ByteBuffer attachment) {
+            bufferPool.offer(attachment);
+            sendChannel.sendException(id, ex);
+        }
+    }
+}
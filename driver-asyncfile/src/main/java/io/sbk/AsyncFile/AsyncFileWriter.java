@@ -45,6 +45,7 @@ public class AsyncFileWriter implements Writer<ByteBuffer> {
                             Status status, SendChannel record, int id) throws IOException {
         final ByteBuffer buffer = data.asReadOnlyBuffer();
         final long ctime = time.getCurrentTime();
+        final long intendedTime = status.intendedTime;
 
         status.startTime = ctime;
         status.bytes = size;
@@ -55,7 +56,7 @@ public class AsyncFileWriter implements Writer<ByteBuffer> {
                     @Override
                     public void completed(Integer result, ByteBuffer attachment) {
                         final long endTime = time.getCurrentTime();
-                        record.send(id, ctime, endTime, result, 1);
+                        record.send(id, ctime, endTime, result, 1, intendedTime);
                     }
 
                     @Override
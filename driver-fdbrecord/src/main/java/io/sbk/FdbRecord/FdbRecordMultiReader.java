@@ -98,7 +98,7 @@ public class FdbRecordMultiReader implements Reader<ByteString> {
         status.endTime = time.getCurrentTime();
         key += recs;
         cnt += recs;
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
     }
 
 
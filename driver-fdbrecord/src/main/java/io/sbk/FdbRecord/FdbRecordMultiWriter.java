@@ -104,7 +104,7 @@ public class FdbRecordMultiWriter implements Writer<ByteString> {
             return null;
         });
         status.endTime = time.getCurrentTime();
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
         key += recs;
         cnt += recs;
     }
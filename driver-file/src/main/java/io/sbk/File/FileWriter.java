@@ -51,7 +51,7 @@ public class FileWriter implements Writer<ByteBuffer> {
         status.endTime = time.getCurrentTime();
         status.bytes = size;
         status.records = 1;
-        record.send(id, status.startTime, status.endTime, size, 1);
+        record.send(id, status.startTime, status.endTime, size, 1, status.intendedTime);
     }
 
 
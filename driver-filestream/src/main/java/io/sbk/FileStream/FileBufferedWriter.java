@@ -38,7 +38,7 @@ public class FileBufferedWriter implements Writer<byte[]> {
         status.endTime = time.getCurrentTime();
         status.records = 1;
         status.bytes = size;
-        record.send(id, status.startTime, status.endTime, size, 1);
+        record.send(id, status.startTime, status.endTime, size, 1, status.intendedTime);
     }
 
     @Override
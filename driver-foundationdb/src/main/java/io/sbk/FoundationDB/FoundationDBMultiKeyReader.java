@@ -91,7 +91,7 @@ public class FoundationDBMultiKeyReader implements Reader<byte[]> {
         status.endTime = time.getCurrentTime();
         key += recs;
         cnt += recs;
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
     }
 
 
@@ -101,7 +101,7 @@ public class FoundationDBMultiKeyWriter implements Writer<byte[]> {
             return null;
         });
         status.endTime = time.getCurrentTime();
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
         key += recs;
         cnt += recs;
     }
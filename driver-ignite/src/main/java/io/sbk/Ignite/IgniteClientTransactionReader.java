@@ -80,7 +80,7 @@ public class IgniteClientTransactionReader implements Reader<byte[]> {
         status.endTime = time.getCurrentTime();
         key += recs;
         cnt += recs;
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
     }
 
 
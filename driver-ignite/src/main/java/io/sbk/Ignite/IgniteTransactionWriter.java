@@ -86,7 +86,7 @@ public class IgniteTransactionWriter implements Writer<byte[]> {
         }
         tx.commit();
         status.endTime = time.getCurrentTime();
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
         key += recs;
         cnt += recs;
     }
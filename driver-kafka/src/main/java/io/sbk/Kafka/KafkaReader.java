@@ -51,7 +51,7 @@ public class KafkaReader implements Reader<byte[]> {
                 status.bytes += record.value().length;
                 status.records += 1;
             }
-            sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+            sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
         }
     }
 
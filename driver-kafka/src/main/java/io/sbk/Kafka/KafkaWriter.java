@@ -39,12 +39,13 @@ public class KafkaWriter implements Writer<byte[]> {
     public void recordWrite(DataType<byte[]> dType, byte[] data, int size, Time time,
                             Status status, SendChannel record, int id) {
         final long ctime = time.getCurrentTime();
+        final long intendedTime = status.intendedTime;
         status.startTime = ctime;
         status.bytes = size;
         status.records = 1;
         producer.send(new ProducerRecord<>(topicName, data), (metadata, exception) -> {
             final long endTime = time.getCurrentTime();
-            record.send(id, ctime, endTime, size, 1);
+            record.send(id, ctime, endTime, size, 1, intendedTime);
         });
     }
 
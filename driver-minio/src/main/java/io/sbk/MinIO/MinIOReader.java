@@ -58,7 +58,7 @@ public class MinIOReader implements Reader<byte[]> {
                 status.bytes = (int) client.statObject(config.bucketName, item.objectName()).length();
                 inStream = client.getObject(config.bucketName, item.objectName());
                 status.endTime = time.getCurrentTime();
-                sendChannel.send(id, status.startTime, status.endTime, status.bytes, 1);
+                sendChannel.send(id, status.startTime, status.endTime, status.bytes, 1, status.intendedTime);
                 inStream.close();
             }
         } catch (InvalidBucketNameException | NoSuchAlgorithmException | InsufficientDataException |
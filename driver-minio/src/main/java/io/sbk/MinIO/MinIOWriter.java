@@ -64,7 +64,7 @@ public class MinIOWriter implements Writer<byte[]> {
         status.endTime = time.getCurrentTime();
         status.bytes = size;
         status.records = 1;
-        record.send(id, status.startTime, status.endTime, size, 1);
+        record.send(id, status.startTime, status.endTime, size, 1, status.intendedTime);
     }
 
     @Override
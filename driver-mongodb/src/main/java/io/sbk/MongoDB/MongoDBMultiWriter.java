@@ -90,7 +90,7 @@ public class MongoDBMultiWriter implements Writer<byte[]> {
         }
         databaseCollection.insertMany(lt);
         status.endTime = time.getCurrentTime();
-        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+        sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records, status.intendedTime);
         cnt += recs;
     }
 }
\ No newline at end of file
@@ -47,6 +47,7 @@ public class NatsStreamWriter implements Writer<byte[]> {
     public void recordWrite(DataType<byte[]> dType, byte[] data, int size, Time time,
                             Status status, SendChannel record, int id) {
         final long ctime = time.getCurrentTime();
+        final long intendedTime = status.intendedTime;
         status.startTime = ctime;
         status.bytes = size;
         status.records = 1;
@@ -56,7 +57,7 @@ public class NatsStreamWriter implements Writer<byte[]> {
                 Printer.log.error("NAT Streaming Writer failed !");
             } else {
                 final long endTime = time.getCurrentTime();
-                record.send(id, ctime, endTime, size, 1);
+                record.send(id, ctime, endTime, size, 1, intendedTime);
             }
         };
         try {
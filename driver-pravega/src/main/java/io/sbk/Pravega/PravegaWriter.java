@@ -50,13 +50,14 @@ public class PravegaWriter implements Writer<byte[]> {
                             Status status, SendChannel record, int id) throws IOException {
         CompletableFuture<Void> ret;
         final long ctime = time.getCurrentTime();
+        final long intendedTime = status.intendedTime;
         status.startTime = ctime;
         status.records = 1;
         status.bytes = size;
         ret = writeAsync(data);
         ret.thenAccept(d -> {
             final long endTime = time.getCurrentTime();
-            record.send(id, ctime, endTime, size, 1);
+            record.send(id, ctime, endTime, size, 1, intendedTime);
         });
     }
 
@@ -20,6 +20,8 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface for Asynchronous Readers.
+ * The number of outstanding reads is bounded by the option '-qdepth'; the reader waits for the completion
+ * of the earlier reads before invoking {@link AsyncReader#readAsync(int)}, if the queue depth is reached.
  */
 public non-sealed interface AsyncReader<T> extends DataRecordsReader<T> {
 
@@ -71,13 +73,14 @@ public non-sealed interface AsyncReader<T> extends DataRecordsReader<T> {
             throw new IOException();
         } else {
             final long beginTime = status.startTime;
+            final long intendedTime = status.intendedTime;
             ret.exceptionally(ex -> {
                 sendChannel.sendException(id, ex);
                 return null;
             });
             ret.thenAccept(d -> {
                 final long endTime = time.getCurrentTime();
-                sendChannel.send(id, beginTime, endTime, dType.length(d), status.records);
+                sendChannel.send(id, beginTime, endTime, dType.length(d), status.records, intendedTime);
             });
         }
     }
@@ -110,6 +113,10 @@ public non-sealed interface AsyncReader<T> extends DataRecordsReader<T> {
         if (ret == null) {
             throw new IOException();
         } else {
+            ret.exceptionally(ex -> {
+                sendChannel.sendException(id, ex);
+                return null;
+            });
             ret.thenAccept(d -> {
                 final long endTime = time.getCurrentTime();
                 sendChannel.send(id, dType.getTime(d), endTime, dType.length(d), status.records);
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * class for the batch of records to write.
+ * The batch keeps the data, the size and the time at which each record is added to the batch;
+ * the batch is reused after it is written.
+ *
+ * @param <T> Type of the data.
+ */
+final public class Batch<T> {
+    final private List<T> data;
+    private long[] startTimes;
+    private int[] sizes;
+    private int bytes;
+
+    public Batch() {
+        this.data = new ArrayList<>();
+        this.startTimes = new long[1];
+        this.sizes = new int[1];
+        this.bytes = 0;
+    }
+
+    /**
+     * Add the record to the batch.
+     *
+     * @param record    record to add
+     * @param size      size of the record
+     * @param startTime time at which the record is added.
+     */
+    public void add(T record, int size, long startTime) {
+        final int index = data.size();
+        if (index == startTimes.length) {
+            startTimes = Arrays.copyOf(startTimes, startTimes.length * 2);
+            sizes = Arrays.copyOf(sizes, sizes.length * 2);
+        }
+        startTimes[index] = startTime;
+        sizes[index] = size;
+        data.add(record);
+        bytes += size;
+    }
+
+    /**
+     * Clear the batch to reuse.
+     */
+    public void clear() {
+        data.clear();
+        bytes = 0;
+    }
+
+    public List<T> getData() {
+        return data;
+    }
+
+    public int getRecords() {
+        return data.size();
+    }
+
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the size of the record.
+     *
+     * @param index index of the record
+     * @return size of the record.
+     */
+    public int getRecordSize(int index) {
+        return sizes[index];
+    }
+
+    public boolean isEmpty() {
+        return data.isEmpty();
+    }
+
+    /**
+     * Get the time at which the record is added to the batch.
+     *
+     * @param index index of the record
+     * @return time at which the record is added.
+     */
+    public long getStartTime(int index) {
+        return startTimes[index];
+    }
+
+    /**
+     * Copy the times at which the records are added to the batch.
+     *
+     * @return start times of the records of this batch.
+     */
+    public long[] copyStartTimes() {
+        return Arrays.copyOf(startTimes, data.size());
+    }
+
+    /**
+     * Copy the sizes of the records of the batch.
+     *
+     * @return sizes of the records of this batch.
+     */
+    public int[] copyRecordSizes() {
+        return Arrays.copyOf(sizes, data.size());
+    }
+}
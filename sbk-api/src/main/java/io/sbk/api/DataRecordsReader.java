@@ -158,6 +158,7 @@ public sealed interface DataRecordsReader<T> extends DataReader<T> permits Async
         final long loopStartTime = time.getCurrentTime();
         rController.start(reader.params.getRecordsPerSec());
         while (i < recordsCount) {
+            status.intendedTime = rController.getIntendedTime();
             recordTime.recordRead(dType, size, time, status, reader.sendChannel, id++);
             i += status.records;
             if (id >= reader.recordIDMax) {
@@ -214,6 +215,7 @@ public sealed interface DataRecordsReader<T> extends DataReader<T> permits Async
         long cnt = 0;
         rController.start(reader.params.getRecordsPerSec());
         while (time.elapsedMilliSeconds(status.endTime, startTime) < msToRun) {
+            status.intendedTime = rController.getIntendedTime();
             recordTime.recordRead(dType, size, time, status, reader.sendChannel, id++);
             if (id >= reader.recordIDMax) {
                 id = 0;
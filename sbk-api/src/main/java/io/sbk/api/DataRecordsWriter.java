@@ -12,6 +12,7 @@ package io.sbk.api;
 
 import io.sbk.config.PerlConfig;
 import io.sbk.data.DataType;
+import io.sbk.data.PayloadPool;
 import io.sbk.perl.SendChannel;
 import io.sbk.time.Time;
 
@@ -59,6 +60,89 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
                      Status status, SendChannel sendChannel, int id) throws IOException;
 
 
+    /**
+     * Write the batch of records and record the benchmark statistics.
+     * The latency of the batch, from the start of the batch write till its completion, is sent to sendChannel;
+     * the latency of every record, from the time the record is added to the batch till the completion
+     * of the batch write, is sent to recordChannel.
+     *
+     * @param dType         Data Type interface
+     * @param batch         batch of records to write; the batch is reused after this method returns.
+     * @param time          time interface
+     * @param status        Write status to return; {@link io.sbk.api.Status}
+     * @param sendChannel   to call for benchmarking the batches
+     * @param recordChannel to call for benchmarking the records; null to skip.
+     * @param id            Identifier for recordTime
+     * @throws IOException If an exception occurred.
+     */
+    void recordWriteBatch(DataType<T> dType, Batch<T> batch, Time time, Status status,
+                          SendChannel sendChannel, SendChannel recordChannel, int id) throws IOException;
+
+
+    /**
+     * Default implementation for writer benchmarking by writing the batches of records.
+     * The records are added to a batch till the batch has '-batch' records or '-batchbytes' bytes, or till
+     * '-linger' milliseconds elapsed since the first record of the batch is added. The batch is written using
+     * {@link io.sbk.api.DataRecordsWriter#recordWriteBatch(DataType, Batch, Time, Status, SendChannel, SendChannel, int)}.
+     * The rate controller is invoked after writing every batch, and sync is invoked after writing given set of records.
+     *
+     * @param writer        Writer Descriptor
+     * @param secondsToRun  Number of seconds to Run; if 0, then recordsCount is used.
+     * @param recordsCount  Records Count
+     * @param dType         Data Type interface
+     * @param data          data to write
+     * @param size          size of the data
+     * @param time          time interface
+     * @param rController   Rate Controller
+     * @param recordChannel channel to send the latency of every record of the batch; null to skip.
+     * @throws IOException If an exception occurred.
+     */
+    default void RecordsWriterBatch(Worker writer, long secondsToRun, long recordsCount, DataType<T> dType, T data,
+                                    int size, Time time, RateController rController,
+                                    SendChannel recordChannel) throws IOException {
+        final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
+        final Batch<T> batch = new Batch<>();
+        final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
+        final int maxRecords = writer.params.getBatchRecords() > 0 ? writer.params.getBatchRecords() : Integer.MAX_VALUE;
+        final int maxBytes = writer.params.getBatchBytes() > 0 ? writer.params.getBatchBytes() : Integer.MAX_VALUE;
+        final int lingerMS = writer.params.getLingerMS();
+        final long loopStartTime = time.getCurrentTime();
+        int id = writer.id % writer.recordIDMax;
+        long cnt = 0;
+        long syncCnt = 0;
+        long ctime = loopStartTime;
+        rController.start(writer.params.getRecordsPerSec());
+        while (secondsToRun > 0 ? time.elapsedMilliSeconds(ctime, loopStartTime) < msToRun : cnt < recordsCount) {
+            batch.add(payloads.next(), payloads.getLength(), ctime);
+            if (batch.getRecords() >= maxRecords || batch.getBytes() >= maxBytes ||
+                    (lingerMS > 0 && time.elapsedMilliSeconds(ctime, batch.getStartTime(0)) >= lingerMS) ||
+                    (secondsToRun <= 0 && cnt + batch.getRecords() >= recordsCount)) {
+                status.intendedTime = rController.getIntendedTime();
+                recordWriteBatch(dType, batch, time, status, writer.sendChannel, recordChannel, id);
+                batch.clear();
+                id += 1;
+                if (id >= writer.recordIDMax) {
+                    id = 0;
+                }
+                cnt += status.records;
+                syncCnt += status.records;
+                if (syncCnt >= writer.params.getRecordsPerSync()) {
+                    sync();
+                    syncCnt = 0;
+                }
+                rController.control(cnt, time.elapsedSeconds(status.startTime, loopStartTime));
+            }
+            ctime = time.getCurrentTime();
+        }
+        if (!batch.isEmpty()) {
+            status.intendedTime = rController.getIntendedTime();
+            recordWriteBatch(dType, batch, time, status, writer.sendChannel, recordChannel, id);
+            batch.clear();
+        }
+        sync();
+    }
+
     /**
      * Default implementation for writer benchmarking by writing given number of records.
      * Write is performed using {@link io.sbk.api.DataRecordsWriter#recordWrite(DataType, Object, int, Time, Status, SendChannel, int)}
@@ -74,10 +158,11 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
      */
     default void RecordsWriter(Worker writer, long recordsCount, DataType<T> dType, T data, int size, Time time) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         int id = writer.id % writer.recordIDMax;
         long i = 0;
         while (i < recordsCount) {
-            recordWrite(dType, data, size, time, status, writer.sendChannel, id);
+            recordWrite(dType, payloads.next(), payloads.getLength(), time, status, writer.sendChannel, id);
             id += 1;
             if (id >= writer.recordIDMax) {
                 id = 0;
@@ -104,6 +189,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
     default void RecordsWriterSync(Worker writer, long recordsCount, DataType<T> dType, T data, int size,
                                    Time time, RateController rController) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         final long loopStartTime = time.getCurrentTime();
         int id = writer.id % writer.recordIDMax;
         long cnt = 0;
@@ -112,7 +198,8 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
             long loopMax = Math.min(writer.params.getRecordsPerSync(), recordsCount - cnt);
             long i = 0;
             while (i < loopMax) {
-                recordWrite(dType, data, size, time, status, writer.sendChannel, id);
+                status.intendedTime = rController.getIntendedTime();
+                recordWrite(dType, payloads.next(), payloads.getLength(), time, status, writer.sendChannel, id);
                 id += 1;
                 if (id >= writer.recordIDMax) {
                     id = 0;
@@ -141,13 +228,14 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
     default void RecordsWriterTime(Worker writer, long secondsToRun, DataType<T> dType, T data, int size,
                                    Time time) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
         long startTime = time.getCurrentTime();
         int id = writer.id % writer.recordIDMax;
         status.startTime = startTime;
         double msElapsed = 0;
         while (msElapsed < msToRun) {
-            recordWrite(dType, data, size, time, status, writer.sendChannel, id);
+            recordWrite(dType, payloads.next(), payloads.getLength(), time, status, writer.sendChannel, id);
             id += 1;
             if (id >= writer.recordIDMax) {
                 id = 0;
@@ -174,6 +262,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
     default void RecordsWriterTimeSync(Worker writer, long secondsToRun, DataType<T> dType, T data, int size,
                                        Time time, RateController rController) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         final long loopStartTime = time.getCurrentTime();
         int id = writer.id % writer.recordIDMax;
         int cnt = 0;
@@ -183,7 +272,8 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
         while (secondsElapsed < secondsToRun) {
             int i = 0;
             while ((secondsElapsed < secondsToRun) && (i < writer.params.getRecordsPerSync())) {
-                recordWrite(dType, data, size, time, status, writer.sendChannel, id);
+                status.intendedTime = rController.getIntendedTime();
+                recordWrite(dType, payloads.next(), payloads.getLength(), time, status, writer.sendChannel, id);
                 id += 1;
                 if (id >= writer.recordIDMax) {
                     id = 0;
@@ -214,6 +304,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
     default void RecordsWriterRW(Worker writer, long recordsCount, DataType<T> dType, T data, int size,
                                  Time time, RateController rController) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         final long loopStartTime = time.getCurrentTime();
         int id = writer.id % writer.recordIDMax;
         long cnt = 0;
@@ -222,7 +313,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
             long loopMax = Math.min(writer.params.getRecordsPerSync(), recordsCount - cnt);
             long i = 0;
             while (i < loopMax) {
-                writeSetTime(dType, data, size, time, status);
+                writeSetTime(dType, payloads.next(), payloads.getLength(), time, status);
                 id += 1;
                 if (id >= writer.recordIDMax) {
                     id = 0;
@@ -252,6 +343,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
     default void RecordsWriterTimeRW(Worker writer, long secondsToRun, DataType<T> dType, T data, int size,
                                      Time time, RateController rController) throws IOException {
         final Status status = new Status();
+        final PayloadPool<T> payloads = writer.getPayloadPool(data, size);
         final long loopStartTime = time.getCurrentTime();
         int id = writer.id % writer.recordIDMax;
         long cnt = 0;
@@ -261,7 +353,7 @@ public sealed interface DataRecordsWriter<T> extends DataWriter<T> permits Write
         while (secondsElapsed < secondsToRun) {
             long i = 0;
             while ((secondsElapsed < secondsToRun) && (i < writer.params.getRecordsPerSync())) {
-                writeSetTime(dType, data, size, time, status);
+                writeSetTime(dType, payloads.next(), payloads.getLength(), time, status);
                 id += 1;
                 if (id >= writer.recordIDMax) {
                     id = 0;
@@ -11,6 +11,7 @@
 package io.sbk.api;
 
 import io.sbk.data.DataType;
+import io.sbk.perl.SendChannel;
 import io.sbk.time.Time;
 
 import java.io.IOException;
@@ -56,6 +57,23 @@ public sealed interface DataWriter<T> permits DataRecordsWriter {
     void RecordsWriterSync(Worker writer, long recordsCount, DataType<T> dType, T data, int size, Time time,
                            RateController rController) throws IOException;
 
+    /**
+     * Writer benchmarking by writing the batches of records, for specific time duration or given number of records.
+     *
+     * @param writer        Writer Descriptor
+     * @param secondsToRun  Number of seconds to Run; if 0, then recordsCount is used.
+     * @param recordsCount  Records count
+     * @param dType         Data Type interface
+     * @param data          data to write
+     * @param size          size of the data
+     * @param time          time interface
+     * @param rController   Rate Controller
+     * @param recordChannel channel to send the latency of every record of the batch; null to skip.
+     * @throws IOException If an exception occurred.
+     */
+    void RecordsWriterBatch(Worker writer, long secondsToRun, long recordsCount, DataType<T> dType, T data, int size,
+                            Time time, RateController rController, SendChannel recordChannel) throws IOException;
+
     /**
      * Writer benchmarking by continuously writing data records for specific time duration.
      * sync is invoked after writing records for given time.
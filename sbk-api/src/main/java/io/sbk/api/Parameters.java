@@ -10,6 +10,8 @@
 
 package io.sbk.api;
 
+import io.sbk.data.SizeDistribution;
+
 public interface Parameters {
 
     /**
@@ -36,10 +38,17 @@ public interface Parameters {
     /**
      * Size of the record/event to read or write.
      *
-     * @return size of the record.
+     * @return size of the record; the maximum size of the records, if the sizes are distributed.
      */
     int getRecordSize();
 
+    /**
+     * Distribution of the sizes of the records/events to write.
+     *
+     * @return size distribution; fixed size distribution, if single size is specified.
+     */
+    SizeDistribution getRecordSizeDistribution();
+
     /**
      * Number of records/events to write/read per single flush/sync.
      *
@@ -54,6 +63,41 @@ public interface Parameters {
      */
     int getRecordsPerSec();
 
+    /**
+     * Open loop arrival schedule of the records/events.
+     *
+     * @return 'constant', 'poisson' or the rate file name; null if the schedule is not specified.
+     */
+    String getSchedule();
+
+    /**
+     * Maximum outstanding (issued, but not completed) operations per Writer/Reader.
+     *
+     * @return queue depth; 0 if the outstanding operations are not limited.
+     */
+    int getQueueDepth();
+
+    /**
+     * Maximum number of records per batch write.
+     *
+     * @return number of records per batch; 0 if the records count does not limit the batch.
+     */
+    int getBatchRecords();
+
+    /**
+     * Maximum number of bytes per batch write.
+     *
+     * @return number of bytes per batch; 0 if the bytes do not limit the batch.
+     */
+    int getBatchBytes();
+
+    /**
+     * Maximum time to fill a batch of records.
+     *
+     * @return milliseconds to linger; 0 if the time does not limit the batch.
+     */
+    int getLingerMS();
+
     /**
      * Number of Writers/Producers.
      *
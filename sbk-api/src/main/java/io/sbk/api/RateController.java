@@ -30,4 +30,16 @@ public interface RateController {
      */
     void control(long records, double elapsedSec);
 
+    /**
+     * Get the intended start time of the next operation.
+     * The intended time is derived from the start time and the target rate only; it does not move
+     * if the operations are delayed, so that the latency measured from the intended time includes
+     * the time the operation had to wait for the previous delayed operations (coordinated omission).
+     *
+     * @return intended start time of the next operation; 0 if the rate is not limited.
+     */
+    default long getIntendedTime() {
+        return 0;
+    }
+
 }
@@ -67,7 +67,8 @@ public non-sealed interface Reader<T> extends DataRecordsReader<T> {
             status.endTime = time.getCurrentTime();
             status.bytes = dType.length(ret);
             status.records = 1;
-            sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records);
+            sendChannel.send(id, status.startTime, status.endTime, status.bytes, status.records,
+                    status.intendedTime);
         }
     }
 
@@ -18,11 +18,14 @@ final public class Status {
     public long endTime;
     public int bytes;
     public int records;
+    /* intended start time of the operation, set by the rate controlled Writer/Reader before issuing it */
+    public long intendedTime;
 
     public Status() {
         this.startTime = 0;
         this.endTime = 0;
         this.bytes = 0;
         this.records = 0;
+        this.intendedTime = 0;
     }
 }
\ No newline at end of file
@@ -10,6 +10,7 @@
 
 package io.sbk.api;
 
+import io.sbk.data.PayloadPool;
 import io.sbk.perl.SendChannel;
 
 /**
@@ -20,11 +21,33 @@ public abstract class Worker {
     public final int recordIDMax;
     public final Parameters params;
     public final SendChannel sendChannel;
+    private final PayloadPool<?> payloadPool;
 
     public Worker(int workerID, int idMax, Parameters params, SendChannel sendChannel) {
+        this(workerID, idMax, params, sendChannel, null);
+    }
+
+    public Worker(int workerID, int idMax, Parameters params, SendChannel sendChannel, PayloadPool<?> payloadPool) {
         this.id = workerID;
         this.recordIDMax = idMax;
         this.params = params;
         this.sendChannel = sendChannel;
+        this.payloadPool = payloadPool;
+    }
+
+    /**
+     * Get the payloads to write.
+     *
+     * @param data   payload to write, if the Writer does not have the payload pool.
+     * @param size   size of the data
+     * @param <T>    Type of the data.
+     * @return payload pool of the Writer or the payload pool with given data.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PayloadPool<T> getPayloadPool(T data, int size) {
+        if (payloadPool != null) {
+            return (PayloadPool<T>) payloadPool;
+        }
+        return new PayloadPool<>(data, size);
     }
 }
@@ -15,6 +15,8 @@ import io.sbk.perl.SendChannel;
 import io.sbk.time.Time;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -31,6 +33,31 @@ public non-sealed interface Writer<T> extends DataRecordsWriter<T> {
      */
     CompletableFuture<?> writeAsync(T data) throws IOException;
 
+    /**
+     * Asynchronously Writes the batch of data.
+     * Default implementation writes every record of the batch using {@link io.sbk.api.Writer#writeAsync(Object)};
+     * override this method to use the batch operation of the storage client.
+     * The list is reused after this method returns; copy the list, if the storage client refers the list
+     * after returning from this method.
+     *
+     * @param batch list of data to write
+     * @return CompletableFuture completable future. null if the write completed synchronously .
+     * @throws IOException If an exception occurred.
+     */
+    default CompletableFuture<?> writeBatchAsync(List<T> batch) throws IOException {
+        List<CompletableFuture<?>> futures = null;
+        for (T data : batch) {
+            final CompletableFuture<?> ret = writeAsync(data);
+            if (ret != null) {
+                if (futures == null) {
+                    futures = new ArrayList<>(batch.size());
+                }
+                futures.add(ret);
+            }
+        }
+        return futures == null ? null : CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
     /**
      * Close the  Writer.
      *
@@ -95,16 +122,67 @@ public non-sealed interface Writer<T> extends DataRecordsWriter<T> {
         ret = writeAsync(data);
         if (ret == null) {
             status.endTime = time.getCurrentTime();
-            sendChannel.send(id, status.startTime, status.endTime, size, status.records);
+            sendChannel.send(id, status.startTime, status.endTime, size, status.records, status.intendedTime);
+        } else {
+            final long beginTime = status.startTime;
+            final long intendedTime = status.intendedTime;
+            ret.exceptionally(ex -> {
+                sendChannel.sendException(id, ex);
+                return null;
+            });
+            ret.thenAccept(d -> {
+                final long endTime = time.getCurrentTime();
+                sendChannel.send(id, beginTime, endTime, size, status.records, intendedTime);
+            });
+        }
+    }
+
+    /**
+     * Default implementation for writing the batch of data using {@link io.sbk.api.Writer#writeBatchAsync(List)}
+     * and recording the benchmark statistics of the batch and its records.
+     *
+     * @param dType         Data Type interface
+     * @param batch         batch of records to write; the batch is reused after this method returns.
+     * @param time          time interface
+     * @param status        Write status to return
+     * @param sendChannel   to call for benchmarking the batches
+     * @param recordChannel to call for benchmarking the records; null to skip.
+     * @param id            Identifier for recordTime
+     * @throws IOException If an exception occurred.
+     */
+    default void recordWriteBatch(DataType<T> dType, Batch<T> batch, Time time, Status status,
+                                  SendChannel sendChannel, SendChannel recordChannel, int id) throws IOException {
+        final int bytes = batch.getBytes();
+        final int records = batch.getRecords();
+        status.bytes = bytes;
+        status.records = records;
+        status.startTime = time.getCurrentTime();
+        final CompletableFuture<?> ret = writeBatchAsync(batch.getData());
+        if (ret == null) {
+            status.endTime = time.getCurrentTime();
+            sendChannel.send(id, status.startTime, status.endTime, bytes, records, status.intendedTime);
+            if (recordChannel != null) {
+                for (int i = 0; i < records; i++) {
+                    recordChannel.send(id, batch.getStartTime(i), status.endTime, batch.getRecordSize(i), 1);
+                }
+            }
         } else {
             final long beginTime = status.startTime;
+            final long intendedTime = status.intendedTime;
+            final long[] startTimes = recordChannel != null ? batch.copyStartTimes() : null;
+            final int[] recordSizes = recordChannel != null ? batch.copyRecordSizes() : null;
             ret.exceptionally(ex -> {
                 sendChannel.sendException(id, ex);
                 return null;
             });
             ret.thenAccept(d -> {
                 final long endTime = time.getCurrentTime();
-                sendChannel.send(id, beginTime, endTime, size, status.records);
+                sendChannel.send(id, beginTime, endTime, bytes, records, intendedTime);
+                if (startTimes != null) {
+                    for (int i = 0; i < startTimes.length; i++) {
+                        recordChannel.send(id, startTimes[i], endTime, recordSizes[i], 1);
+                    }
+                }
             });
         }
     }
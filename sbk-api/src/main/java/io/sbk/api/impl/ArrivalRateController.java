@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.api.RateController;
+import io.sbk.config.PerlConfig;
+import io.sbk.time.Time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rate Controller which issues the records(events) as per the open loop {@link ArrivalSchedule}.
+ * The time slot of the first operation is claimed from the shared schedule at the start, and the time slot of
+ * every next operation is claimed after the previous operation. The Writer/Reader waits till the slot time:
+ * it parks till shortly before the slot time and spins for the rest, so that the operations are issued with
+ * the precision of the schedule clock. If the Writer/Reader is behind the schedule, the operation is issued
+ * immediately and the lag is recorded.
+ */
+final public class ArrivalRateController implements RateController {
+    final private static long SPIN_NS = 50 * PerlConfig.NS_PER_MICRO;
+    final private ArrivalSchedule schedule;
+    final private Time clock;
+    final private Time time;
+    private long startTime;
+    private long clockStartTime;
+    private long slotTime;
+    private long records;
+
+    /**
+     * Create the Arrival Rate Controller.
+     *
+     * @param schedule schedule shared by all Writers or all Readers
+     * @param time     time interface used for the intended times.
+     */
+    public ArrivalRateController(ArrivalSchedule schedule, Time time) {
+        this.schedule = schedule;
+        this.clock = schedule.getTime();
+        this.time = time;
+        this.startTime = 0;
+        this.clockStartTime = 0;
+        this.slotTime = 0;
+        this.records = 0;
+    }
+
+    /**
+     * Start the Rate Controller and wait till the time slot of the first operation.
+     * The records per second is ignored; the rate is defined by the schedule.
+     *
+     * @param recordsPerSec Records Per Second.
+     */
+    @Override
+    public void start(int recordsPerSec) {
+        schedule.start();
+        this.startTime = time.getCurrentTime();
+        this.clockStartTime = clock.getCurrentTime();
+        this.records = 0;
+        waitSlot(schedule.claim(1));
+    }
+
+    /**
+     * Claim the time slot of the next operation and wait till the slot time.
+     * The previous operation was issued on one slot; the slots of its remaining records are claimed along
+     * with the slot of the next operation.
+     *
+     * @param records    current cumulative records
+     * @param elapsedSec Elapsed Seconds
+     */
+    @Override
+    public void control(long records, double elapsedSec) {
+        final int claimRecords = (int) Math.max(1, records - this.records);
+        this.records = records;
+        waitSlot(schedule.claim(claimRecords));
+    }
+
+    private long remainingNs() {
+        return (long) clock.convertToNanoSeconds(clock.elapsed(slotTime, clock.getCurrentTime()));
+    }
+
+    private void waitSlot(long slot) {
+        slotTime = slot;
+        long remainingNs = remainingNs();
+        if (remainingNs < 0) {
+            schedule.recordLag(-remainingNs);
+            return;
+        }
+        while (remainingNs > SPIN_NS) {
+            LockSupport.parkNanos(remainingNs - SPIN_NS);
+            remainingNs = remainingNs();
+        }
+        while (remainingNs() > 0) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Get the intended start time of the current operation.
+     *
+     * @return slot time of the current operation in the time unit of the time interface.
+     */
+    @Override
+    public long getIntendedTime() {
+        if (startTime == 0) {
+            return 0;
+        }
+        return startTime + (long) (clock.convertToNanoSeconds(clock.elapsed(slotTime, clockStartTime)) /
+                time.convertToNanoSeconds(1));
+    }
+}
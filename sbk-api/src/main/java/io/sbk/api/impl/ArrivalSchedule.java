@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.ReportSchedule;
+import io.sbk.perl.WindowStats;
+import io.sbk.time.Time;
+import lombok.Synchronized;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Open loop arrival schedule of the records(events) shared by all the Writers or all the Readers.
+ * Every record is assigned an absolute time slot on the schedule, which does not depend on the
+ * completion of the previous records. The slots are spaced by constant intervals, by exponentially
+ * distributed intervals (Poisson arrivals), or as per the rates read from a rate file.
+ * The slot times are in the time unit of the schedule clock; the target rate, achieved rate and
+ * the schedule lag are reported at the end of every reporting window.
+ */
+final public class ArrivalSchedule implements WindowStats {
+    final public static String CONSTANT = "constant";
+    final public static String POISSON = "poisson";
+
+    final private String name;
+    final private Time time;
+    final private ReportSchedule reportSchedule;
+    final private double unitsPerSec;
+    final private double ratePerSec;
+    final private long[] fileSecondsEnd;
+    final private double[] fileRates;
+    final private AtomicLong nextSlot;
+    final private AtomicLong nextTime;
+    final private AtomicLong startTime;
+    final private LongAdder windowRecords;
+    final private LongAdder windowLagNs;
+    final private LongAdder windowLagged;
+    final private LongAccumulator windowMaxLagNs;
+    private volatile boolean started;
+
+    /**
+     * Create the Arrival Schedule.
+     *
+     * @param schedule       'constant', 'poisson' or the name of the rate file.
+     *                       Every line of the rate file has the number of seconds and the records per second
+     *                       of all Writers/Readers, separated by space or comma; empty lines and lines starting
+     *                       with '#' are skipped. The last rate continues till the end of the benchmark.
+     * @param ratePerSec     records per second of all Writers/Readers; used for constant and poisson schedules.
+     * @param time           clock of the schedule; the time unit of the clock is the precision of the slots.
+     * @param reportSchedule reporter of the schedule statistics of every window.
+     * @throws IOException If the rate file cannot be read.
+     */
+    public ArrivalSchedule(@NotNull String schedule, double ratePerSec, @NotNull Time time,
+                           @NotNull ReportSchedule reportSchedule) throws IOException {
+        this.ratePerSec = ratePerSec;
+        this.time = time;
+        this.reportSchedule = reportSchedule;
+        this.unitsPerSec = PerlConfig.NS_PER_SEC / time.convertToNanoSeconds(1);
+        if (schedule.equalsIgnoreCase(CONSTANT) || schedule.equalsIgnoreCase(POISSON)) {
+            this.name = schedule.toLowerCase();
+            this.fileSecondsEnd = null;
+            this.fileRates = null;
+        } else {
+            this.name = "file";
+            final List<Long> secondsEnd = new ArrayList<>();
+            final List<Double> rates = new ArrayList<>();
+            long seconds = 0;
+            for (String line : Files.readAllLines(Paths.get(schedule))) {
+                final String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                final String[] tokens = trimmed.split("[,\\s]+");
+                if (tokens.length < 2) {
+                    throw new IOException("Invalid line in the rate file " + schedule + " : " + line);
+                }
+                try {
+                    seconds += Long.parseLong(tokens[0]);
+                    secondsEnd.add(seconds);
+                    rates.add(Double.parseDouble(tokens[1]));
+                } catch (NumberFormatException ex) {
+                    throw new IOException("Invalid line in the rate file " + schedule + " : " + line, ex);
+                }
+            }
+            if (secondsEnd.isEmpty()) {
+                throw new IOException("No rates in the rate file " + schedule);
+            }
+            this.fileSecondsEnd = new long[secondsEnd.size()];
+            this.fileRates = new double[secondsEnd.size()];
+            for (int i = 0; i < fileSecondsEnd.length; i++) {
+                fileSecondsEnd[i] = secondsEnd.get(i);
+                fileRates[i] = rates.get(i);
+            }
+        }
+        this.nextSlot = new AtomicLong(0);
+        this.nextTime = new AtomicLong(0);
+        this.startTime = new AtomicLong(0);
+        this.windowRecords = new LongAdder();
+        this.windowLagNs = new LongAdder();
+        this.windowLagged = new LongAdder();
+        this.windowMaxLagNs = new LongAccumulator(Math::max, 0);
+        this.started = false;
+    }
+
+    /**
+     * Get the clock of the schedule.
+     *
+     * @return time interface of the slot times.
+     */
+    public Time getTime() {
+        return time;
+    }
+
+    /**
+     * Start the schedule; only the first invocation starts the schedule, the rest are ignored.
+     */
+    @Synchronized
+    public void start() {
+        if (!started) {
+            final long now = time.getCurrentTime();
+            startTime.set(now);
+            nextTime.set(now);
+            started = true;
+        }
+    }
+
+    /**
+     * Get the records per second of the schedule at the given time.
+     *
+     * @param slotTime time of the schedule clock
+     * @return records per second
+     */
+    private double getRate(long slotTime) {
+        if (fileRates == null) {
+            return ratePerSec;
+        }
+        final long seconds = (long) time.elapsedSeconds(slotTime, startTime.get());
+        for (int i = 0; i < fileSecondsEnd.length; i++) {
+            if (seconds < fileSecondsEnd[i]) {
+                return fileRates[i];
+            }
+        }
+        return fileRates[fileRates.length - 1];
+    }
+
+    private long getInterval(long slotTime) {
+        final double rate = getRate(slotTime);
+        if (rate <= 0) {
+            // no records in this period of the rate file; move to the next second
+            final long elapsed = time.elapsed(slotTime, startTime.get());
+            return (long) unitsPerSec - (elapsed % (long) unitsPerSec);
+        }
+        final double interval = unitsPerSec / rate;
+        if (fileRates == null && name.equals(POISSON)) {
+            return Math.max(1, (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * interval));
+        }
+        return Math.max(1, (long) interval);
+    }
+
+    /**
+     * Claim the next time slots for the given number of records.
+     *
+     * @param records number of records.
+     * @return time of the last claimed slot, in the time unit of the schedule clock.
+     */
+    public long claim(int records) {
+        windowRecords.add(records);
+        if (fileRates == null && name.equals(CONSTANT)) {
+            final long slot = nextSlot.getAndAdd(records) + records - 1;
+            return startTime.get() + (long) (slot * (unitsPerSec / ratePerSec));
+        }
+        long slotTime;
+        long last;
+        long next;
+        do {
+            slotTime = nextTime.get();
+            last = slotTime;
+            next = slotTime;
+            for (int i = 0; i < records; i++) {
+                last = next;
+                next += getInterval(next);
+            }
+        } while (!nextTime.compareAndSet(slotTime, next));
+        return last;
+    }
+
+    /**
+     * Record the lag of the record started later than its time slot.
+     *
+     * @param lagNs lag in nanoseconds
+     */
+    public void recordLag(long lagNs) {
+        windowLagged.increment();
+        windowLagNs.add(lagNs);
+        windowMaxLagNs.accumulate(lagNs);
+    }
+
+    /**
+     * Report the target rate, achieved rate and the schedule lag of the window.
+     *
+     * @param seconds duration of the window in seconds.
+     */
+    @Override
+    public void reportWindow(double seconds) {
+        if (!started || seconds <= 0) {
+            return;
+        }
+        final long records = windowRecords.sumThenReset();
+        final long lagged = windowLagged.sumThenReset();
+        final long lagNs = windowLagNs.sumThenReset();
+        final long maxLagNs = windowMaxLagNs.getThenReset();
+        reportSchedule.reportSchedule(seconds, getRate(time.getCurrentTime()), records / seconds, lagged,
+                lagged > 0 ? (lagNs * 1.0) / lagged : 0.0, maxLagNs);
+    }
+
+    @Override
+    public String toString() {
+        return fileRates == null ? name + ", records/sec: " + ratePerSec : name;
+    }
+}
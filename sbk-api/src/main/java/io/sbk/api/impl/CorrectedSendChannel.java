@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.perl.Channel;
+import io.sbk.perl.SendChannel;
+import io.sbk.perl.TimeStamp;
+
+/**
+ * Channel which sends the benchmark data of a Writer/Reader to two channels.
+ * The benchmark data is sent as it is to the first channel; the second channel receives the same data
+ * with start time replaced by the intended start time of the operation, if the operation started late.
+ * The intended time is captured by the Writer/Reader when the operation is issued, and travels with the
+ * operation till its benchmark data is sent.
+ */
+final class CorrectedSendChannel implements Channel {
+    final private SendChannel channel;
+    final private SendChannel correctedChannel;
+
+    CorrectedSendChannel(SendChannel channel, SendChannel correctedChannel) {
+        this.channel = channel;
+        this.correctedChannel = correctedChannel;
+    }
+
+    @Override
+    public TimeStamp receive(int timeout) {
+        return null;
+    }
+
+    @Override
+    public void sendEndTime(long endTime) {
+
+    }
+
+    @Override
+    public void clear() {
+
+    }
+
+    @Override
+    public void send(int id, long startTime, long endTime, int dataSize, int records) {
+        channel.send(id, startTime, endTime, dataSize, records);
+        correctedChannel.send(id, startTime, endTime, dataSize, records);
+    }
+
+    @Override
+    public void send(int id, long startTime, long endTime, int dataSize, int records, long intendedTime) {
+        channel.send(id, startTime, endTime, dataSize, records);
+        correctedChannel.send(id, intendedTime > 0 ? Math.min(intendedTime, startTime) : startTime,
+                endTime, dataSize, records);
+    }
+
+    @Override
+    public void sendException(int id, Throwable ex) {
+        channel.sendException(id, ex);
+    }
+}
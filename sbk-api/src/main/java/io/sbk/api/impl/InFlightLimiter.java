@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.api.RateController;
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.Channel;
+import io.sbk.perl.SendChannel;
+import io.sbk.perl.TimeStamp;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Rate Controller which bounds the outstanding (issued, but not completed) operations of a Writer/Reader.
+ * The issued operations are counted by {@link RateController#control(long, double)}, which is invoked by the
+ * Writer/Reader loops after issuing every operation; a call without new records, for example after a read which
+ * returned no data, does not take a credit. The completed operations are counted by the send channel
+ * returned by {@link InFlightLimiter#wrap(SendChannel)}, through which the benchmark data of the completed
+ * operations is delivered. The Writer/Reader waits for the credits, if the maximum outstanding operations are
+ * issued. The wait ends, if the statistics are stopped at the shutdown, if the thread is interrupted, or if the
+ * wait times out; the time out stops all the waits and reports the error to the benchmark.
+ * The rate control, if any, is delegated to the given rate controller.
+ */
+final public class InFlightLimiter implements RateController {
+    final private static long MAX_PARK_NS = 100 * PerlConfig.NS_PER_MICRO;
+    final private RateController rController;
+    final private InFlightStats stats;
+    final private int maxInFlight;
+    final private AtomicLong completed;
+    private volatile Thread waiter;
+    private volatile long issued;
+    private long lastRecords;
+
+    public InFlightLimiter(RateController rController, InFlightStats stats) {
+        this.rController = rController;
+        this.stats = stats;
+        this.maxInFlight = stats.getMaxInFlight();
+        this.completed = new AtomicLong(0);
+        this.waiter = null;
+        this.issued = 0;
+        this.lastRecords = 0;
+        stats.register(this);
+    }
+
+    /**
+     * Wrap the send channel to count the completed operations.
+     *
+     * @param sendChannel send channel of the Writer/Reader
+     * @return send channel to use by the Writer/Reader
+     */
+    public SendChannel wrap(SendChannel sendChannel) {
+        return new CompletionChannel(sendChannel);
+    }
+
+    long getInFlight() {
+        return Math.max(0, issued - completed.get());
+    }
+
+    private void complete() {
+        completed.incrementAndGet();
+        wakeup();
+    }
+
+    void wakeup() {
+        final Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void start(int recordsPerSec) {
+        rController.start(recordsPerSec);
+    }
+
+    /**
+     * Wait for the credit to issue the next operation and control the rate.
+     *
+     * @param records    current cumulative records
+     * @param elapsedSec Elapsed Seconds
+     */
+    @Override
+    public void control(long records, double elapsedSec) {
+        if (records == lastRecords) {
+            // nothing is issued; no completion is sent for this call
+            rController.control(records, elapsedSec);
+            return;
+        }
+        lastRecords = records;
+        issued += 1;
+        if (issued - completed.get() >= maxInFlight && !stats.isStopped()) {
+            final Thread thread = Thread.currentThread();
+            final long startNs = System.nanoTime();
+            long waitedNs = 0;
+            waiter = thread;
+            while (issued - completed.get() >= maxInFlight && !stats.isStopped() && !thread.isInterrupted()) {
+                if (waitedNs >= stats.getTimeoutNS()) {
+                    stats.timeout(waitedNs);
+                    break;
+                }
+                LockSupport.parkNanos(MAX_PARK_NS);
+                waitedNs = System.nanoTime() - startNs;
+            }
+            waiter = null;
+            stats.recordWait(System.nanoTime() - startNs);
+        }
+        rController.control(records, elapsedSec);
+    }
+
+    @Override
+    public long getIntendedTime() {
+        return rController.getIntendedTime();
+    }
+
+
+    final private class CompletionChannel implements Channel {
+        final private SendChannel channel;
+
+        private CompletionChannel(SendChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public TimeStamp receive(int timeout) {
+            return null;
+        }
+
+        @Override
+        public void sendEndTime(long endTime) {
+
+        }
+
+        @Override
+        public void clear() {
+
+        }
+
+        @Override
+        public void send(int id, long startTime, long endTime, int dataSize, int records) {
+            channel.send(id, startTime, endTime, dataSize, records);
+            complete();
+        }
+
+        @Override
+        public void send(int id, long startTime, long endTime, int dataSize, int records, long intendedTime) {
+            channel.send(id, startTime, endTime, dataSize, records, intendedTime);
+            complete();
+        }
+
+        @Override
+        public void sendException(int id, Throwable ex) {
+            channel.sendException(id, ex);
+            complete();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.exception.ExceptionHandler;
+import io.sbk.perl.ReportInFlight;
+import io.sbk.perl.WindowStats;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class for the statistics of the outstanding operations of all the Writers or all the Readers.
+ * The statistics are reported to the logger at the end of every reporting window.
+ */
+final public class InFlightStats implements WindowStats {
+    final private int maxInFlight;
+    final private long timeoutNS;
+    final private ReportInFlight reportInFlight;
+    final private ExceptionHandler errorHandler;
+    final private List<InFlightLimiter> limiters;
+    final private LongAdder waits;
+    final private LongAdder waitNs;
+    final private AtomicLong maxWaitNs;
+    private volatile boolean stopped;
+
+    /**
+     * Constructor InFlightStats.
+     *
+     * @param maxInFlight    maximum outstanding operations per Writer/Reader.
+     * @param timeoutMS      maximum milliseconds to wait for a credit; if it is 0 or less, wait forever.
+     * @param reportInFlight to report the statistics of every window.
+     * @param errorHandler   invoked once, if a Writer/Reader times out waiting for a credit.
+     */
+    public InFlightStats(int maxInFlight, long timeoutMS, ReportInFlight reportInFlight,
+                         ExceptionHandler errorHandler) {
+        this.maxInFlight = maxInFlight;
+        this.timeoutNS = timeoutMS > 0 ? timeoutMS * PerlConfig.NS_PER_MS : Long.MAX_VALUE;
+        this.reportInFlight = reportInFlight;
+        this.errorHandler = errorHandler;
+        this.limiters = new CopyOnWriteArrayList<>();
+        this.waits = new LongAdder();
+        this.waitNs = new LongAdder();
+        this.maxWaitNs = new AtomicLong(0);
+        this.stopped = false;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    long getTimeoutNS() {
+        return timeoutNS;
+    }
+
+    boolean isStopped() {
+        return stopped;
+    }
+
+    void register(InFlightLimiter limiter) {
+        limiters.add(limiter);
+    }
+
+    void recordWait(long ns) {
+        waits.increment();
+        waitNs.add(ns);
+        maxWaitNs.accumulateAndGet(ns, Math::max);
+    }
+
+    /**
+     * Stop all the waits for the credits; the Writers/Readers do not wait for the credits afterwards.
+     */
+    public void stop() {
+        stopped = true;
+        for (InFlightLimiter limiter : limiters) {
+            limiter.wakeup();
+        }
+    }
+
+    /**
+     * Stop all the waits for the credits and report the error, if it is the first time out.
+     *
+     * @param waitedNS nanoseconds waited for the credit.
+     */
+    void timeout(long waitedNS) {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            stop();
+        }
+        errorHandler.throwException(new TimeoutException("No completion of the outstanding operations in " +
+                waitedNS / PerlConfig.NS_PER_MS + " ms; queue depth: " + maxInFlight));
+    }
+
+    @Override
+    public void reportWindow(double seconds) {
+        long inFlight = 0;
+        long maxWorkerInFlight = 0;
+        for (InFlightLimiter limiter : limiters) {
+            final long cnt = limiter.getInFlight();
+            inFlight += cnt;
+            maxWorkerInFlight = Math.max(maxWorkerInFlight, cnt);
+        }
+        final long waitCnt = waits.sumThenReset();
+        final long waitTotalNs = waitNs.sumThenReset();
+        final long waitMaxNs = maxWaitNs.getAndSet(0);
+        final double waitPercent = seconds > 0 && limiters.size() > 0 ?
+                (waitTotalNs * 100.0) / (seconds * PerlConfig.NS_PER_SEC) / limiters.size() : 0.0;
+        reportInFlight.reportInFlight(seconds, maxInFlight, inFlight, maxWorkerInFlight, waitCnt,
+                waitCnt > 0 ? (waitTotalNs * 1.0) / waitCnt : 0.0, waitMaxNs, waitPercent);
+    }
+}
@@ -219,15 +219,15 @@ final public class Sbk {
         }
 
         int minSize = dType.getWriteReadMinSize();
-        if (params.isWriteAndRead() && params.getRecordSize() < minSize) {
+        if (params.isWriteAndRead() && params.getRecordSizeDistribution().getMinSize() < minSize) {
             String errMsg =
-                    "Invalid record size: " + params.getRecordSize() +
+                    "Invalid record size: " + params.getRecordSizeDistribution() +
                             ", For both Writers and Readers, minimum data size should be " + minSize +
                             " for data type: " + dType.getClass().getName();
             Printer.log.error(errMsg);
             throw new InstantiationException(errMsg);
         }
-        time = SbkUtils.getTime(logger);
+        time = SbkUtils.getTime(logger, perlConfig.clockResolutionMicros);
         if (params.getReadersCount() > 0) {
             if (params.isWriteAndRead()) {
                 action = Action.Write_Reading;
@@ -14,22 +14,36 @@ import io.sbk.api.Benchmark;
 import io.sbk.api.DataReader;
 import io.sbk.api.DataWriter;
 import io.sbk.api.ParameterOptions;
+import io.sbk.api.RateController;
 import io.sbk.api.Storage;
 import io.sbk.config.Config;
 import io.sbk.config.PerlConfig;
 import io.sbk.data.DataType;
+import io.sbk.data.PayloadPool;
+import io.sbk.data.SizeDistribution;
+import io.sbk.exception.ExceptionHandler;
 import io.sbk.logger.Logger;
 import io.sbk.perl.LatencyRecordWindow;
 import io.sbk.perl.Performance;
-import io.sbk.perl.PeriodicRecorder;
+import io.sbk.perl.PerformanceType;
+import io.sbk.perl.PeriodicLatencyRecorder;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.SendChannel;
+import io.sbk.perl.WindowStats;
 import io.sbk.perl.impl.ArrayLatencyRecorder;
 import io.sbk.perl.impl.CQueuePerformance;
 import io.sbk.perl.impl.CSVExtendedLatencyRecorder;
 import io.sbk.perl.impl.HashMapLatencyRecorder;
 import io.sbk.perl.impl.HdrExtendedLatencyRecorder;
+import io.sbk.perl.impl.LogLinearLatencyRecorder;
+import io.sbk.perl.impl.MMapExtendedLatencyRecorder;
+import io.sbk.perl.impl.RingBufferPerformance;
 import io.sbk.perl.impl.TotalWindowLatencyPeriodicRecorder;
+import io.sbk.perl.impl.WorkerWindowPerformance;
 import io.sbk.state.State;
 import io.sbk.system.Printer;
+import io.sbk.time.CachedTime;
+import io.sbk.time.NanoSeconds;
 import io.sbk.time.Time;
 import lombok.Synchronized;
 import org.jetbrains.annotations.Contract;
@@ -54,6 +68,9 @@ import java.util.stream.IntStream;
  * Class for performing the benchmark.
  */
 final public class SbkBenchmark implements Benchmark {
+    final private static String CORRECTED_LABEL = "Corrected";
+    final private static String RECORD_LABEL = "Record";
+    final private static String SIZE_LABEL = "Size";
     final private Action action;
     final private PerlConfig perlConfig;
     final private Storage<Object> storage;
@@ -64,6 +81,15 @@ final public class SbkBenchmark implements Benchmark {
     final private ParameterOptions params;
     final private Performance writeStats;
     final private Performance readStats;
+    final private Performance writeCorrectedStats;
+    final private Performance readCorrectedStats;
+    final private Performance writeRecordStats;
+    final private int[] writeSizeBounds;
+    final private Performance[] writeSizeStats;
+    final private ArrivalSchedule writeSchedule;
+    final private ArrivalSchedule readSchedule;
+    final private InFlightStats writeInFlight;
+    final private InFlightStats readInFlight;
     final private int maxQs;
     final private double[] percentileFractions;
     final private ScheduledExecutorService timeoutExecutor;
@@ -106,25 +132,156 @@ final public class SbkBenchmark implements Benchmark {
         this.maxQs = perlConfig.maxQs > 0 ?
                 perlConfig.maxQs : Math.max(PerlConfig.MIN_Q_PER_WORKER, perlConfig.qPerWorker);
 
-        final int threadCount = params.getWritersCount() + params.getReadersCount() + 23;
-        executor = perlConfig.fork ? new ForkJoinPool(threadCount) : Executors.newFixedThreadPool(threadCount);
+        // every size class performance takes a thread of its own
+        final int threadCount = params.getWritersCount() + params.getReadersCount() + 23 +
+                Math.min(Math.max(0, perlConfig.recordSizeClasses), PerlConfig.MAX_RECORD_SIZE_CLASSES);
+        executor = createExecutor(threadCount);
+        timeoutExecutor = Executors.newScheduledThreadPool(1);
+        if (params.getSchedule() != null) {
+            // the schedule clock is independent of the latency time unit, for the precision of the slots
+            writeSchedule = params.getWritersCount() > 0 ?
+                    new ArrivalSchedule(params.getSchedule(),
+                            (double) params.getRecordsPerSec() * params.getWritersCount(),
+                            new NanoSeconds(), logger) : null;
+            readSchedule = params.getReadersCount() > 0 ?
+                    new ArrivalSchedule(params.getSchedule(),
+                            (double) params.getRecordsPerSec() * params.getReadersCount(),
+                            new NanoSeconds(), logger) : null;
+            Printer.log.info("Arrival Schedule: " + (writeSchedule != null ? writeSchedule : readSchedule));
+        } else {
+            writeSchedule = null;
+            readSchedule = null;
+        }
+
+        // the shutdown is not invoked by the waiting Writer/Reader itself
+        final ExceptionHandler inFlightErrorHandler = ex -> timeoutExecutor.execute(() -> shutdown(ex));
+        if (params.getQueueDepth() > 0 && params.getWritersCount() > 0 && !params.isWriteAndRead()) {
+            writeInFlight = new InFlightStats(params.getQueueDepth(), perlConfig.qDepthTimeoutMS, logger,
+                    inFlightErrorHandler);
+            Printer.log.info("Writers Queue Depth: " + params.getQueueDepth());
+        } else {
+            writeInFlight = null;
+        }
+        if (params.getQueueDepth() > 0 && params.getReadersCount() > 0) {
+            readInFlight = new InFlightStats(params.getQueueDepth(), perlConfig.qDepthTimeoutMS, logger,
+                    inFlightErrorHandler);
+            Printer.log.info("Readers Queue Depth: " + params.getQueueDepth());
+        } else {
+            readInFlight = null;
+        }
+
+        final ReportOverhead overheadReporter = perlConfig.harnessOverhead ? logger : null;
         writeStats = params.getWritersCount() > 0 && !params.isWriteAndRead() ?
-                new CQueuePerformance(perlConfig, params.getWritersCount(), createLatencyRecorder(),
-                logger.getReportingIntervalSeconds() * PerlConfig.MS_PER_SEC, params.getTimeoutMS(),
-                        this.time, executor) : null;
+                createPerformance(params.getWritersCount(), createLatencyRecorder(writeSchedule, writeInFlight),
+                        overheadReporter) : null;
 
+        // with write and read, the writers schedule is reported by the readers performance
         readStats = params.getReadersCount() > 0 ?
-                new CQueuePerformance(perlConfig, params.getReadersCount(), createLatencyRecorder(),
-                logger.getReportingIntervalSeconds() * PerlConfig.MS_PER_SEC, params.getTimeoutMS(),
-                        this.time, executor) : null;
-        timeoutExecutor = Executors.newScheduledThreadPool(1);
+                createPerformance(params.getReadersCount(), createLatencyRecorder(readSchedule,
+                        writeStats == null ? writeSchedule : null, readInFlight), overheadReporter) : null;
+        if (perlConfig.harnessOverhead) {
+            Printer.log.info("Harness Overhead: reported at every reporting interval");
+        }
+
+        final boolean latencyCorrection = perlConfig.latencyCorrection &&
+                (params.getRecordsPerSec() > 0 || params.getSchedule() != null);
+        writeCorrectedStats = latencyCorrection && writeStats != null ?
+                createPerformance(params.getWritersCount(), createLatencyRecorder(CORRECTED_LABEL)) : null;
+        readCorrectedStats = latencyCorrection && readStats != null ?
+                createPerformance(params.getReadersCount(), createLatencyRecorder(CORRECTED_LABEL)) : null;
+        if (writeStats != null && (params.getBatchRecords() > 0 || params.getBatchBytes() > 0)) {
+            writeRecordStats = createPerformance(params.getWritersCount(), createLatencyRecorder(RECORD_LABEL));
+            Printer.log.info("Batch Writes: records: " + params.getBatchRecords() + ", bytes: " +
+                    params.getBatchBytes() + ", linger: " + params.getLingerMS() + " ms; the batch latencies are " +
+                    "reported and the record latencies are reported with the label: " + RECORD_LABEL);
+        } else {
+            writeRecordStats = null;
+        }
+        final SizeDistribution sizes = params.getRecordSizeDistribution();
+        if (writeStats != null && !sizes.isFixed() && perlConfig.recordSizeClasses > 0) {
+            if (perlConfig.recordSizeClasses > PerlConfig.MAX_RECORD_SIZE_CLASSES) {
+                Printer.log.warn("recordSizeClasses: " + perlConfig.recordSizeClasses + " is reduced to " +
+                        PerlConfig.MAX_RECORD_SIZE_CLASSES);
+            }
+            writeSizeBounds = sizes.getClassBounds(Math.min(perlConfig.recordSizeClasses,
+                    PerlConfig.MAX_RECORD_SIZE_CLASSES));
+            writeSizeStats = new Performance[writeSizeBounds.length];
+            for (int i = 0; i < writeSizeBounds.length; i++) {
+                final int lowSize = i == 0 ? sizes.getMinSize() : writeSizeBounds[i - 1] + 1;
+                writeSizeStats[i] = createPerformance(params.getWritersCount(),
+                        createLatencyRecorder(SIZE_LABEL + " " + lowSize + "-" + writeSizeBounds[i]));
+            }
+            Printer.log.info("Record Sizes: " + sizes + ", min: " + sizes.getMinSize() + ", max: " +
+                    sizes.getMaxSize() + ", mean: " + String.format("%.1f", sizes.getMeanSize()) +
+                    "; the latencies of " + writeSizeBounds.length + " size classes are reported with the label: " +
+                    SIZE_LABEL);
+        } else {
+            writeSizeBounds = null;
+            writeSizeStats = null;
+        }
+        if (latencyCorrection) {
+            Printer.log.info("Latency Correction: latencies measured from the intended start times are " +
+                    "reported with the label: " + CORRECTED_LABEL);
+        }
         retFuture = new CompletableFuture<>();
         writers = new ArrayList<>();
         readers = new ArrayList<>();
         state = State.BEGIN;
     }
 
-    private LatencyRecordWindow createLatencyWindow() {
+    /**
+     * Create the executor for Writers, Readers and Performance Loggers.
+     * The virtual threads executor is looked up by reflection, so that SBK still builds and runs on Java 17.
+     *
+     * @param threadCount number of platform threads, if the virtual threads are not used.
+     * @return executor service
+     */
+    private @NotNull ExecutorService createExecutor(int threadCount) {
+        if (perlConfig.virtualThreads) {
+            try {
+                final ExecutorService virtualExecutor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                Printer.log.info("Executor: Virtual Threads");
+                return virtualExecutor;
+            } catch (ReflectiveOperationException ex) {
+                Printer.log.warn("Virtual Threads are not supported by Java " + Runtime.version() +
+                        "; using platform threads");
+            }
+        }
+        return perlConfig.fork ? new ForkJoinPool(threadCount) : Executors.newFixedThreadPool(threadCount);
+    }
+
+    @Contract("_, _ -> new")
+    private @NotNull Performance createPerformance(int workers, PeriodicLatencyRecorder latencyRecorder) {
+        return createPerformance(workers, latencyRecorder, null);
+    }
+
+    /**
+     * Create the Performance.
+     *
+     * @param workers          number of Writers/Readers
+     * @param latencyRecorder  latency recorder
+     * @param overheadReporter if not null, the harness overhead is measured and reported to it.
+     * @return Performance
+     */
+    @Contract("_, _, _ -> new")
+    private @NotNull Performance createPerformance(int workers, PeriodicLatencyRecorder latencyRecorder,
+                                                   ReportOverhead overheadReporter) {
+        final int reportingIntervalMS = logger.getReportingIntervalSeconds() * PerlConfig.MS_PER_SEC;
+        if (perlConfig.performance == PerformanceType.ringbuffer) {
+            return new RingBufferPerformance(perlConfig, workers, latencyRecorder, reportingIntervalMS,
+                    params.getTimeoutMS(), time, executor, overheadReporter);
+        }
+        if (perlConfig.performance == PerformanceType.worker) {
+            return new WorkerWindowPerformance(perlConfig, workers, latencyRecorder,
+                    () -> createLatencyWindow(false), percentileFractions, reportingIntervalMS,
+                    params.getTimeoutMS(), time, executor, overheadReporter);
+        }
+        return new CQueuePerformance(perlConfig, workers, latencyRecorder, () -> createLatencyWindow(false),
+                percentileFractions, reportingIntervalMS, params.getTimeoutMS(), time, executor, overheadReporter);
+    }
+
+    private LatencyRecordWindow createLatencyWindow(boolean verbose) {
         final long latencyRange = logger.getMaxLatency() - logger.getMinLatency();
         final long memSizeMB = (latencyRange * PerlConfig.LATENCY_VALUE_SIZE_BYTES) / PerlConfig.BYTES_PER_MB;
         final LatencyRecordWindow window;
@@ -132,27 +289,61 @@ final public class SbkBenchmark implements Benchmark {
         if (memSizeMB < perlConfig.maxArraySizeMB && latencyRange < Integer.MAX_VALUE) {
             window = new ArrayLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
                     PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions, time);
-            Printer.log.info("Window Latency Store: Array, Size: " +
-                    window.getMaxMemoryBytes() / PerlConfig.BYTES_PER_MB + " MB");
+            if (verbose) {
+                Printer.log.info("Window Latency Store: Array, Size: " +
+                        window.getMaxMemoryBytes() / PerlConfig.BYTES_PER_MB + " MB");
+            }
+        } else if (perlConfig.logLinear) {
+            window = new LogLinearLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
+                    PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions,
+                    time, perlConfig.logLinearDigits);
+            if (verbose) {
+                Printer.log.info(String.format("Window Latency Store: LogLinear, Significant Digits: %d, Size: %.2f KB",
+                        perlConfig.logLinearDigits, (window.getMaxMemoryBytes() * 1.0) / PerlConfig.BYTES_PER_KB));
+            }
         } else {
             window = new HashMapLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
                     PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions,
                     time, perlConfig.maxHashMapSizeMB);
-            Printer.log.info("Window Latency Store: HashMap, Size: " +
-                    window.getMaxMemoryBytes() / PerlConfig.BYTES_PER_MB + " MB");
+            if (verbose) {
+                Printer.log.info("Window Latency Store: HashMap, Size: " +
+                        window.getMaxMemoryBytes() / PerlConfig.BYTES_PER_MB + " MB");
+            }
         }
         return window;
     }
 
-    @Contract(" -> new")
-    private @NotNull PeriodicRecorder createLatencyRecorder() {
+    /**
+     * Create the latency recorder, which reports to the metrics of the logger.
+     *
+     * @param windowStats statistics to report at the end of every window; the null values are skipped.
+     * @return Periodic Latency Recorder
+     */
+    private @NotNull PeriodicLatencyRecorder createLatencyRecorder(WindowStats... windowStats) {
+        final TotalWindowLatencyPeriodicRecorder latencyRecorder = createLatencyRecorder((String) null);
+        for (WindowStats stats : windowStats) {
+            if (stats != null) {
+                latencyRecorder.addWindowStats(stats);
+            }
+        }
+        return latencyRecorder;
+    }
+
+    /**
+     * Create the latency recorder.
+     *
+     * @param label if not null, the results are printed with this label, and not reported to the
+     *              metrics of the logger.
+     * @return Periodic Latency Recorder
+     */
+    private @NotNull TotalWindowLatencyPeriodicRecorder createLatencyRecorder(String label) {
         final long latencyRange = logger.getMaxLatency() - logger.getMinLatency();
         final long memSizeMB = (latencyRange * PerlConfig.LATENCY_VALUE_SIZE_BYTES) / PerlConfig.BYTES_PER_MB;
         final LatencyRecordWindow window;
         final LatencyRecordWindow totalWindow;
         final LatencyRecordWindow totalWindowExtension;
 
-        window = createLatencyWindow();
+        window = createLatencyWindow(true);
 
         totalWindow = new HashMapLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
                 PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions,
@@ -173,13 +364,113 @@ final public class SbkBenchmark implements Benchmark {
                     Config.NAME + "-" + String.format("%06d", new Random().nextInt(1000000)) + ".csv");
             Printer.log.info("Total Window Extension: CSV, Size: " +
                     totalWindowExtension.getMaxMemoryBytes() / PerlConfig.BYTES_PER_GB + " GB");
+        } else if (perlConfig.mmap) {
+            totalWindowExtension = new MMapExtendedLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
+                    PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                    percentileFractions, time, totalWindow, perlConfig.mmapFileSizeGB,
+                    Config.NAME + "-" + String.format("%06d", new Random().nextInt(1000000)) + ".bin");
+            Printer.log.info("Total Window Extension: Memory Mapped File, Size: " +
+                    totalWindowExtension.getMaxMemoryBytes() / PerlConfig.BYTES_PER_GB + " GB");
         } else {
             totalWindowExtension = totalWindow;
             Printer.log.info("Total Window Extension: None, Size: 0 MB");
         }
 
-        return new TotalWindowLatencyPeriodicRecorder(window, totalWindowExtension, logger, logger::printTotal,
-                logger, time);
+        final TotalWindowLatencyPeriodicRecorder latencyRecorder;
+        if (label != null) {
+            latencyRecorder = new TotalWindowLatencyPeriodicRecorder(window, totalWindowExtension,
+                    logger.getLabelPrinter(label, false), logger.getLabelPrinter(label, true),
+                    (startTime, bytes, events, latency) -> {
+                    }, time);
+        } else {
+            latencyRecorder = new TotalWindowLatencyPeriodicRecorder(window, totalWindowExtension, logger,
+                    logger::printTotal, logger, logger, time);
+        }
+        if (perlConfig.alignedWindows) {
+            latencyRecorder.setAlignedWindowMS(logger.getReportingIntervalSeconds() * PerlConfig.MS_PER_SEC, logger);
+        }
+        return latencyRecorder;
+    }
+
+    private @NotNull RateController createRateController(ArrivalSchedule schedule) {
+        return schedule != null ? new ArrivalRateController(schedule, time) : new SbkRateController(time);
+    }
+
+    private PayloadPool<Object> createPayloadPool(int writerID) {
+        final SizeDistribution sizes = params.getRecordSizeDistribution();
+        if (perlConfig.payloadPoolSize <= 0 && sizes.isFixed()) {
+            return null;
+        }
+        final boolean sequence = perlConfig.payloadSequence && dType.isSequenceSupported();
+        if (writerID == 0 && perlConfig.payloadSequence && !sequence) {
+            Printer.log.warn("Payload sequence numbers are not supported by the data type: " +
+                    dType.getClass().getSimpleName());
+        }
+        final int minCount = sequence ? getMinSequencePoolCount(sizes) : 1;
+        final int poolSize = Math.max(minCount,
+                perlConfig.payloadPoolSize > 0 ? perlConfig.payloadPoolSize : PayloadPool.DEFAULT_COUNT);
+        final long maxBytes = (long) perlConfig.payloadPoolMaxMB * PerlConfig.BYTES_PER_MB;
+        final double poolBytes = Math.max(1, sizes.getMeanSize()) * params.getWritersCount();
+        final int count = (int) Math.max(1, Math.min(poolSize, maxBytes / poolBytes));
+        if (count < minCount) {
+            throw new IllegalArgumentException("Error: payloadPoolMaxMB: " + perlConfig.payloadPoolMaxMB +
+                    " does not fit " + minCount + " payloads per writer, which are required for the unique " +
+                    "sequence numbers of the outstanding records; increase payloadPoolMaxMB or decrease '-qdepth'");
+        }
+        if (writerID == 0 && count < poolSize) {
+            Printer.log.warn("Payload pool size is reduced to " + count + " payloads per writer, " +
+                    "to fit in payloadPoolMaxMB: " + perlConfig.payloadPoolMaxMB);
+        }
+        final PayloadPool<Object> payloads = new PayloadPool<>(dType, sizes.getSizes(count, writerID),
+                perlConfig.payloadCompressionRatio, perlConfig.payloadDedupRatio, sequence, writerID);
+        if (writerID == 0) {
+            Printer.log.info("Payload pool: " + payloads.getCount() + " payloads per writer, " +
+                    payloads.getDistinct() + " distinct, compression ratio: " + perlConfig.payloadCompressionRatio +
+                    ", sequence numbers: " + sequence);
+        }
+        return payloads;
+    }
+
+    /**
+     * Get the minimum number of payloads per writer for the unique sequence numbers.
+     * The sequence number is set in the payload itself, so a payload must not be reused while a write of it
+     * is outstanding: the pool has to hold the records of the outstanding writes ('-qdepth') and the records
+     * of the batch in progress.
+     *
+     * @param sizes record size distribution
+     * @return minimum number of payloads per writer.
+     */
+    private int getMinSequencePoolCount(@NotNull SizeDistribution sizes) {
+        final int batchRecords;
+        if (params.getBatchRecords() > 0) {
+            batchRecords = params.getBatchRecords();
+        } else if (params.getBatchBytes() > 0) {
+            batchRecords = params.getBatchBytes() / Math.max(1, sizes.getMinSize()) + 1;
+        } else {
+            batchRecords = 1;
+        }
+        if (params.getQueueDepth() <= 0) {
+            Printer.log.warn("Payload sequence numbers: the outstanding asynchronous writes are not bounded; " +
+                    "the sequence numbers may repeat, if a payload is reused before its write completes; " +
+                    "use the option '-qdepth' to bound them");
+            return batchRecords;
+        }
+        return (int) Math.min(Integer.MAX_VALUE, (params.getQueueDepth() + 1L) * batchRecords);
+    }
+
+    private SendChannel createSizeClassChannel(SendChannel channel) {
+        final SendChannel[] classChannels = new SendChannel[writeSizeStats.length];
+        for (int i = 0; i < writeSizeStats.length; i++) {
+            classChannels[i] = writeSizeStats[i].getSendChannel();
+        }
+        return new SizeClassSendChannel(channel, writeSizeBounds, classChannels);
+    }
+
+    private SendChannel createSendChannel(@NotNull Performance stats, Performance correctedStats) {
+        if (correctedStats == null) {
+            return stats.getSendChannel();
+        }
+        return new CorrectedSendChannel(stats.getSendChannel(), correctedStats.getSendChannel());
     }
 
     /**
@@ -241,14 +532,36 @@ final public class SbkBenchmark implements Benchmark {
             if (writeStats != null) {
                 sbkWriters = IntStream.range(0, params.getWritersCount())
                         .boxed()
-                        .map(i -> new SbkWriter(i, maxQs, params, writeStats.getSendChannel(),
-                                dType, time, writers.get(i), logger, executor))
+                        .map(i -> {
+                            final RateController rCnt = createRateController(writeSchedule);
+                            SendChannel channel = createSendChannel(writeStats, writeCorrectedStats);
+                            SendChannel recordChannel = writeRecordStats != null ?
+                                    writeRecordStats.getSendChannel() : null;
+                            if (writeSizeStats != null) {
+                                // the size class of a batch is not meaningful; use the record latencies
+                                if (recordChannel != null) {
+                                    recordChannel = createSizeClassChannel(recordChannel);
+                                } else {
+                                    channel = createSizeClassChannel(channel);
+                                }
+                            }
+                            if (writeInFlight != null) {
+                                final InFlightLimiter limiter = new InFlightLimiter(rCnt, writeInFlight);
+                                return new SbkWriter(i, maxQs, params, limiter.wrap(channel),
+                                        dType, time, writers.get(i), logger, executor, limiter, recordChannel,
+                                        createPayloadPool(i));
+                            }
+                            return new SbkWriter(i, maxQs, params, channel,
+                                    dType, time, writers.get(i), logger, executor, rCnt, recordChannel,
+                                    createPayloadPool(i));
+                        })
                         .collect(Collectors.toList());
             } else {
                 sbkWriters = IntStream.range(0, params.getWritersCount())
                         .boxed()
                         .map(i -> new SbkWriter(i, maxQs, params, null,
-                                dType, time, writers.get(i), logger, executor))
+                                dType, time, writers.get(i), logger, executor,
+                                createRateController(writeSchedule), null, createPayloadPool(i)))
                         .collect(Collectors.toList());
             }
         } else {
@@ -258,9 +571,17 @@ final public class SbkBenchmark implements Benchmark {
         if (readers.size() > 0) {
             sbkReaders = IntStream.range(0, params.getReadersCount())
                     .boxed()
-                    .map(i -> new SbkReader(i, maxQs, params,
-                            readStats.getSendChannel(), dType, time, readers.get(i),
-                            logger, executor))
+                    .map(i -> {
+                        final RateController rCnt = createRateController(readSchedule);
+                        final SendChannel channel = createSendChannel(readStats, readCorrectedStats);
+                        if (readInFlight != null) {
+                            final InFlightLimiter limiter = new InFlightLimiter(rCnt, readInFlight);
+                            return new SbkReader(i, maxQs, params, limiter.wrap(channel), dType, time,
+                                    readers.get(i), logger, executor, limiter);
+                        }
+                        return new SbkReader(i, maxQs, params, channel, dType, time,
+                                readers.get(i), logger, executor, rCnt);
+                    })
                     .collect(Collectors.toList());
         } else {
             sbkReaders = null;
@@ -276,6 +597,20 @@ final public class SbkBenchmark implements Benchmark {
         } else {
             rStatFuture = null;
         }
+        if (writeRecordStats != null && sbkWriters != null) {
+            writeRecordStats.run(params.getTotalSecondsToRun(), params.getTotalRecords());
+        }
+        if (writeSizeStats != null && sbkWriters != null) {
+            for (Performance stats : writeSizeStats) {
+                stats.run(params.getTotalSecondsToRun(), params.getTotalRecords());
+            }
+        }
+        if (writeCorrectedStats != null && sbkWriters != null) {
+            writeCorrectedStats.run(params.getTotalSecondsToRun(), params.getTotalRecords());
+        }
+        if (readCorrectedStats != null && sbkReaders != null) {
+            readCorrectedStats.run(params.getTotalSecondsToRun(), params.getTotalRecords());
+        }
         if (sbkWriters != null) {
             writeFutures = new ArrayList<>();
 
@@ -427,12 +762,32 @@ final public class SbkBenchmark implements Benchmark {
             return;
         }
         state = State.END;
+        if (writeInFlight != null) {
+            writeInFlight.stop();
+        }
+        if (readInFlight != null) {
+            readInFlight.stop();
+        }
         if (writeStats != null) {
             writeStats.stop();
         }
         if (readStats != null) {
             readStats.stop();
         }
+        if (writeCorrectedStats != null) {
+            writeCorrectedStats.stop();
+        }
+        if (writeRecordStats != null) {
+            writeRecordStats.stop();
+        }
+        if (writeSizeStats != null) {
+            for (Performance stats : writeSizeStats) {
+                stats.stop();
+            }
+        }
+        if (readCorrectedStats != null) {
+            readCorrectedStats.stop();
+        }
         readers.forEach(c -> {
             try {
                 c.close();
@@ -459,6 +814,12 @@ final public class SbkBenchmark implements Benchmark {
         } catch (InterruptedException e) {
             ex.printStackTrace();
         }
+        if (time instanceof CachedTime cachedTime) {
+            cachedTime.stop();
+            Printer.log.info(String.format("Cached Time: Resolution: %d ns, Ticks: %d, Jitter: %.1f ns avg, " +
+                            "%d ns max", cachedTime.getResolutionNS(), cachedTime.getTicks(),
+                    cachedTime.getAvgJitterNS(), cachedTime.getMaxJitterNS()));
+        }
 
         if (ex != null) {
             Printer.log.warn("SBK Benchmark Shutdown with Exception " + ex);
@@ -467,6 +828,8 @@ final public class SbkBenchmark implements Benchmark {
             Printer.log.info("SBK Benchmark Shutdown");
             retFuture.complete(null);
         }
+        // cancel the pending stop, so that it does not keep the JVM alive after an early shutdown
+        timeoutExecutor.shutdownNow();
 
     }
 
@@ -12,6 +12,7 @@ package io.sbk.api.impl;
 import io.sbk.api.ParameterOptions;
 import io.sbk.config.Config;
 import io.sbk.config.PerlConfig;
+import io.sbk.data.SizeDistribution;
 import io.sbk.exception.HelpException;
 import io.sbk.options.impl.SbkInputOptions;
 import lombok.Getter;
@@ -30,6 +31,9 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
     @Getter
     private int recordSize;
 
+    @Getter
+    private SizeDistribution recordSizeDistribution;
+
     @Getter
     private int writersCount;
 
@@ -42,6 +46,21 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
     @Getter
     private int recordsPerSync;
 
+    @Getter
+    private String schedule;
+
+    @Getter
+    private int queueDepth;
+
+    @Getter
+    private int batchRecords;
+
+    @Getter
+    private int batchBytes;
+
+    @Getter
+    private int lingerMS;
+
     @Getter
     private long totalRecords;
 
@@ -69,7 +88,11 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
 
         addOption("writers", true, "Number of writers");
         addOption("readers", true, "Number of readers");
-        addOption("size", true, "Size of each message (event or record)");
+        addOption("size", true,
+                """
+                        Size of each message (event or record); or the distribution of the sizes:
+                        uniform:<min>,<max> ; normal:<mean>,<stddev>[,<max>] ;
+                        lognormal:<mean>,<stddev>[,<max>] ; file:<file name> of '<size> <weight>' lines""");
         addOption("records", true,
                 """
                         Number of records(events) if 'seconds' not specified;
@@ -88,6 +111,22 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
                         If > 0, throughput in MB/s
                         If 0, writes/reads 'records'
                         If -1, get the maximum throughput (default: -1)""");
+        addOption("schedule", true,
+                """
+                        Open loop arrival schedule of the records(events) shared by all writers/readers:
+                        'constant', 'poisson' (with the rate of 'records' per second or 'throughput') or
+                        the rate file of '<seconds> <records per second>' lines;
+                        default: records are issued after the previous record is completed""");
+        addOption("qdepth", true,
+                """
+                        Maximum outstanding (issued, but not completed) asynchronous writes/reads
+                        per writer/reader; default: 0 (no limit)""");
+        addOption("batch", true,
+                "Number of records(events) per batch write; default: 0 (no batching)");
+        addOption("batchbytes", true,
+                "Number of bytes per batch write; default: 0 (no batching)");
+        addOption("linger", true,
+                "Maximum milliseconds to fill a batch, used with 'batch' and/or 'batchbytes'; default: 0");
         addOption("wstep", true,
                 "Number of writers/step, default: 1");
         addOption("wsec", true,
@@ -115,7 +154,8 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
         }
 
         totalRecords = Long.parseLong(getOptionValue("records", "0"));
-        recordSize = Integer.parseInt(getOptionValue("size", "0"));
+        recordSizeDistribution = SizeDistribution.parse(getOptionValue("size", "0"));
+        recordSize = recordSizeDistribution.getMaxSize();
         int syncRecords = Integer.parseInt(getOptionValue("sync", "0"));
         if (syncRecords > 0) {
             recordsPerSync = syncRecords;
@@ -155,11 +195,32 @@ public class SbkParameters extends SbkInputOptions implements ParameterOptions {
             }
             recordsPerSec = (int) recsPerSec;
         } else if (throughput > 0) {
-            recordsPerSec = (int) (((throughput * 1024 * 1024) / recordSize) / workersCnt);
+            recordsPerSec = (int) (((throughput * 1024 * 1024) / recordSizeDistribution.getMeanSize()) / workersCnt);
         } else {
             recordsPerSec = 0;
         }
 
+        queueDepth = Integer.parseInt(getOptionValue("qdepth", "0"));
+        if (queueDepth < 0) {
+            throw new IllegalArgumentException("Error: Invalid queue depth 'qdepth' : " + queueDepth);
+        }
+
+        batchRecords = Integer.parseInt(getOptionValue("batch", "0"));
+        batchBytes = Integer.parseInt(getOptionValue("batchbytes", "0"));
+        lingerMS = Integer.parseInt(getOptionValue("linger", "0"));
+        if (batchRecords < 0 || batchBytes < 0 || lingerMS < 0) {
+            throw new IllegalArgumentException("Error: Invalid batch parameters 'batch' : " + batchRecords +
+                    ", 'batchbytes' : " + batchBytes + ", 'linger' : " + lingerMS);
+        }
+
+        schedule = getOptionValue("schedule", null);
+        if (schedule != null && recordsPerSec <= 0 &&
+                (schedule.equalsIgnoreCase(ArrivalSchedule.CONSTANT) ||
+                        schedule.equalsIgnoreCase(ArrivalSchedule.POISSON))) {
+            throw new IllegalArgumentException("Error: The schedule '" + schedule +
+                    "' requires the records per second; specify 'records' with 'seconds' or 'throughput'");
+        }
+
         if (writersCount > 0) {
             if (recordSize == 0) {
                 throw new IllegalArgumentException("Error: Must specify the record 'size'");
@@ -12,16 +12,34 @@ package io.sbk.api.impl;
 
 import io.sbk.api.RateController;
 import io.sbk.config.PerlConfig;
+import io.sbk.time.Time;
 
 final public class SbkRateController implements RateController {
     private static final long MIN_SLEEP_NS = 2 * PerlConfig.NS_PER_MS;
+    final private Time time;
     private long sleepTimeNs;
     private int recordsPerSec;
     private long toSleepNs;
+    private long startTime;
+    private double intervalTime;
+    private long records;
 
     public SbkRateController() {
+        this(null);
+    }
+
+    /**
+     * Create the Rate Controller which tracks the intended start times of the operations.
+     *
+     * @param time time interface; if null, the intended times are not tracked.
+     */
+    public SbkRateController(Time time) {
+        this.time = time;
         this.recordsPerSec = 0;
         this.toSleepNs = 0;
+        this.startTime = 0;
+        this.intervalTime = 0;
+        this.records = 0;
     }
 
     /**
@@ -34,6 +52,24 @@ final public class SbkRateController implements RateController {
         this.recordsPerSec = recordsPerSec;
         this.sleepTimeNs = this.recordsPerSec > 0 ?
                 PerlConfig.NS_PER_SEC / this.recordsPerSec : 0;
+        this.records = 0;
+        if (this.time != null && this.recordsPerSec > 0) {
+            this.intervalTime = (PerlConfig.NS_PER_SEC * 1.0) / this.recordsPerSec / time.convertToNanoSeconds(1);
+            this.startTime = time.getCurrentTime();
+        }
+    }
+
+    /**
+     * Get the intended start time of the next operation.
+     *
+     * @return start time + (records issued so far / records per second).
+     */
+    @Override
+    public long getIntendedTime() {
+        if (this.intervalTime <= 0) {
+            return 0;
+        }
+        return this.startTime + (long) (this.records * this.intervalTime);
     }
 
     /**
@@ -47,6 +83,7 @@ final public class SbkRateController implements RateController {
         if (this.recordsPerSec <= 0) {
             return;
         }
+        this.records = events;
         needSleep(events, elapsedSec);
     }
 
@@ -44,13 +44,19 @@ final public class SbkReader extends Worker implements RunBenchmark {
     public SbkReader(int readerId, int idMax, ParameterOptions params, SendChannel sendChannel,
                      DataType<Object> dType, Time time, DataReader<Object> reader,
                      CountReaders rCount, ExecutorService executor) {
+        this(readerId, idMax, params, sendChannel, dType, time, reader, rCount, executor, new SbkRateController());
+    }
+
+    public SbkReader(int readerId, int idMax, ParameterOptions params, SendChannel sendChannel,
+                     DataType<Object> dType, Time time, DataReader<Object> reader,
+                     CountReaders rCount, ExecutorService executor, RateController rCnt) {
         super(readerId, idMax, params, sendChannel);
         this.dType = dType;
         this.time = time;
         this.reader = reader;
         this.rCount = rCount;
         this.executor = executor;
-        this.rCnt = new SbkRateController();
+        this.rCnt = rCnt;
         this.perf = createBenchmark();
     }
 
@@ -78,17 +84,19 @@ final public class SbkReader extends Worker implements RunBenchmark {
 
     private @NotNull BiConsumer createBenchmark() {
         final BiConsumer perfReader;
+        final boolean rateControl = params.getRecordsPerSec() > 0 || params.getSchedule() != null ||
+                params.getQueueDepth() > 0;
         if (params.getTotalSecondsToRun() > 0) {
             if (params.isWriteAndRead()) {
-                perfReader = params.getRecordsPerSec() > 0 ? this::RecordsTimeReaderRWRateControl : this::RecordsTimeReaderRW;
+                perfReader = rateControl ? this::RecordsTimeReaderRWRateControl : this::RecordsTimeReaderRW;
             } else {
-                perfReader = params.getRecordsPerSec() > 0 ? this::RecordsTimeReaderRateControl : this::RecordsTimeReader;
+                perfReader = rateControl ? this::RecordsTimeReaderRateControl : this::RecordsTimeReader;
             }
         } else {
             if (params.isWriteAndRead()) {
-                perfReader = params.getRecordsPerSec() > 0 ? this::RecordsReaderRWRateControl : this::RecordsReaderRW;
+                perfReader = rateControl ? this::RecordsReaderRWRateControl : this::RecordsReaderRW;
             } else {
-                perfReader = params.getRecordsPerSec() > 0 ? this::RecordsReaderRateControl : this::RecordsReader;
+                perfReader = rateControl ? this::RecordsReaderRateControl : this::RecordsReader;
             }
         }
         return perfReader;
@@ -11,8 +11,10 @@
 package io.sbk.api.impl;
 
 import io.sbk.config.Config;
+import io.sbk.config.PerlConfig;
 import io.sbk.logger.PerformanceLogger;
 import io.sbk.system.Printer;
+import io.sbk.time.CachedTime;
 import io.sbk.time.Time;
 import io.sbk.time.TimeUnit;
 import io.sbk.time.MicroSeconds;
@@ -28,12 +30,30 @@ import java.util.List;
 final public class SbkUtils {
 
     public static @NotNull Time getTime(@NotNull PerformanceLogger logger) {
+        return getTime(logger, 0);
+    }
+
+    /**
+     * Get the time of the logger time unit.
+     *
+     * @param logger                performance logger
+     * @param clockResolutionMicros if greater than 0, then the cached coarse clock of this resolution is used.
+     * @return time interface
+     */
+    public static @NotNull Time getTime(@NotNull PerformanceLogger logger, int clockResolutionMicros) {
         final TimeUnit timeUnit = logger.getTimeUnit();
-        final Time ret = switch (timeUnit) {
+        final Time clock = switch (timeUnit) {
             case mcs -> new MicroSeconds();
             case ns -> new NanoSeconds();
             default -> new MilliSeconds();
         };
+        final Time ret;
+        if (clockResolutionMicros > 0) {
+            ret = new CachedTime(clock, (long) clockResolutionMicros * PerlConfig.NS_PER_MICRO);
+            Printer.log.info("Time: Cached, Resolution: " + clockResolutionMicros + " micro seconds");
+        } else {
+            ret = clock;
+        }
         Printer.log.info("Time Unit: " + ret.getTimeUnit().toString());
         Printer.log.info("Minimum Latency: " + logger.getMinLatency() + " " + ret.getTimeUnit().name());
         Printer.log.info("Maximum Latency: " + logger.getMaxLatency() + " " + ret.getTimeUnit().name());
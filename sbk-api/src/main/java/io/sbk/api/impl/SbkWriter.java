@@ -16,6 +16,7 @@ import io.sbk.api.ParameterOptions;
 import io.sbk.api.RateController;
 import io.sbk.api.Worker;
 import io.sbk.data.DataType;
+import io.sbk.data.PayloadPool;
 import io.sbk.logger.CountWriters;
 import io.sbk.perl.RunBenchmark;
 import io.sbk.perl.SendChannel;
@@ -39,22 +40,48 @@ final public class SbkWriter extends Worker implements RunBenchmark {
     final private ExecutorService executor;
     final private BiConsumer perf;
     final private RateController rCnt;
+    final private SendChannel recordChannel;
     final private Object payload;
     final private int dataSize;
 
     public SbkWriter(int writerID, int idMax, ParameterOptions params, SendChannel sendChannel,
                      @NotNull DataType<Object> dType, Time time, DataWriter<Object> writer,
                      CountWriters wCount, ExecutorService executor) {
-        super(writerID, idMax, params, sendChannel);
+        this(writerID, idMax, params, sendChannel, dType, time, writer, wCount, executor, new SbkRateController());
+    }
+
+    public SbkWriter(int writerID, int idMax, ParameterOptions params, SendChannel sendChannel,
+                     @NotNull DataType<Object> dType, Time time, DataWriter<Object> writer,
+                     CountWriters wCount, ExecutorService executor, RateController rCnt) {
+        this(writerID, idMax, params, sendChannel, dType, time, writer, wCount, executor, rCnt, null);
+    }
+
+    public SbkWriter(int writerID, int idMax, ParameterOptions params, SendChannel sendChannel,
+                     @NotNull DataType<Object> dType, Time time, DataWriter<Object> writer,
+                     CountWriters wCount, ExecutorService executor, RateController rCnt,
+                     SendChannel recordChannel) {
+        this(writerID, idMax, params, sendChannel, dType, time, writer, wCount, executor, rCnt, recordChannel, null);
+    }
+
+    /**
+     * Create the Writer.
+     * If the payload pool is null, the Writer writes the single payload created by the data type.
+     */
+    public SbkWriter(int writerID, int idMax, ParameterOptions params, SendChannel sendChannel,
+                     @NotNull DataType<Object> dType, Time time, DataWriter<Object> writer,
+                     CountWriters wCount, ExecutorService executor, RateController rCnt,
+                     SendChannel recordChannel, PayloadPool<Object> payloads) {
+        super(writerID, idMax, params, sendChannel, payloads);
+        this.recordChannel = recordChannel;
         this.dType = dType;
         this.time = time;
         this.writer = writer;
         this.wCount = wCount;
         this.executor = executor;
         this.perf = createBenchmark();
-        this.rCnt = new SbkRateController();
-        this.payload = dType.create(params.getRecordSize());
-        this.dataSize = dType.length(this.payload);
+        this.rCnt = rCnt;
+        this.payload = payloads == null ? dType.create(params.getRecordSize()) : null;
+        this.dataSize = payloads == null ? dType.length(this.payload) : payloads.getLength();
     }
 
     @Override
@@ -79,18 +106,22 @@ final public class SbkWriter extends Worker implements RunBenchmark {
 
     private @NotNull BiConsumer createBenchmark() {
         final BiConsumer perfWriter;
-        if (params.getTotalSecondsToRun() > 0) {
+        final boolean rateControl = params.getRecordsPerSec() > 0 || params.getSchedule() != null ||
+                params.getQueueDepth() > 0;
+        if (!params.isWriteAndRead() && (params.getBatchRecords() > 0 || params.getBatchBytes() > 0)) {
+            perfWriter = this::RecordsWriterBatch;
+        } else if (params.getTotalSecondsToRun() > 0) {
             if (params.isWriteAndRead()) {
                 perfWriter = this::RecordsWriterTimeRW;
             } else {
-                perfWriter = params.getRecordsPerSec() > 0 || params.getRecordsPerSync() < Integer.MAX_VALUE ?
+                perfWriter = rateControl || params.getRecordsPerSync() < Integer.MAX_VALUE ?
                         this::RecordsWriterTimeSync : this::RecordsWriterTime;
             }
         } else {
             if (params.isWriteAndRead()) {
                 perfWriter = this::RecordsWriterRW;
             } else {
-                perfWriter = params.getRecordsPerSec() > 0 || params.getRecordsPerSync() < Integer.MAX_VALUE ?
+                perfWriter = rateControl || params.getRecordsPerSync() < Integer.MAX_VALUE ?
                         this::RecordsWriterSync : this::RecordsWriter;
             }
         }
@@ -107,6 +138,12 @@ final public class SbkWriter extends Worker implements RunBenchmark {
     }
 
 
+    private void RecordsWriterBatch(long secondsToRun, long recordsCount) throws IOException {
+        writer.RecordsWriterBatch(this, secondsToRun, recordsCount, dType, payload, dataSize, time, rCnt,
+                recordChannel);
+    }
+
+
     private void RecordsWriterTime(long secondsToRun, long recordsCount) throws IOException {
         writer.RecordsWriterTime(this, secondsToRun, dType, payload, dataSize, time);
     }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.perl.Channel;
+import io.sbk.perl.SendChannel;
+import io.sbk.perl.TimeStamp;
+
+/**
+ * Send Channel which delivers the benchmark data to the given channel and additionally to the channel of the
+ * size class of the records, so that the latencies are reported per size class.
+ * The size class is chosen by the average record size of the benchmark data.
+ */
+final class SizeClassSendChannel implements Channel {
+    final private SendChannel channel;
+    final private int[] bounds;
+    final private SendChannel[] classChannels;
+
+    /**
+     * Create the Size Class Send Channel.
+     *
+     * @param channel       channel to send all the benchmark data
+     * @param bounds        upper bounds (inclusive) of the size classes in ascending order
+     * @param classChannels channels of the size classes
+     */
+    SizeClassSendChannel(SendChannel channel, int[] bounds, SendChannel[] classChannels) {
+        this.channel = channel;
+        this.bounds = bounds;
+        this.classChannels = classChannels;
+    }
+
+    @Override
+    public TimeStamp receive(int timeout) {
+        return null;
+    }
+
+    @Override
+    public void sendEndTime(long endTime) {
+
+    }
+
+    @Override
+    public void clear() {
+
+    }
+
+    @Override
+    public void send(int id, long startTime, long endTime, int dataSize, int records) {
+        channel.send(id, startTime, endTime, dataSize, records);
+        sendSizeClass(id, startTime, endTime, dataSize, records);
+    }
+
+    @Override
+    public void send(int id, long startTime, long endTime, int dataSize, int records, long intendedTime) {
+        channel.send(id, startTime, endTime, dataSize, records, intendedTime);
+        sendSizeClass(id, startTime, endTime, dataSize, records);
+    }
+
+    private void sendSizeClass(int id, long startTime, long endTime, int dataSize, int records) {
+        final int recordSize = records > 1 ? dataSize / records : dataSize;
+        int index = 0;
+        while (index < bounds.length - 1 && recordSize > bounds[index]) {
+            index++;
+        }
+        classChannels[index].send(id, startTime, endTime, dataSize, records);
+    }
+
+    @Override
+    public void sendException(int id, Throwable ex) {
+        channel.sendException(id, ex);
+    }
+}
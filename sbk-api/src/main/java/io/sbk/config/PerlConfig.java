@@ -10,6 +10,10 @@
 
 package io.sbk.config;
 
+import io.sbk.perl.IdleStrategyType;
+import io.sbk.perl.PerformanceType;
+import io.sbk.perl.RingFullPolicy;
+
 import java.util.concurrent.TimeUnit;
 
 final public class PerlConfig {
@@ -42,16 +46,38 @@ final public class PerlConfig {
     final public static double[] PERCENTILES = {10, 25, 50, 75, 95, 99, 99.9, 99.99};
 
     final public static int HDR_SIGNIFICANT_DIGITS = 3;
+    final public static int MAX_RECORD_SIZE_CLASSES = 8;
 
     public TimeUnit timeUnit;
     public boolean fork;
+    public boolean virtualThreads;
     public int qPerWorker;
     public int idleNS;
+    public IdleStrategyType idleStrategy;
     public int maxQs;
+    public PerformanceType performance;
+    public int cqueueShards;
+    public int ringSize;
+    public RingFullPolicy ringFull;
     public int maxArraySizeMB;
     public int maxHashMapSizeMB;
     public int totalMaxHashMapSizeMB;
+    public boolean logLinear;
+    public int logLinearDigits;
     public boolean histogram;
     public boolean csv;
     public int csvFileSizeGB;
+    public boolean mmap;
+    public int mmapFileSizeGB;
+    public boolean latencyCorrection;
+    public int payloadPoolSize;
+    public int payloadPoolMaxMB;
+    public double payloadCompressionRatio;
+    public double payloadDedupRatio;
+    public boolean payloadSequence;
+    public int recordSizeClasses;
+    public boolean harnessOverhead;
+    public int clockResolutionMicros;
+    public boolean alignedWindows;
+    public long qDepthTimeoutMS;
 }
@@ -31,6 +31,14 @@ public interface DataType<T> {
      */
     T create(int size);
 
+    /**
+     * Create the data with the given payload content.
+     *
+     * @param bytes payload content; the length of the bytes is the size of the data.
+     * @return T return the data.
+     */
+    T create(byte[] bytes);
+
     /**
      * Get the size of the given data in terms of number of bytes.
      *
@@ -56,6 +64,29 @@ public interface DataType<T> {
      */
     long getTime(T data);
 
+    /**
+     * Set the sequence number for data; the sequence number is stored after the time header.
+     * The data types with mutable data set the sequence number in place without any allocation.
+     * If the data is too small to store the sequence number, the data is returned unchanged.
+     *
+     * @param data     data
+     * @param sequence sequence number to set
+     * @return T return the data.
+     */
+    default T setSequence(T data, long sequence) {
+        return data;
+    }
+
+    /**
+     * Check whether the sequence numbers are set by {@link DataType#setSequence(Object, long)} without copying
+     * the data.
+     *
+     * @return true if the sequence numbers are supported.
+     */
+    default boolean isSequenceSupported() {
+        return false;
+    }
+
 
     /**
      * Get minimum Write and Read Data Size.
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.data;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Class for the ring of preallocated payloads used by a Writer.
+ * The payloads are created once, before the benchmark starts; {@link PayloadPool#next()} returns the payloads
+ * of the ring in round-robin order, so that the storage system does not receive the same payload for every
+ * record.
+ * <p>
+ * The compression ratio controls the entropy of every payload: in every block of {@link PayloadPool#BLOCK_SIZE}
+ * bytes, the first (1 / compressionRatio) fraction of the bytes is random and the rest of the bytes are zeros.
+ * The dedup ratio controls the number of distinct payloads of the ring: the ring has (size of the ring /
+ * dedupRatio) distinct payloads and the rest of the ring entries refer to the same payloads again.
+ * <p>
+ * If the sequence numbers are enabled, the sequence number of every record is set after the time header of
+ * the payload by {@link DataType#setSequence(Object, long)}; the sequence number makes every record unique,
+ * so the dedup ratio is ignored. The byte[] and ByteBuffer data types set the sequence number in place, so a
+ * payload must not be reused before its write completes: the ring should have more payloads than the
+ * outstanding records of a Writer.
+ * <p>
+ * The payloads may have different sizes, as sampled from the {@link SizeDistribution}; the size of every
+ * payload is computed once, so that the size of the next record is an array lookup.
+ *
+ * @param <T> Type of the data.
+ */
+@NotThreadSafe
+final public class PayloadPool<T> {
+    final public static int BLOCK_SIZE = 4096;
+    final public static int DEFAULT_COUNT = 1024;
+
+    final private DataType<T> dType;
+    final private T[] ring;
+    final private int[] lengths;
+    final private int distinct;
+    final private boolean sequence;
+    private long sequenceNumber;
+    private int length;
+    private int index;
+
+    /**
+     * Create the ring with the single payload.
+     *
+     * @param data payload
+     * @param length size of the payload
+     */
+    @SuppressWarnings("unchecked")
+    public PayloadPool(T data, int length) {
+        this.dType = null;
+        this.ring = (T[]) new Object[]{data};
+        this.lengths = new int[]{length};
+        this.length = length;
+        this.distinct = 1;
+        this.sequence = false;
+        this.sequenceNumber = 0;
+        this.index = 0;
+    }
+
+    /**
+     * Create the ring of payloads of same size.
+     *
+     * @param dType            Data Type interface
+     * @param size             size (number of bytes) of every payload
+     * @param count            number of payloads of the ring
+     * @param compressionRatio compression ratio of the payloads; 1 for incompressible payloads.
+     * @param dedupRatio       ratio of the number of payloads to the number of distinct payloads.
+     * @param sequence         set the sequence number of every record.
+     * @param seed             seed of the random content.
+     */
+    public PayloadPool(DataType<T> dType, int size, int count, double compressionRatio, double dedupRatio,
+                       boolean sequence, long seed) {
+        this(dType, filledSizes(size, count), compressionRatio, dedupRatio, sequence, seed);
+    }
+
+    /**
+     * Create the ring of payloads.
+     *
+     * @param dType            Data Type interface
+     * @param sizes            sizes (number of bytes) of the payloads; the length is the number of payloads.
+     * @param compressionRatio compression ratio of the payloads; 1 for incompressible payloads.
+     * @param dedupRatio       ratio of the number of payloads to the number of distinct payloads.
+     * @param sequence         set the sequence number of every record.
+     * @param seed             seed of the random content.
+     */
+    @SuppressWarnings("unchecked")
+    public PayloadPool(DataType<T> dType, int[] sizes, double compressionRatio, double dedupRatio,
+                       boolean sequence, long seed) {
+        this.dType = dType;
+        this.ring = (T[]) new Object[Math.max(1, sizes.length)];
+        this.lengths = new int[ring.length];
+        this.sequence = sequence;
+        this.distinct = sequence ? ring.length :
+                (int) Math.max(1, Math.min(ring.length, Math.round(ring.length / Math.max(1.0, dedupRatio))));
+        final Random random = new Random(seed);
+        final double randomFraction = 1.0 / Math.max(1.0, compressionRatio);
+        for (int i = 0; i < distinct; i++) {
+            final int size = sizes.length > 0 ? sizes[i] : 0;
+            final int randomBytes = (int) Math.ceil(Math.min(size, BLOCK_SIZE) * randomFraction);
+            final byte[] bytes = new byte[size];
+            for (int offset = 0; offset < size; offset += BLOCK_SIZE) {
+                final int end = Math.min(size, offset + randomBytes);
+                for (int j = offset; j < end; j++) {
+                    bytes[j] = (byte) random.nextInt(256);
+                }
+            }
+            ring[i] = dType.create(bytes);
+            lengths[i] = dType.length(ring[i]);
+        }
+        for (int i = distinct; i < ring.length; i++) {
+            ring[i] = ring[i % distinct];
+            lengths[i] = lengths[i % distinct];
+        }
+        this.length = lengths[0];
+        this.sequenceNumber = 0;
+        this.index = 0;
+    }
+
+    private static int[] filledSizes(int size, int count) {
+        final int[] sizes = new int[Math.max(1, count)];
+        Arrays.fill(sizes, size);
+        return sizes;
+    }
+
+    /**
+     * Get the next payload of the ring.
+     *
+     * @return T return the payload.
+     */
+    public T next() {
+        final T data = ring[index];
+        length = lengths[index];
+        index += 1;
+        if (index >= ring.length) {
+            index = 0;
+        }
+        if (sequence) {
+            return dType.setSequence(data, sequenceNumber++);
+        }
+        return data;
+    }
+
+    /**
+     * Get the size of the payload returned by the last {@link PayloadPool#next()} in terms of number of bytes.
+     * Before the first {@link PayloadPool#next()}, the size of the first payload is returned.
+     *
+     * @return size of the payload.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Get the number of payloads of the ring.
+     *
+     * @return number of payloads.
+     */
+    public int getCount() {
+        return ring.length;
+    }
+
+    /**
+     * Get the number of distinct payloads of the ring.
+     *
+     * @return number of distinct payloads.
+     */
+    public int getDistinct() {
+        return distinct;
+    }
+}
@@ -0,0 +1,266 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.data;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class for the distribution of the record sizes.
+ * The distribution is defined by one of the following specifications:
+ * <pre>
+ *     &lt;size&gt;                          : fixed size
+ *     uniform:&lt;min&gt;,&lt;max&gt;             : uniformly distributed sizes between min and max
+ *     normal:&lt;mean&gt;,&lt;stddev&gt;[,&lt;max&gt;]    : normally distributed sizes
+ *     lognormal:&lt;mean&gt;,&lt;stddev&gt;[,&lt;max&gt;] : log-normally distributed sizes with given mean and standard deviation
+ *     file:&lt;file name&gt;                : empirical histogram; every line has the size and the weight
+ * </pre>
+ * The normal and log-normal sizes are bounded by 1 and by the max size; if the max size is not specified,
+ * then the sizes are bounded by the mean + 4 standard deviations (in the log scale for the log-normal sizes).
+ * <p>
+ * The distribution is sampled once, by {@link SizeDistribution#getSizes(int, long)}; the sampled sizes are
+ * the quantiles of the distribution at equally spaced probabilities, in random order, so that the sizes of
+ * any number of records follow the distribution closely.
+ */
+final public class SizeDistribution {
+    final public static String UNIFORM = "uniform";
+    final public static String NORMAL = "normal";
+    final public static String LOGNORMAL = "lognormal";
+    final public static String FILE = "file";
+
+    final private static int QUANTILE_STEPS = 1 << 16;
+
+    final private String spec;
+    final private int[] quantiles;
+    final private double meanSize;
+
+    private SizeDistribution(String spec, int[] quantiles) {
+        this.spec = spec;
+        this.quantiles = quantiles;
+        this.meanSize = Arrays.stream(quantiles).average().orElse(0);
+    }
+
+    /**
+     * Parse the specification of the record sizes.
+     *
+     * @param spec specification of the distribution
+     * @return size distribution
+     * @throws IllegalArgumentException If the specification is invalid.
+     */
+    public static @NotNull SizeDistribution parse(@NotNull String spec) throws IllegalArgumentException {
+        final String trimmed = spec.trim();
+        final int colon = trimmed.indexOf(':');
+        if (colon < 0) {
+            final int size = Integer.parseInt(trimmed);
+            if (size < 0) {
+                throw new IllegalArgumentException("Error: Invalid record size : " + spec);
+            }
+            return new SizeDistribution(trimmed, new int[]{size});
+        }
+        final String name = trimmed.substring(0, colon).toLowerCase();
+        final String args = trimmed.substring(colon + 1);
+        if (name.equals(FILE)) {
+            return new SizeDistribution(trimmed, fileQuantiles(args));
+        }
+        final double[] values;
+        try {
+            values = Arrays.stream(args.split(",")).mapToDouble(x -> Double.parseDouble(x.trim())).toArray();
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Error: Invalid record size distribution : " + spec, ex);
+        }
+        if (values.length < 2 || values.length > 3 || values[0] <= 0 || values[1] < 0) {
+            throw new IllegalArgumentException("Error: Invalid record size distribution : " + spec);
+        }
+        final int[] quantiles = new int[QUANTILE_STEPS];
+        switch (name) {
+            case UNIFORM -> {
+                if (values.length != 2 || values[1] < values[0]) {
+                    throw new IllegalArgumentException("Error: Invalid record size distribution : " + spec);
+                }
+                for (int i = 0; i < quantiles.length; i++) {
+                    quantiles[i] = (int) Math.round(values[0] + (values[1] - values[0]) * probability(i));
+                }
+            }
+            case NORMAL -> {
+                final double max = values.length == 3 ? values[2] : values[0] + 4 * values[1];
+                for (int i = 0; i < quantiles.length; i++) {
+                    quantiles[i] = bound(values[0] + values[1] * inverseNormal(probability(i)), max);
+                }
+            }
+            case LOGNORMAL -> {
+                final double sigma = Math.sqrt(Math.log(1 + (values[1] * values[1]) / (values[0] * values[0])));
+                final double mu = Math.log(values[0]) - sigma * sigma / 2;
+                final double max = values.length == 3 ? values[2] : Math.exp(mu + 4 * sigma);
+                for (int i = 0; i < quantiles.length; i++) {
+                    quantiles[i] = bound(Math.exp(mu + sigma * inverseNormal(probability(i))), max);
+                }
+            }
+            default -> throw new IllegalArgumentException("Error: Unknown record size distribution : " + spec);
+        }
+        return new SizeDistribution(trimmed, quantiles);
+    }
+
+    private static double probability(int step) {
+        return (step + 0.5) / QUANTILE_STEPS;
+    }
+
+    private static int bound(double size, double max) {
+        return (int) Math.max(1, Math.min(Math.round(size), Math.max(1, max)));
+    }
+
+    private static int[] fileQuantiles(String fileName) throws IllegalArgumentException {
+        final List<long[]> buckets = new ArrayList<>();
+        long totalWeight = 0;
+        try {
+            for (String line : Files.readAllLines(Paths.get(fileName))) {
+                final String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                final String[] tokens = trimmed.split("[,\\s]+");
+                if (tokens.length < 2) {
+                    throw new IllegalArgumentException("Error: Invalid line in the size file " + fileName + " : " + line);
+                }
+                final long size = Long.parseLong(tokens[0]);
+                final long weight = Long.parseLong(tokens[1]);
+                if (size <= 0 || size > Integer.MAX_VALUE || weight < 0) {
+                    throw new IllegalArgumentException("Error: Invalid line in the size file " + fileName + " : " + line);
+                }
+                buckets.add(new long[]{size, weight});
+                totalWeight += weight;
+            }
+        } catch (IOException | NumberFormatException ex) {
+            throw new IllegalArgumentException("Error: Invalid size file " + fileName, ex);
+        }
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("Error: No sizes in the size file " + fileName);
+        }
+        buckets.sort(Comparator.comparingLong(x -> x[0]));
+        final int[] quantiles = new int[QUANTILE_STEPS];
+        int bucket = 0;
+        long cumulative = buckets.get(0)[1];
+        for (int i = 0; i < quantiles.length; i++) {
+            final double weight = probability(i) * totalWeight;
+            while (cumulative < weight && bucket < buckets.size() - 1) {
+                bucket += 1;
+                cumulative += buckets.get(bucket)[1];
+            }
+            quantiles[i] = (int) buckets.get(bucket)[0];
+        }
+        return quantiles;
+    }
+
+    /**
+     * Inverse of the standard normal cumulative distribution (Acklam's rational approximation).
+     *
+     * @param p probability; 0 &lt; p &lt; 1
+     * @return quantile of the standard normal distribution.
+     */
+    private static double inverseNormal(double p) {
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+        if (p < low) {
+            final double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                    ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            final double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                    ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        final double q = p - 0.5;
+        final double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+                (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+
+    /**
+     * Check if all the records have the same size.
+     *
+     * @return true if the size is fixed.
+     */
+    public boolean isFixed() {
+        return quantiles[0] == quantiles[quantiles.length - 1];
+    }
+
+    public int getMinSize() {
+        return quantiles[0];
+    }
+
+    public int getMaxSize() {
+        return quantiles[quantiles.length - 1];
+    }
+
+    public double getMeanSize() {
+        return meanSize;
+    }
+
+    /**
+     * Sample the record sizes.
+     *
+     * @param count number of sizes
+     * @param seed  seed of the random order of the sizes
+     * @return sizes of the records.
+     */
+    public int[] getSizes(int count, long seed) {
+        final int[] sizes = new int[count];
+        for (int i = 0; i < count; i++) {
+            sizes[i] = quantiles[(int) (((i + 0.5) / count) * quantiles.length)];
+        }
+        final Random random = new Random(seed);
+        for (int i = count - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int tmp = sizes[i];
+            sizes[i] = sizes[j];
+            sizes[j] = tmp;
+        }
+        return sizes;
+    }
+
+    /**
+     * Get the upper bounds of the size classes, which have (roughly) the same number of records.
+     *
+     * @param classes number of size classes
+     * @return distinct upper bounds (inclusive) of the size classes; the last bound is the max size.
+     */
+    public int[] getClassBounds(int classes) {
+        final int[] bounds = new int[Math.max(1, classes)];
+        int cnt = 0;
+        for (int i = 1; i <= bounds.length; i++) {
+            final int bound = quantiles[(int) ((long) i * quantiles.length / bounds.length) - 1];
+            if (cnt == 0 || bound > bounds[cnt - 1]) {
+                bounds[cnt++] = bound;
+            }
+        }
+        bounds[cnt - 1] = getMaxSize();
+        return Arrays.copyOf(bounds, cnt);
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
@@ -12,13 +12,17 @@ package io.sbk.data.impl;
 import io.sbk.data.DataType;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.ByteBuffer;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.util.Random;
 
 /**
  * Class for processing byte[] data.
  */
 public class ByteArray implements DataType<byte[]> {
+    final private static VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.BIG_ENDIAN);
 
     /**
      * Create byte array data.
@@ -47,6 +51,17 @@ public class ByteArray implements DataType<byte[]> {
         return bytes;
     }
 
+    /**
+     * Create byte array data with the given bytes.
+     *
+     * @param bytes payload content
+     * @return byte[] return the data.
+     */
+    @Override
+    public byte[] create(byte[] bytes) {
+        return bytes;
+    }
+
     /**
      * Get the size of the given data in terms of number of bytes for writers.
      *
@@ -67,8 +82,7 @@ public class ByteArray implements DataType<byte[]> {
      */
     @Override
     public byte[] setTime(byte[] data, long time) {
-        byte[] bytes = ByteBuffer.allocate(TIME_HEADER_BYTES).putLong(0, time).array();
-        System.arraycopy(bytes, 0, data, 0, TIME_HEADER_BYTES);
+        LONG_HANDLE.set(data, 0, time);
         return data;
     }
 
@@ -80,7 +94,27 @@ public class ByteArray implements DataType<byte[]> {
      */
     @Override
     public long getTime(byte[] data) {
-        return ByteBuffer.allocate(TIME_HEADER_BYTES).put(data, 0, TIME_HEADER_BYTES).getLong(0);
+        return (long) LONG_HANDLE.get(data, 0);
+    }
+
+    /**
+     * Set the sequence number for data, in place.
+     *
+     * @param data     data
+     * @param sequence sequence number to set
+     * @return byte[] return the data.
+     */
+    @Override
+    public byte[] setSequence(byte[] data, long sequence) {
+        if (data.length >= TIME_HEADER_BYTES * 2) {
+            LONG_HANDLE.set(data, TIME_HEADER_BYTES, sequence);
+        }
+        return data;
+    }
+
+    @Override
+    public boolean isSequenceSupported() {
+        return true;
     }
 
     /**
@@ -49,6 +49,20 @@ public class NioByteBuffer implements DataType<ByteBuffer> {
         return buffer;
     }
 
+    /**
+     * Create byte buffer data with the given bytes.
+     *
+     * @param bytes payload content
+     * @return ByteBuffer return the data.
+     */
+    @Override
+    public ByteBuffer create(byte[] bytes) {
+        ByteBuffer buffer = allocate(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+        return buffer;
+    }
+
     /**
      * Get the size of the given data in terms of number of bytes, for writers.
      *
@@ -84,6 +98,26 @@ public class NioByteBuffer implements DataType<ByteBuffer> {
         return data.getLong(0);
     }
 
+    /**
+     * Set the sequence number for data, in place.
+     *
+     * @param data     data
+     * @param sequence sequence number to set
+     * @return ByteBuffer return the data.
+     */
+    @Override
+    public ByteBuffer setSequence(@NotNull ByteBuffer data, long sequence) {
+        if (data.limit() >= TIME_HEADER_BYTES * 2) {
+            data.putLong(TIME_HEADER_BYTES, sequence);
+        }
+        return data;
+    }
+
+    @Override
+    public boolean isSequenceSupported() {
+        return true;
+    }
+
     /**
      * Get minimum Write and Read Data Size.
      *
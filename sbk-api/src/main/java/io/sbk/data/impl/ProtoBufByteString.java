@@ -48,6 +48,17 @@ public class ProtoBufByteString implements DataType<ByteString> {
         return ByteString.copyFrom(bytes);
     }
 
+    /**
+     * Create byte string data with the given bytes.
+     *
+     * @param bytes payload content
+     * @return ByteString return the data.
+     */
+    @Override
+    public ByteString create(byte[] bytes) {
+        return ByteString.copyFrom(bytes);
+    }
+
     /**
      * Get the size of the given data in terms of number of bytes for writers.
      *
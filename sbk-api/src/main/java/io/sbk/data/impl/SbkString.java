@@ -48,6 +48,23 @@ public class SbkString implements DataType<String> {
         return new String(bytes);
     }
 
+    /**
+     * Create string data with the given bytes.
+     * Every byte is mapped to one of the 64 printable ASCII characters starting from '0', so that the length
+     * of the string is same as number of bytes; hence the entropy of the string is 6 bits per character.
+     *
+     * @param bytes payload content
+     * @return String return the data.
+     */
+    @Override
+    public String create(byte[] bytes) {
+        final char[] chars = new char[bytes.length];
+        for (int i = 0; i < bytes.length; ++i) {
+            chars[i] = (char) ('0' + (bytes[i] & 0x3F));
+        }
+        return new String(chars);
+    }
+
     /**
      * Get the size of the given data in terms of number of bytes for writers.
      *
@@ -9,12 +9,19 @@
  */
 package io.sbk.logger;
 
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.ReportInFlight;
+import io.sbk.perl.ReportLatencies;
 import io.sbk.perl.ReportLatency;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.ReportSchedule;
+import io.sbk.perl.ReportWindowIndex;
 
 /**
  * Interface for recoding/printing results.
  */
-public interface Logger extends PerformanceLogger, CountRW, ReportLatency {
+public interface Logger extends PerformanceLogger, CountRW, ReportLatency, ReportLatencies,
+        ReportOverhead, ReportSchedule, ReportInFlight, ReportWindowIndex {
 
     /**
      * Default method to record every event.
@@ -24,4 +31,55 @@ public interface Logger extends PerformanceLogger, CountRW, ReportLatency {
 
     }
 
+    /**
+     * Default method to record the latency record merged from other windows.
+     */
+    @Override
+    default void reportLatencyRecord(LatencyRecord record) {
+
+    }
+
+    /**
+     * Default method to record the latency values merged from other windows.
+     */
+    @Override
+    default void reportLatency(long latency, long count) {
+
+    }
+
+    /**
+     * Default method to report the harness overhead.
+     */
+    @Override
+    default void reportOverhead(double seconds, long sends, double avgSendNS, long maxSendNS, double busyPercent,
+                                double idleRatio, long backlog, double avgDelayNS, long maxDelayNS) {
+
+    }
+
+    /**
+     * Default method to report the arrival schedule.
+     */
+    @Override
+    default void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged,
+                                double avgLagNS, long maxLagNS) {
+
+    }
+
+    /**
+     * Default method to report the outstanding operations.
+     */
+    @Override
+    default void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight,
+                                long creditWaits, double avgWaitNS, long maxWaitNS, double waitPercent) {
+
+    }
+
+    /**
+     * Default method to report the index of the aligned window.
+     */
+    @Override
+    default void reportWindowIndex(long windowIndex) {
+
+    }
+
 }
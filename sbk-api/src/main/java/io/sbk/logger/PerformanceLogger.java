@@ -140,4 +140,19 @@ public interface PerformanceLogger extends Print {
 
     }
 
+    /**
+     * Default implementation of the printer for the additional performance results with a label,
+     * such as the latencies corrected for coordinated omission.
+     * Default printer ignores the results.
+     *
+     * @param label label of the results
+     * @param total print the total results if true, else the periodic results.
+     * @return printer for the labelled results.
+     */
+    default Print getLabelPrinter(String label, boolean total) {
+        return (seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard,
+                higherDiscard, slc1, slc2, percentiles) -> {
+        };
+    }
+
 }
@@ -14,4 +14,6 @@ public final class RamHostConfig {
     public String host;
     public int port;
     public int maxRecordSizeMB;
+    public boolean streaming;
+    public boolean packedLatencies;
 }
@@ -29,10 +29,17 @@ public class CSVLogger extends SystemLogger {
     final static public String DISABLE_STRING = "no";
     final static public String REGULAR_PRINT = "Regular";
     final static public String TOTAL_PRINT = "Total";
+    final static private String EMPTY_SCHEDULE_COLUMNS = ",,,,,";
+    final static private String EMPTY_IN_FLIGHT_COLUMNS = ",,,,,,,";
     public String csvFile;
     public boolean csvEnable;
     public PrintWriter csvWriter;
     private long csvRowCounter;
+    private boolean csvSchedule;
+    /* the performance loggers of the writers and readers run in separate threads; each thread reports
+     * the window statistics just before it prints the window, so the columns are kept per thread */
+    final private ThreadLocal<WindowColumns> windowColumns = ThreadLocal.withInitial(WindowColumns::new);
+    private boolean csvInFlight;
 
     public CSVLogger() {
         super();
@@ -48,6 +55,8 @@ public class CSVLogger extends SystemLogger {
         csvEnable = false;
         csvFile = DISABLE_STRING;
         csvRowCounter = 0;
+        csvSchedule = false;
+        csvInFlight = false;
     }
 
     @Override
@@ -67,6 +76,13 @@ public class CSVLogger extends SystemLogger {
             headerBuilder.append(",Percentile_");
             headerBuilder.append(percentileName);
         }
+        if (csvSchedule) {
+            headerBuilder.append(",TargetRecords/Sec,AchievedRecords/Sec,LaggedRecords,AvgLagNS,MaxLagNS");
+        }
+        if (csvInFlight) {
+            headerBuilder.append(",QueueDepth,InFlight,MaxWorkerInFlight,CreditWaits,AvgCreditWaitNS," +
+                    "MaxCreditWaitNS,CreditWaitPercent");
+        }
         csvWriter = new PrintWriter(Files.newBufferedWriter(Paths.get(csvFile)));
         csvWriter.println(headerBuilder);
     }
@@ -75,6 +91,8 @@ public class CSVLogger extends SystemLogger {
     @Override
     public void open(final InputOptions params, final String storageName, Action action, Time time) throws IOException {
         super.open(params, storageName, action, time);
+        csvSchedule = params.hasOption("schedule");
+        csvInFlight = params.hasOption("qdepth");
         if (csvEnable) {
             openCSV();
         }
@@ -101,6 +119,16 @@ public class CSVLogger extends SystemLogger {
         for (int i = 0; i < Math.min(percentiles.length, percentileValues.length); ++i) {
             data.append(String.format(",%7d", percentileValues[i]));
         }
+        final WindowColumns columns = windowColumns.get();
+        if (csvSchedule) {
+            // the arrival schedule is reported just before the window latencies
+            data.append(type.equals(REGULAR_PRINT) ? columns.schedule : EMPTY_SCHEDULE_COLUMNS);
+            columns.schedule = EMPTY_SCHEDULE_COLUMNS;
+        }
+        if (csvInFlight) {
+            data.append(type.equals(REGULAR_PRINT) ? columns.inFlight : EMPTY_IN_FLIGHT_COLUMNS);
+            columns.inFlight = EMPTY_IN_FLIGHT_COLUMNS;
+        }
         csvWriter.println(data);
     }
 
@@ -117,6 +145,27 @@ public class CSVLogger extends SystemLogger {
         }
     }
 
+    @Override
+    public void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged,
+                               double avgLagNS, long maxLagNS) {
+        super.reportSchedule(seconds, targetRate, achievedRate, lagged, avgLagNS, maxLagNS);
+        if (csvEnable && csvSchedule) {
+            windowColumns.get().schedule = String.format(",%11.1f,%11.1f,%16d,%11.1f,%11d", targetRate,
+                    achievedRate, lagged, avgLagNS, maxLagNS);
+        }
+    }
+
+    @Override
+    public void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight,
+                               long creditWaits, double avgWaitNS, long maxWaitNS, double waitPercent) {
+        super.reportInFlight(seconds, queueDepth, inFlight, maxWorkerInFlight, creditWaits, avgWaitNS, maxWaitNS,
+                waitPercent);
+        if (csvEnable && csvInFlight) {
+            windowColumns.get().inFlight = String.format(",%5d,%8d,%5d,%16d,%11.1f,%11d,%5.1f", queueDepth,
+                    inFlight, maxWorkerInFlight, creditWaits, avgWaitNS, maxWaitNS, waitPercent);
+        }
+    }
+
     @Override
     public void printTotal(double seconds, long bytes, long records, double recsPerSec, double mbPerSec,
                            double avgLatency, long maxLatency, long invalid, long lowerDiscard, long higherDiscard,
@@ -137,4 +186,12 @@ public class CSVLogger extends SystemLogger {
             csvWriter.close();
         }
     }
+
+    /**
+     * Columns of the window statistics reported by a performance logger, till its next row is written.
+     */
+    private static final class WindowColumns {
+        private String schedule = EMPTY_SCHEDULE_COLUMNS;
+        private String inFlight = EMPTY_IN_FLIGHT_COLUMNS;
+    }
 }
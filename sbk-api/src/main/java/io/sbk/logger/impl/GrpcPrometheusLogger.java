@@ -16,6 +16,8 @@ import com.google.protobuf.Empty;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import io.grpc.stub.StreamObserver;
 import io.sbk.action.Action;
 import io.sbk.config.PerlConfig;
@@ -26,12 +28,20 @@ import io.sbk.grpc.LatenciesRecord;
 import io.sbk.grpc.ServiceGrpc;
 import io.sbk.logger.RamHostConfig;
 import io.sbk.options.InputOptions;
+import io.sbk.perl.LatencyRecord;
 import io.sbk.perl.LatencyRecorder;
+import io.sbk.perl.impl.LongLongHashMap;
 import io.sbk.system.Printer;
 import io.sbk.time.Time;
 
 import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Class for Recoding/Printing benchmark results on micrometer Composite Meter Registry.
@@ -39,20 +49,36 @@ import java.util.concurrent.TimeUnit;
 public class GrpcPrometheusLogger extends PrometheusLogger {
     final static String CONFIG_FILE = "ramhost.properties";
     final static int LATENCY_MAP_BYTES = 16;
+    final static int PACKED_LATENCY_BYTES = 6;
+    final static int LATENCIES_INITIAL_ENTRIES = 1024;
+    final static int STREAM_CLOSE_TIMEOUT_SECONDS = 5;
 
     public RamHostConfig ramHostConfig;
     private boolean enable;
     private long clientID;
     private long seqNum;
-    private int latencyBytes;
     private int maxLatencyBytes;
+    private int maxLatencies;
+    private long windowIndex;
     private boolean blocking;
-    private LatencyRecorder recorder;
+    private boolean packed;
+    private LatenciesBatch batch;
+    private BlockingQueue<LatenciesBatch> freeBatches;
+    private BlockingQueue<LatenciesBatch> pendingBatches;
+    private LatenciesBatch stopBatch;
+    private LatenciesBatch readyBatch;
+    private LatenciesBatch heldBatch;
+    private boolean held;
+    private long droppedRecords;
+    private AtomicBoolean readySignaled;
+    private Thread sender;
     private ManagedChannel channel;
     private ServiceGrpc.ServiceStub stub;
     private ServiceGrpc.ServiceBlockingStub blockingStub;
     private LatenciesRecord.Builder builder;
     private StreamObserver<com.google.protobuf.Empty> observer;
+    private ClientCallStreamObserver<LatenciesRecord> recordsStream;
+    private CompletableFuture<Void> recordsStreamDone;
     private ExceptionHandler exceptionHandler;
 
     public GrpcPrometheusLogger() {
@@ -149,18 +175,43 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
         }
 
         seqNum = 0;
-        latencyBytes = 0;
-        recorder = new LatencyRecorder(getMinLatency(), getMaxLatency(), PerlConfig.LONG_MAX,
-                PerlConfig.LONG_MAX, PerlConfig.LONG_MAX);
+        /* reported by the performance logger thread, only if the windows are aligned */
+        windowIndex = 0;
+        packed = ramHostConfig.packedLatencies && config.getPackedLatencies();
+        maxLatencies = maxLatencyBytes / (packed ? PACKED_LATENCY_BYTES : LATENCY_MAP_BYTES);
+        batch = new LatenciesBatch(getMinLatency(), getMaxLatency());
+        freeBatches = new ArrayBlockingQueue<>(1);
+        freeBatches.add(new LatenciesBatch(getMinLatency(), getMaxLatency()));
+        /* one pending batch, the ready signal and the stop batch */
+        pendingBatches = new ArrayBlockingQueue<>(3);
+        stopBatch = new LatenciesBatch(getMinLatency(), getMaxLatency());
+        readyBatch = new LatenciesBatch(getMinLatency(), getMaxLatency());
+        heldBatch = null;
+        held = false;
+        droppedRecords = 0;
+        readySignaled = new AtomicBoolean(false);
         builder = LatenciesRecord.newBuilder();
+        recordsStream = null;
+        recordsStreamDone = null;
         if (blocking) {
             stub = null;
             observer = null;
         } else {
             stub = ServiceGrpc.newStub(channel);
             observer = new ResponseObserver<>();
+            if (ramHostConfig.streaming && config.getStreaming()) {
+                recordsStreamDone = new CompletableFuture<>();
+                final StreamResponseObserver streamObserver = new StreamResponseObserver(recordsStreamDone);
+                stub.streamLatenciesRecords(streamObserver);
+                recordsStream = streamObserver.requestStream;
+                heldBatch = new LatenciesBatch(getMinLatency(), getMaxLatency());
+            }
         }
-        Printer.log.info("SBK GRPC Logger Started");
+        Printer.log.info("SBK GRPC Logger Started, Latency Records: " + (recordsStream != null ? "stream" : "unary")
+                + ", Latencies: " + (packed ? "packed" : "map"));
+        sender = new Thread(this::runSender, "sbk-grpc-sender");
+        sender.setDaemon(true);
+        sender.start();
     }
 
     @Override
@@ -170,22 +221,127 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
             return;
         }
         try {
-            builder.clear();
+            batch.reset();
+            pendingBatches.put(stopBatch);
+            sender.join();
+            if (recordsStream != null) {
+                recordsStream.onCompleted();
+                recordsStreamDone.get(STREAM_CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            }
             blockingStub.closeClient(ClientID.newBuilder().setId(clientID).build());
             channel.shutdownNow().awaitTermination(1, TimeUnit.SECONDS);
-        } catch (InterruptedException ex) {
+        } catch (InterruptedException | ExecutionException | TimeoutException ex) {
             ex.printStackTrace();
         }
         Printer.log.info("SBK GRPC Logger Shutdown");
     }
 
+    /**
+     * Hand over the accumulated latencies to the sender thread and continue with an empty batch.
+     * Waits only if the sender thread has not yet sent the previous batch.
+     */
     public void sendLatenciesRecord() {
+        final LatenciesBatch next;
+        try {
+            next = freeBatches.take();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        batch.readers = readers.get();
+        batch.writers = writers.get();
+        batch.maxReaders = maxReaders.get();
+        batch.maxWriters = maxWriters.get();
+        batch.reportTime = System.currentTimeMillis();
+        batch.windowIndex = windowIndex;
+        /* never blocks: at most one batch is pending while the other one is accumulated */
+        pendingBatches.add(batch);
+        batch = next;
+    }
+
+    /**
+     * Send the pending batches.
+     * If the records stream is not ready to accept a latency record without buffering, the pending batches are
+     * coalesced into the held batch, which is sent once the stream is ready; if the held batch reaches
+     * the maximum record size, the pending batches are dropped. The logger thread never waits for the stream.
+     */
+    private void runSender() {
+        while (true) {
+            final LatenciesBatch pending;
+            try {
+                pending = pendingBatches.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (pending == stopBatch) {
+                if (held) {
+                    send(heldBatch);
+                }
+                return;
+            }
+            if (pending == readyBatch) {
+                readySignaled.set(false);
+            } else if (recordsStream != null && (held || !recordsStream.isReady())) {
+                hold(pending);
+            } else {
+                send(pending);
+            }
+            if (held && recordsStream.isReady()) {
+                send(heldBatch);
+                heldBatch.reset();
+                held = false;
+            }
+            if (pending != readyBatch) {
+                pending.reset();
+                freeBatches.add(pending);
+            }
+        }
+    }
+
+    private void send(LatenciesBatch pending) {
+        try {
+            sendBatch(pending);
+        } catch (StatusRuntimeException ex) {
+            Printer.log.error("SBK GRPC Logger, sending latency record failed: " + ex);
+        }
+    }
+
+    private void hold(LatenciesBatch pending) {
+        if (heldBatch.latencies.size() + pending.latencies.size() > maxLatencies) {
+            droppedRecords += pending.recorder.getTotalRecords();
+            Printer.log.warn("SBK GRPC Logger, the latency records stream is not ready; dropped " +
+                    pending.recorder.getTotalRecords() + " records, total dropped records: " + droppedRecords);
+            return;
+        }
+        heldBatch.recorder.update(pending.recorder);
+        for (long latency : pending.latencies.sortedKeys()) {
+            heldBatch.latencies.add(latency, pending.latencies.get(latency));
+        }
+        heldBatch.readers = pending.readers;
+        heldBatch.writers = pending.writers;
+        heldBatch.maxReaders = pending.maxReaders;
+        heldBatch.maxWriters = pending.maxWriters;
+        heldBatch.reportTime = pending.reportTime;
+        heldBatch.windowIndex = pending.windowIndex;
+        held = true;
+    }
+
+    private void signalReady() {
+        if (!readySignaled.getAndSet(true)) {
+            pendingBatches.offer(readyBatch);
+        }
+    }
+
+    private void sendBatch(LatenciesBatch pending) {
+        final LatencyRecorder recorder = pending.recorder;
+        builder.clear();
         builder.setClientID(clientID);
         builder.setSequenceNumber(++seqNum);
-        builder.setMaxReaders(maxReaders.get());
-        builder.setReaders(readers.get());
-        builder.setWriters(writers.get());
-        builder.setMaxWriters(maxWriters.get());
+        builder.setMaxReaders(pending.maxReaders);
+        builder.setReaders(pending.readers);
+        builder.setWriters(pending.writers);
+        builder.setMaxWriters(pending.maxWriters);
         builder.setMaxLatency(recorder.getMaxLatency());
         builder.setTotalLatency(recorder.getTotalLatency());
         builder.setInvalidLatencyRecords(recorder.getInvalidLatencyRecords());
@@ -194,14 +350,25 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
         builder.setHigherLatencyDiscardRecords(recorder.getHigherLatencyDiscardRecords());
         builder.setLowerLatencyDiscardRecords(recorder.getLowerLatencyDiscardRecords());
         builder.setValidLatencyRecords(recorder.getValidLatencyRecords());
-        if (stub != null) {
+        builder.setReportTime(pending.reportTime);
+        builder.setWindowIndex(pending.windowIndex);
+        long prev = 0;
+        for (long latency : pending.latencies.sortedKeys()) {
+            if (packed) {
+                builder.addLatencyDeltas(latency - prev);
+                builder.addLatencyCounts(pending.latencies.get(latency));
+                prev = latency;
+            } else {
+                builder.putLatency(latency, pending.latencies.get(latency));
+            }
+        }
+        if (recordsStream != null) {
+            recordsStream.onNext(builder.build());
+        } else if (stub != null) {
             stub.addLatenciesRecord(builder.build(), observer);
         } else {
             blockingStub.addLatenciesRecord(builder.build());
         }
-        recorder.reset();
-        builder.clear();
-        latencyBytes = 0;
     }
 
     /**
@@ -213,16 +380,37 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
             return;
         }
 
-        if (latencyBytes >= maxLatencyBytes) {
+        if (batch.latencies.size() >= maxLatencies) {
             sendLatenciesRecord();
         }
-        if (recorder.record(bytes, events, latency)) {
-            final Long cnt = builder.getLatencyMap().getOrDefault(latency, 0L);
-            builder.putLatency(latency, cnt + events);
-            if (cnt == 0) {
-                latencyBytes += LATENCY_MAP_BYTES;
-            }
+        if (batch.recorder.record(bytes, events, latency)) {
+            batch.latencies.add(latency, events);
+        }
+    }
+
+    /**
+     * record the latency record merged from other windows.
+     */
+    @Override
+    public void reportLatencyRecord(LatencyRecord record) {
+        if (!enable) {
+            return;
+        }
+        batch.recorder.update(record);
+    }
+
+    /**
+     * record the latency values merged from other windows.
+     */
+    @Override
+    public void reportLatency(long latency, long count) {
+        if (!enable) {
+            return;
+        }
+        if (batch.latencies.size() >= maxLatencies) {
+            sendLatenciesRecord();
         }
+        batch.latencies.add(latency, count);
     }
 
     @Override
@@ -231,12 +419,58 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
                       long slc1, long slc2, long[] percentileValues) {
         super.print(seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard,
                 higherDiscard, slc1, slc2, percentileValues);
-        if (latencyBytes > 0) {
+        if (!enable) {
+            return;
+        }
+        if (batch.latencies.size() > 0) {
             sendLatenciesRecord();
         }
     }
 
+    /**
+     * the latency records are sent with the index of the aligned window.
+     */
+    @Override
+    public void reportWindowIndex(long windowIndex) {
+        this.windowIndex = windowIndex;
+    }
+
+    /**
+     * Latencies accumulated by the logger thread between two latency records; the latencies are kept in a
+     * primitive map, so that recording a latency does not allocate.
+     */
+    private static final class LatenciesBatch {
+        final private LatencyRecorder recorder;
+        final private LongLongHashMap latencies;
+        private int readers;
+        private int writers;
+        private int maxReaders;
+        private int maxWriters;
+        private long reportTime;
+        private long windowIndex;
+
+        LatenciesBatch(long minLatency, long maxLatency) {
+            this.recorder = new LatencyRecorder(minLatency, maxLatency, PerlConfig.LONG_MAX,
+                    PerlConfig.LONG_MAX, PerlConfig.LONG_MAX);
+            this.latencies = new LongLongHashMap(LATENCIES_INITIAL_ENTRIES);
+        }
+
+        void reset() {
+            recorder.reset();
+            latencies.clear();
+        }
+    }
+
     private static class ResponseObserver<T> implements StreamObserver<T> {
+        final private CompletableFuture<Void> done;
+
+        ResponseObserver() {
+            this(null);
+        }
+
+        ResponseObserver(CompletableFuture<Void> done) {
+            this.done = done;
+        }
 
         @Override
         public void onNext(Object value) {
@@ -251,7 +485,27 @@ public class GrpcPrometheusLogger extends PrometheusLogger {
 
         @Override
         public void onCompleted() {
+            if (done != null) {
+                done.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Response observer of the latency records stream; signals the sender thread when the stream is ready.
+     */
+    private class StreamResponseObserver extends ResponseObserver<Empty>
+            implements ClientResponseObserver<LatenciesRecord, Empty> {
+        private ClientCallStreamObserver<LatenciesRecord> requestStream;
 
+        StreamResponseObserver(CompletableFuture<Void> done) {
+            super(done);
+        }
+
+        @Override
+        public void beforeStart(ClientCallStreamObserver<LatenciesRecord> requestStream) {
+            this.requestStream = requestStream;
+            requestStream.setOnReadyHandler(GrpcPrometheusLogger.this::signalReady);
         }
     }
 
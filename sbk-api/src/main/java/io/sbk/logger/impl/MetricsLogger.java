@@ -15,6 +15,9 @@ import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import io.sbk.config.PerlConfig;
 import io.sbk.perl.Print;
+import io.sbk.perl.ReportInFlight;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.ReportSchedule;
 import io.sbk.time.Time;
 import io.sbk.time.TimeUnit;
 import org.jetbrains.annotations.NotNull;
@@ -25,7 +28,8 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Class for recoding/printing benchmark results on micrometer Composite Meter Registry.
  */
-public sealed class MetricsLogger implements Print permits RWMetricsLogger {
+public sealed class MetricsLogger implements Print, ReportOverhead, ReportSchedule, ReportInFlight
+        permits RWMetricsLogger {
     final public String metricPrefix;
     final public MeterRegistry registry;
     final public DecimalFormat format;
@@ -41,6 +45,26 @@ public sealed class MetricsLogger implements Print permits RWMetricsLogger {
     final private AtomicDouble[] percentileGauges;
     final private AtomicLong slc1;
     final private AtomicLong slc2;
+    final private Counter overheadSends;
+    final private AtomicDouble overheadAvgSendNS;
+    final private AtomicLong overheadMaxSendNS;
+    final private AtomicDouble overheadBusyPercent;
+    final private AtomicDouble overheadIdleRatio;
+    final private AtomicLong overheadBacklog;
+    final private AtomicDouble overheadAvgDelayNS;
+    final private AtomicLong overheadMaxDelayNS;
+    final private AtomicDouble scheduleTargetRate;
+    final private AtomicDouble scheduleAchievedRate;
+    final private Counter scheduleLagged;
+    final private AtomicDouble scheduleAvgLagNS;
+    final private AtomicLong scheduleMaxLagNS;
+    final private AtomicLong inFlightQueueDepth;
+    final private AtomicLong inFlightOperations;
+    final private AtomicLong inFlightMaxPerWorker;
+    final private Counter inFlightCreditWaits;
+    final private AtomicDouble inFlightAvgWaitNS;
+    final private AtomicLong inFlightMaxWaitNS;
+    final private AtomicDouble inFlightWaitPercent;
     final private Convert convert;
 
     public MetricsLogger(@NotNull String header, @NotNull String action, @NotNull double[] percentiles,
@@ -60,6 +84,9 @@ public sealed class MetricsLogger implements Print permits RWMetricsLogger {
         final String higherDiscardName = metricPrefix + "_HigherDiscardLatencyRecords";
         final String slc1Name = metricPrefix + "_SLC_1";
         final String slc2Name = metricPrefix + "_SLC_2";
+        final String overheadName = metricPrefix + "_Overhead";
+        final String scheduleName = metricPrefix + "_Schedule";
+        final String inFlightName = metricPrefix + "_InFlight";
         this.registry = compositeRegistry;
         this.bytes = this.registry.counter(bytesName);
         this.records = this.registry.counter(recordsName);
@@ -72,6 +99,26 @@ public sealed class MetricsLogger implements Print permits RWMetricsLogger {
         this.maxLatency = this.registry.gauge(maxLatencyName, new AtomicDouble());
         this.slc1 = this.registry.gauge(slc1Name, new AtomicLong());
         this.slc2 = this.registry.gauge(slc2Name, new AtomicLong());
+        this.overheadSends = this.registry.counter(overheadName + "_Sends");
+        this.overheadAvgSendNS = this.registry.gauge(overheadName + "_ns_AvgSend", new AtomicDouble());
+        this.overheadMaxSendNS = this.registry.gauge(overheadName + "_ns_MaxSend", new AtomicLong());
+        this.overheadBusyPercent = this.registry.gauge(overheadName + "_BusyPercent", new AtomicDouble());
+        this.overheadIdleRatio = this.registry.gauge(overheadName + "_IdleRatio", new AtomicDouble());
+        this.overheadBacklog = this.registry.gauge(overheadName + "_Backlog", new AtomicLong());
+        this.overheadAvgDelayNS = this.registry.gauge(overheadName + "_ns_AvgDeliveryDelay", new AtomicDouble());
+        this.overheadMaxDelayNS = this.registry.gauge(overheadName + "_ns_MaxDeliveryDelay", new AtomicLong());
+        this.scheduleTargetRate = this.registry.gauge(scheduleName + "_TargetRecordsPerSec", new AtomicDouble());
+        this.scheduleAchievedRate = this.registry.gauge(scheduleName + "_AchievedRecordsPerSec", new AtomicDouble());
+        this.scheduleLagged = this.registry.counter(scheduleName + "_LaggedRecords");
+        this.scheduleAvgLagNS = this.registry.gauge(scheduleName + "_ns_AvgLag", new AtomicDouble());
+        this.scheduleMaxLagNS = this.registry.gauge(scheduleName + "_ns_MaxLag", new AtomicLong());
+        this.inFlightQueueDepth = this.registry.gauge(inFlightName + "_QueueDepth", new AtomicLong());
+        this.inFlightOperations = this.registry.gauge(inFlightName + "_Operations", new AtomicLong());
+        this.inFlightMaxPerWorker = this.registry.gauge(inFlightName + "_MaxPerWorker", new AtomicLong());
+        this.inFlightCreditWaits = this.registry.counter(inFlightName + "_CreditWaits");
+        this.inFlightAvgWaitNS = this.registry.gauge(inFlightName + "_ns_AvgCreditWait", new AtomicDouble());
+        this.inFlightMaxWaitNS = this.registry.gauge(inFlightName + "_ns_MaxCreditWait", new AtomicLong());
+        this.inFlightWaitPercent = this.registry.gauge(inFlightName + "_CreditWaitPercent", new AtomicDouble());
         this.percentileGauges = new AtomicDouble[percentiles.length];
         for (int i = 0; i < percentiles.length; i++) {
             this.percentileGauges[i] = this.registry.gauge(metricPrefix + "_" + metricUnit + "_" + format.format(percentiles[i]),
@@ -110,6 +157,42 @@ public sealed class MetricsLogger implements Print permits RWMetricsLogger {
         }
     }
 
+    @Override
+    final public void reportOverhead(double seconds, long sends, double avgSendNS, long maxSendNS,
+                                     double busyPercent, double idleRatio, long backlog, double avgDelayNS,
+                                     long maxDelayNS) {
+        this.overheadSends.increment(sends);
+        this.overheadAvgSendNS.set(avgSendNS);
+        this.overheadMaxSendNS.set(maxSendNS);
+        this.overheadBusyPercent.set(busyPercent);
+        this.overheadIdleRatio.set(idleRatio);
+        this.overheadBacklog.set(backlog);
+        this.overheadAvgDelayNS.set(avgDelayNS);
+        this.overheadMaxDelayNS.set(maxDelayNS);
+    }
+
+    @Override
+    final public void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged,
+                                     double avgLagNS, long maxLagNS) {
+        this.scheduleTargetRate.set(targetRate);
+        this.scheduleAchievedRate.set(achievedRate);
+        this.scheduleLagged.increment(lagged);
+        this.scheduleAvgLagNS.set(avgLagNS);
+        this.scheduleMaxLagNS.set(maxLagNS);
+    }
+
+    @Override
+    final public void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight,
+                                     long creditWaits, double avgWaitNS, long maxWaitNS, double waitPercent) {
+        this.inFlightQueueDepth.set(queueDepth);
+        this.inFlightOperations.set(inFlight);
+        this.inFlightMaxPerWorker.set(maxWorkerInFlight);
+        this.inFlightCreditWaits.increment(creditWaits);
+        this.inFlightAvgWaitNS.set(avgWaitNS);
+        this.inFlightMaxWaitNS.set(maxWaitNS);
+        this.inFlightWaitPercent.set(waitPercent);
+    }
+
     private interface Convert {
         double apply(double val);
     }
@@ -140,6 +140,37 @@ public class PrometheusLogger extends CSVLogger {
         }
     }
 
+    @Override
+    public void reportOverhead(double seconds, long sends, double avgSendNS, long maxSendNS, double busyPercent,
+                               double idleRatio, long backlog, double avgDelayNS, long maxDelayNS) {
+        super.reportOverhead(seconds, sends, avgSendNS, maxSendNS, busyPercent, idleRatio, backlog,
+                avgDelayNS, maxDelayNS);
+        if (prometheusServer != null) {
+            prometheusServer.reportOverhead(seconds, sends, avgSendNS, maxSendNS, busyPercent, idleRatio, backlog,
+                    avgDelayNS, maxDelayNS);
+        }
+    }
+
+    @Override
+    public void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged,
+                               double avgLagNS, long maxLagNS) {
+        super.reportSchedule(seconds, targetRate, achievedRate, lagged, avgLagNS, maxLagNS);
+        if (prometheusServer != null) {
+            prometheusServer.reportSchedule(seconds, targetRate, achievedRate, lagged, avgLagNS, maxLagNS);
+        }
+    }
+
+    @Override
+    public void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight,
+                               long creditWaits, double avgWaitNS, long maxWaitNS, double waitPercent) {
+        super.reportInFlight(seconds, queueDepth, inFlight, maxWorkerInFlight, creditWaits, avgWaitNS, maxWaitNS,
+                waitPercent);
+        if (prometheusServer != null) {
+            prometheusServer.reportInFlight(seconds, queueDepth, inFlight, maxWorkerInFlight, creditWaits,
+                    avgWaitNS, maxWaitNS, waitPercent);
+        }
+    }
+
     private void printMetrics(double seconds, long bytes, long records, double recsPerSec, double mbPerSec,
                               double avgLatency, long maxLatency, long invalid, long lowerDiscard, long higherDiscard,
                               long slc1, long slc2, long[] percentileValues) {
@@ -10,6 +10,7 @@
 
 package io.sbk.logger.impl;
 
+import io.sbk.perl.Print;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -46,4 +47,13 @@ public class Sl4jResultLogger extends SystemLogger {
         print(prefix + "(Total) ", seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency,
                 invalid, lowerDiscard, higherDiscard, slc1, slc2, percentileValues);
     }
+
+    @Override
+    public Print getLabelPrinter(String label, boolean total) {
+        return (seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard,
+                higherDiscard, slc1, slc2, percentileValues) ->
+                print(prefix + "(" + (total ? "Total " : "") + label + ") ", seconds, bytes, records, recsPerSec,
+                        mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard, higherDiscard, slc1, slc2,
+                        percentileValues);
+    }
 }
@@ -18,6 +18,7 @@ import io.sbk.config.PerlConfig;
 import io.sbk.logger.Logger;
 import io.sbk.logger.LoggerConfig;
 import io.sbk.options.InputOptions;
+import io.sbk.perl.Print;
 import io.sbk.system.Printer;
 import io.sbk.time.Time;
 import io.sbk.time.TimeUnit;
@@ -286,6 +287,42 @@ public class SystemLogger implements Logger {
                 higherDiscard, slc1, slc2, percentileValues);
     }
 
+    @Override
+    public Print getLabelPrinter(String label, boolean total) {
+        return (seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard,
+                higherDiscard, slc1, slc2, percentileValues) ->
+                print((total ? "Total " : "") + label + " : " + prefix, seconds, bytes, records, recsPerSec,
+                        mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard, higherDiscard, slc1, slc2,
+                        percentileValues);
+    }
+
+    @Override
+    public void reportOverhead(double seconds, long sends, double avgSendNS, long maxSendNS, double busyPercent,
+                               double idleRatio, long backlog, double avgDelayNS, long maxDelayNS) {
+        System.out.printf("Harness Overhead : %s %8d seconds, %16d sends, %8.1f ns avg send, %8d ns max send;"
+                        + " Performance Logger: %5.1f %% busy, %5.3f idle ratio; %8d backlog;"
+                        + " Delivery Delay: %11.1f ns avg, %11d ns max.%n",
+                prefix, (long) seconds, sends, avgSendNS, maxSendNS, busyPercent, idleRatio, backlog,
+                avgDelayNS, maxDelayNS);
+    }
+
+    @Override
+    public void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged,
+                               double avgLagNS, long maxLagNS) {
+        System.out.printf("Arrival Schedule : %s %8d seconds, %11.1f target records/sec, %11.1f achieved records/sec;"
+                        + " %16d records lagged, %11.1f ns avg lag, %11d ns max lag.%n",
+                prefix, (long) seconds, targetRate, achievedRate, lagged, avgLagNS, maxLagNS);
+    }
+
+    @Override
+    public void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight,
+                               long creditWaits, double avgWaitNS, long maxWaitNS, double waitPercent) {
+        System.out.printf("Queue Depth : %s %8d seconds, %5d queue depth, %8d in-flight, %5d max in-flight per worker;"
+                        + " %16d credit waits, %11.1f ns avg wait, %11d ns max wait, %5.1f %% wait time.%n",
+                prefix, (long) seconds, queueDepth, inFlight, maxWorkerInFlight, creditWaits, avgWaitNS, maxWaitNS,
+                waitPercent);
+    }
+
     @Override
     public void printTotal(double seconds, long bytes, long records, double recsPerSec, double mbPerSec,
                            double avgLatency, long maxLatency, long invalid, long lowerDiscard, long higherDiscard,
@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for waiting, if there is no benchmark data to read.
+ * The {@link IdleStrategy#idle()} and {@link IdleStrategy#reset()} methods are invoked by the single consumer
+ * thread; the {@link IdleStrategy#signal()} method is thread safe and invoked by the producers.
+ */
+public interface IdleStrategy {
+
+    /**
+     * Wait, as no benchmark data is found.
+     */
+    void idle();
+
+    /**
+     * Reset the wait state, as the benchmark data is found.
+     */
+    default void reset() {
+
+    }
+
+    /**
+     * Signal that the benchmark data is available; wakes up the waiting consumer.
+     */
+    default void signal() {
+
+    }
+}
@@ -0,0 +1,21 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Enum for the way the performance logger waits, if there is no benchmark data to read.
+ */
+public enum IdleStrategyType {
+    spin,
+    yield,
+    backoff,
+    park,
+    block
+}
@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package io.sbk.perl;
+
+/**
+ * Interface for recording latencies, which also accepts the latencies merged from other latency windows
+ * into the current window.
+ */
+public interface PeriodicLatencyRecorder extends PeriodicRecorder, ReportLatencies {
+
+    /**
+     * Print and reset the current window, if the window is full.
+     *
+     * @param currTime current time
+     */
+    void checkWindowFullAndReset(long currTime);
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for reporting the outstanding (issued, but not completed) operations of the Writers/Readers.
+ */
+public interface ReportInFlight {
+
+    /**
+     * Report the outstanding operations of the last reporting window.
+     *
+     * @param seconds           reporting seconds
+     * @param queueDepth        maximum outstanding operations per Writer/Reader.
+     * @param inFlight          outstanding operations of all Writers/Readers at the end of the window.
+     * @param maxWorkerInFlight maximum outstanding operations of a single Writer/Reader at the end of the window.
+     * @param creditWaits       number of times the Writers/Readers waited for the credits.
+     * @param avgWaitNS         average time in nanoseconds of the waits for the credits.
+     * @param maxWaitNS         maximum time in nanoseconds of the waits for the credits.
+     * @param waitPercent       percentage of the window time a Writer/Reader waited for the credits, on average.
+     */
+    void reportInFlight(double seconds, int queueDepth, long inFlight, long maxWorkerInFlight, long creditWaits,
+                        double avgWaitNS, long maxWaitNS, double waitPercent);
+}
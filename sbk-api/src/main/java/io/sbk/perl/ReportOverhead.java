@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for reporting the overhead of the benchmark harness itself.
+ */
+public interface ReportOverhead {
+
+    /**
+     * Report the harness overhead of the last reporting window.
+     *
+     * @param seconds     reporting seconds
+     * @param sends       number of benchmark data sent by the Writers/Readers.
+     * @param avgSendNS   average time in nanoseconds spent by the Writers/Readers in {@link SendChannel#send}.
+     * @param maxSendNS   maximum time in nanoseconds spent by the Writers/Readers in {@link SendChannel#send}.
+     * @param busyPercent percentage of the time the performance logger thread was not idle.
+     * @param idleRatio   ratio of the polls of the performance logger thread which found no benchmark data.
+     * @param backlog     number of benchmark data sent but not yet consumed by the performance logger.
+     * @param avgDelayNS  average delay in nanoseconds from the end time of the benchmark data to its consumption.
+     * @param maxDelayNS  maximum delay in nanoseconds from the end time of the benchmark data to its consumption.
+     */
+    void reportOverhead(double seconds, long sends, double avgSendNS, long maxSendNS, double busyPercent,
+                        double idleRatio, long backlog, double avgDelayNS, long maxDelayNS);
+}
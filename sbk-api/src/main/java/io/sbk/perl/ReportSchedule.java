@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for reporting the open loop arrival schedule of the records(events).
+ */
+public interface ReportSchedule {
+
+    /**
+     * Report the arrival schedule of the last reporting window.
+     *
+     * @param seconds      reporting seconds
+     * @param targetRate   records per second of the schedule at the end of the window.
+     * @param achievedRate records per second issued as per the schedule in the window.
+     * @param lagged       number of records which were issued later than their time slots.
+     * @param avgLagNS     average lag in nanoseconds of the lagged records.
+     * @param maxLagNS     maximum lag in nanoseconds of the lagged records.
+     */
+    void reportSchedule(double seconds, double targetRate, double achievedRate, long lagged, double avgLagNS,
+                        long maxLagNS);
+}
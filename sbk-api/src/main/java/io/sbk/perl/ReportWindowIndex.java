@@ -0,0 +1,24 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for reporting the index of the wall clock aligned reporting window.
+ */
+public interface ReportWindowIndex {
+
+    /**
+     * Report the index of the aligned window; the latencies reported after this call belong to this window,
+     * until the next call. Invoked by the performance logger thread, only if the windows are aligned.
+     *
+     * @param windowIndex start time of the window in epoch milliseconds / reporting interval in milliseconds.
+     */
+    void reportWindowIndex(long windowIndex);
+}
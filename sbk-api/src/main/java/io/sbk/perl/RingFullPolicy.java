@@ -0,0 +1,20 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package io.sbk.perl;
+
+/**
+ * Enum for the action taken by the Writer/Reader if the ring buffer queue is full.
+ */
+public enum RingFullPolicy {
+    spin,
+    park,
+    drop
+}
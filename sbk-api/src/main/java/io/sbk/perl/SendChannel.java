@@ -25,6 +25,21 @@ public sealed interface SendChannel permits Channel {
      */
     void send(int id, long startTime, long endTime, int dataSize, int records);
 
+    /**
+     * send the benchmarking data of an operation issued by the rate controlled Writer/Reader.
+     *
+     * @param id           Channel identifier
+     * @param startTime    Start time
+     * @param endTime      End Time.
+     * @param dataSize     size of the data in bytes.
+     * @param records      number of records/events/messages.
+     * @param intendedTime intended start time of the operation, captured when the operation was issued;
+     *                     0 if the rate is not limited.
+     */
+    default void send(int id, long startTime, long endTime, int dataSize, int records, long intendedTime) {
+        send(id, startTime, endTime, dataSize, records);
+    }
+
     /**
      * send the Exception.
      *
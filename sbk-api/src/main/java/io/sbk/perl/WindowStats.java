@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl;
+
+/**
+ * Interface for the statistics which are reported at the end of every reporting window,
+ * along with the latencies of the window.
+ */
+public interface WindowStats {
+
+    /**
+     * Report the statistics of the window which is being stopped.
+     * Invoked by the performance logger thread, before the latencies of the window are printed.
+     *
+     * @param seconds duration of the window in seconds.
+     */
+    void reportWindow(double seconds);
+}
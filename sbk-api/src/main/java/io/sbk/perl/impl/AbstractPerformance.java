@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.Channel;
+import io.sbk.perl.IdleStrategy;
+import io.sbk.perl.IdleStrategyType;
+import io.sbk.perl.Performance;
+import io.sbk.perl.PeriodicRecorder;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.SendChannel;
+import io.sbk.state.State;
+import io.sbk.system.Printer;
+import io.sbk.time.Time;
+import lombok.Synchronized;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Abstract class for Performance statistics.
+ * Manages the channels and the life cycle of the performance logger thread; the subclasses
+ * fill the channels and implement the performance logger loop.
+ * If the overhead reporter is given, the harness overhead is measured and reported at every window.
+ */
+abstract public class AbstractPerformance implements Performance {
+    final protected int windowIntervalMS;
+    final protected int idleNS;
+    final protected int timeoutMS;
+    final protected Time time;
+    final protected PeriodicRecorder periodicLogger;
+    final protected Channel[] channels;
+    final protected OverheadMonitor overhead;
+    final protected IdleStrategy idleStrategy;
+    final private IdleStrategyType idleStrategyType;
+    final private ExecutorService executor;
+    final private CompletableFuture<Void> retFuture;
+
+    @GuardedBy("this")
+    private int index;
+
+    @GuardedBy("this")
+    private State state;
+
+    @GuardedBy("this")
+    private CompletableFuture<Void> qFuture;
+
+
+    public AbstractPerformance(@NotNull PerlConfig perlConfig, int channelsCount, PeriodicRecorder periodicLogger,
+                               int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor,
+                               ReportOverhead overheadReporter, boolean delivery) {
+        this.idleNS = Math.max(PerlConfig.MIN_IDLE_NS, perlConfig.idleNS);
+        this.idleStrategyType = perlConfig.idleStrategy;
+        this.idleStrategy = createIdleStrategy();
+        this.windowIntervalMS = reportingIntervalMS;
+        this.timeoutMS = timeoutMS;
+        this.time = time;
+        this.periodicLogger = periodicLogger;
+        this.executor = executor;
+        this.retFuture = new CompletableFuture<>();
+        this.state = State.BEGIN;
+        this.channels = new Channel[channelsCount];
+        this.index = channelsCount;
+        this.overhead = overheadReporter != null ? new OverheadMonitor(overheadReporter, time, delivery) : null;
+    }
+
+    /**
+     * Run the performance logger loop till the given time or records count.
+     *
+     * @param secondsToRun number of seconds to run
+     * @param totalRecords total number of records to benchmark
+     */
+    abstract protected void runPerformance(final long secondsToRun, final long totalRecords);
+
+    /**
+     * Create the idle strategy of a consumer of the channels.
+     *
+     * @return new idle strategy
+     */
+    protected IdleStrategy createIdleStrategy() {
+        return IdleStrategies.create(idleStrategyType, idleNS);
+    }
+
+    /**
+     * Report the harness overhead of the last window, if the overhead is measured.
+     */
+    protected void reportOverhead() {
+        if (overhead != null) {
+            overhead.report();
+        }
+    }
+
+    @Override
+    @Synchronized
+    public SendChannel getSendChannel() {
+        final Channel channel;
+        if (channels.length == 1) {
+            channel = channels[0];
+        } else {
+            index += 1;
+            if (index >= channels.length) {
+                index = 0;
+            }
+            channel = channels[index];
+        }
+        return overhead != null ? overhead.wrap(channel) : channel;
+    }
+
+    @Synchronized
+    private void shutdown(Throwable ex) {
+        if (state != State.END) {
+            state = State.END;
+            if (qFuture != null) {
+                if (!qFuture.isDone()) {
+                    long endTime = time.getCurrentTime();
+                    for (Channel ch : channels) {
+                        ch.sendEndTime(endTime);
+                    }
+                    try {
+                        qFuture.get();
+                    } catch (ExecutionException | InterruptedException e) {
+                        e.printStackTrace();
+                    }
+                    for (Channel ch : channels) {
+                        ch.clear();
+                    }
+                }
+                qFuture = null;
+            }
+            if (ex != null) {
+                Printer.log.warn("Performance Logger Shutdown with Exception:" + ex);
+                retFuture.completeExceptionally(ex);
+            } else {
+                Printer.log.info("Performance Logger Shutdown");
+                retFuture.complete(null);
+            }
+        }
+    }
+
+    @Override
+    @Synchronized
+    public CompletableFuture<Void> run(long secondsToRun, long recordsCount) {
+        if (state == State.BEGIN) {
+            state = State.RUN;
+            qFuture = CompletableFuture.runAsync(() -> runPerformance(secondsToRun, recordsCount), executor);
+            qFuture.whenComplete((ret, ex) -> {
+                shutdown(ex);
+            });
+        }
+        return retFuture;
+    }
+
+    @Override
+    public void stop() {
+        shutdown(null);
+    }
+
+    interface Throw {
+        void onException(Throwable ex);
+    }
+
+    final protected class OnError implements Throw {
+        public void onException(Throwable ex) {
+            shutdown(ex);
+        }
+    }
+}
@@ -21,10 +21,16 @@ import javax.annotation.concurrent.NotThreadSafe;
 
 /**
  * class for Performance statistics.
+ * The occupied latency slots are tracked by a two level bitmap: one bit per slot and one bit per
+ * block of 64 slots, so that copying the percentiles and zeroing the slots visit only the populated
+ * slots, instead of every slot between the minimum and maximum latencies.
  */
 @NotThreadSafe
 final public class ArrayLatencyRecorder extends LatencyRecordWindow {
+    final private static int WORD_SHIFT = 6;
     final private long[] latencies;
+    final private long[] slotBits;
+    final private long[] blockBits;
     final private long maxMemorySizeBytes;
     private int minIndex;
     private int maxIndex;
@@ -34,11 +40,18 @@ final public class ArrayLatencyRecorder extends LatencyRecordWindow {
         super(lowLatency, highLatency, totalLatencyMax, totalRecordsMax, bytesMax, percentiles, time);
         final int size = (int) Math.min(highLatency - lowLatency, Integer.MAX_VALUE);
         this.latencies = new long[size];
-        this.maxMemorySizeBytes = (long) PerlConfig.LATENCY_VALUE_SIZE_BYTES * size;
+        this.slotBits = new long[wordsCount(size)];
+        this.blockBits = new long[wordsCount(slotBits.length)];
+        this.maxMemorySizeBytes = (long) PerlConfig.LATENCY_VALUE_SIZE_BYTES *
+                (size + slotBits.length + blockBits.length);
         this.minIndex = size;
         this.maxIndex = 0;
     }
 
+    private static int wordsCount(int bits) {
+        return (int) (((long) bits + Long.SIZE - 1) >>> WORD_SHIFT);
+    }
+
     @Override
     public void reset(long startTime) {
         super.reset(startTime);
@@ -53,20 +66,34 @@ final public class ArrayLatencyRecorder extends LatencyRecordWindow {
             copyLatencies.reportLatencyRecord(this);
         }
         percentiles.reset(validLatencyRecords);
+        if (minIndex > maxIndex) {
+            return;
+        }
         long curIndex = 0;
-        for (int i = minIndex; i < Math.min(latencies.length, this.maxIndex + 1); i++) {
-            if (latencies[i] > 0) {
-                final long latency = i + lowLatency;
-                final long count = latencies[i];
-                final long nextIndex = curIndex + count;
-
-                if (copyLatencies != null) {
-                    copyLatencies.reportLatency(latency, count);
+        final int lastBlockWord = (maxIndex >>> WORD_SHIFT) >>> WORD_SHIFT;
+        for (int b = (minIndex >>> WORD_SHIFT) >>> WORD_SHIFT; b <= lastBlockWord; b++) {
+            long blocks = blockBits[b];
+            while (blocks != 0) {
+                final int w = (b << WORD_SHIFT) + Long.numberOfTrailingZeros(blocks);
+                long slots = slotBits[w];
+                while (slots != 0) {
+                    final int i = (w << WORD_SHIFT) + Long.numberOfTrailingZeros(slots);
+                    final long latency = i + lowLatency;
+                    final long count = latencies[i];
+                    final long nextIndex = curIndex + count;
+
+                    if (copyLatencies != null) {
+                        copyLatencies.reportLatency(latency, count);
+                    }
+                    percentiles.copyLatency(latency, count, curIndex, nextIndex);
+                    curIndex = nextIndex;
+                    latencies[i] = 0;
+                    slots &= slots - 1;
                 }
-                percentiles.copyLatency(latency, count, curIndex, nextIndex);
-                curIndex = nextIndex;
-                latencies[i] = 0;
+                slotBits[w] = 0;
+                blocks &= blocks - 1;
             }
+            blockBits[b] = 0;
         }
     }
 
@@ -89,10 +116,13 @@ final public class ArrayLatencyRecorder extends LatencyRecordWindow {
     @Override
     public void reportLatency(long latency, long count) {
         final int index = (int) (latency - this.lowLatency);
-        if (index < this.latencies.length) {
+        if (index < this.latencies.length && count > 0) {
             this.minIndex = Math.min(this.minIndex, index);
             this.maxIndex = Math.max(this.maxIndex, index);
             this.latencies[index] += count;
+            final int w = index >>> WORD_SHIFT;
+            this.slotBits[w] |= 1L << index;
+            this.blockBits[w >>> WORD_SHIFT] |= 1L << w;
         }
     }
 
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.IdleStrategy;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle Strategy which spins first, then yields, and then parks the consumer thread with the park time
+ * doubled at every wait, up to the maximum idle time.
+ */
+@NotThreadSafe
+final public class BackoffIdleStrategy implements IdleStrategy {
+    final private static int MAX_SPINS = 100;
+    final private static int MAX_YIELDS = 10;
+    final private long maxIdleNS;
+    private int spins;
+    private int yields;
+    private long parkNS;
+
+    public BackoffIdleStrategy(long maxIdleNS) {
+        this.maxIdleNS = Math.max(PerlConfig.MIN_IDLE_NS, maxIdleNS);
+        reset();
+    }
+
+    @Override
+    public void idle() {
+        if (spins < MAX_SPINS) {
+            spins++;
+            Thread.onSpinWait();
+        } else if (yields < MAX_YIELDS) {
+            yields++;
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(parkNS);
+            parkNS = Math.min(parkNS * 2, maxIdleNS);
+        }
+    }
+
+    @Override
+    public void reset() {
+        spins = 0;
+        yields = 0;
+        parkNS = PerlConfig.MIN_IDLE_NS;
+    }
+}
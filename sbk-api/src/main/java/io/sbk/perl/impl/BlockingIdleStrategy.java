@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.perl.IdleStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle Strategy which blocks the consumer thread till a producer signals the benchmark data.
+ * The wait is bounded by the maximum idle time, so that the consumer still closes the reporting windows
+ * without the benchmark data, and a signal missed while the consumer is about to wait delays the
+ * benchmark data by at most the maximum idle time.
+ */
+final public class BlockingIdleStrategy implements IdleStrategy {
+    final private long maxIdleNS;
+    private volatile Thread waiter;
+
+    public BlockingIdleStrategy(long maxIdleNS) {
+        this.maxIdleNS = maxIdleNS;
+        this.waiter = null;
+    }
+
+    @Override
+    public void idle() {
+        waiter = Thread.currentThread();
+        LockSupport.parkNanos(this, maxIdleNS);
+        waiter = null;
+    }
+
+    /* This Method is Thread Safe */
+    @Override
+    public void signal() {
+        final Thread thread = waiter;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -11,77 +11,127 @@ package io.sbk.perl.impl;
 
 import io.sbk.config.PerlConfig;
 import io.sbk.perl.Channel;
-import io.sbk.perl.Performance;
+import io.sbk.perl.IdleStrategy;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.PeriodicLatencyRecorder;
 import io.sbk.perl.PeriodicRecorder;
-import io.sbk.perl.SendChannel;
+import io.sbk.perl.ReportOverhead;
 import io.sbk.perl.TimeStamp;
-import io.sbk.state.State;
 import io.sbk.system.Printer;
 import io.sbk.time.Time;
-import lombok.Synchronized;
 import org.jetbrains.annotations.NotNull;
 
-import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
-import java.util.concurrent.CompletableFuture;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
 
 
 /**
- * Class for Performance statistics.
+ * Class for Performance statistics using concurrent queues.
+ * By default, the performance logger thread consumes all the channels; with the consumer shards, every
+ * shard consumes a disjoint subset of the channels into its own latency windows, which are merged into the
+ * latency recorder at every reporting interval.
  */
-final public class CQueuePerformance implements Performance {
-    final private int windowIntervalMS;
-    final private int idleNS;
-    final private int timeoutMS;
-    final private Time time;
-    final private PeriodicRecorder periodicLogger;
-    final private ExecutorService executor;
-    final private Channel[] channels;
-    final private CompletableFuture<Void> retFuture;
-
-    @GuardedBy("this")
-    private int index;
-
-    @GuardedBy("this")
-    private State state;
-
-    @GuardedBy("this")
-    private CompletableFuture<Void> qFuture;
-
+final public class CQueuePerformance extends AbstractPerformance {
+    final private static int SHARDS_CORES_FRACTION = 4;
+    final private PeriodicLatencyRecorder latencyRecorder;
+    final private Supplier<LatencyRecordWindow> windowSupplier;
+    final private LatencyPercentiles percentiles;
+    final private int shards;
+    final private IdleStrategy[] shardIdleStrategies;
+    private volatile int swapRequests;
+    private volatile boolean running;
 
     public CQueuePerformance(@NotNull PerlConfig perlConfig, int workers, PeriodicRecorder periodicLogger,
-                             int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor) {
-        this.idleNS = Math.max(PerlConfig.MIN_IDLE_NS, perlConfig.idleNS);
-        this.windowIntervalMS = reportingIntervalMS;
-        this.timeoutMS = timeoutMS;
-        this.time = time;
-        this.periodicLogger = periodicLogger;
-        this.executor = executor;
-        this.retFuture = new CompletableFuture<>();
-        this.state = State.BEGIN;
-        int maxQs;
-        if (perlConfig.maxQs > 0) {
-            maxQs = perlConfig.maxQs;
-            this.channels = new CQueueChannel[1];
-            this.index = 1;
+                             int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor,
+                             ReportOverhead overheadReporter) {
+        super(perlConfig, perlConfig.maxQs > 0 ? 1 : workers, periodicLogger, reportingIntervalMS, timeoutMS,
+                time, executor, overheadReporter, true);
+        this.latencyRecorder = null;
+        this.windowSupplier = null;
+        this.percentiles = null;
+        this.shards = 1;
+        this.shardIdleStrategies = null;
+        createChannels(perlConfig, false);
+    }
+
+    /**
+     * Create the Performance with the consumer shards.
+     * The channels are distributed to the {@link PerlConfig#cqueueShards} consumer threads; if it is 0, then
+     * the number of consumer threads is a fraction of the CPU cores. The number of consumer threads is
+     * limited to the number of channels. If there is a single consumer thread, the performance logger thread
+     * consumes the channels and records the latencies as usual.
+     *
+     * @param perlConfig          Configuration parameters
+     * @param workers             number of Writers/Readers
+     * @param latencyRecorder     latency recorder into which the windows of the shards are merged
+     * @param windowSupplier      supplier of the latency windows of the shards
+     * @param percentileFractions percentile fractions
+     * @param reportingIntervalMS reporting interval in milliseconds
+     * @param timeoutMS           timeout in milliseconds
+     * @param time                time interface
+     * @param executor            executor of the performance logger thread
+     * @param overheadReporter    if not null, the harness overhead is reported to it.
+     */
+    public CQueuePerformance(@NotNull PerlConfig perlConfig, int workers, PeriodicLatencyRecorder latencyRecorder,
+                             Supplier<LatencyRecordWindow> windowSupplier, double[] percentileFractions,
+                             int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor,
+                             ReportOverhead overheadReporter) {
+        super(perlConfig, perlConfig.maxQs > 0 ? 1 : workers, latencyRecorder, reportingIntervalMS, timeoutMS,
+                time, executor, overheadReporter, getShards(perlConfig, perlConfig.maxQs > 0 ? 1 : workers) == 1);
+        this.latencyRecorder = latencyRecorder;
+        this.windowSupplier = windowSupplier;
+        this.percentiles = new LatencyPercentiles(percentileFractions);
+        this.shards = getShards(perlConfig, channels.length);
+        if (shards > 1) {
+            this.shardIdleStrategies = new IdleStrategy[shards];
+            for (int i = 0; i < shards; i++) {
+                this.shardIdleStrategies[i] = createIdleStrategy();
+            }
         } else {
-            maxQs = Math.max(PerlConfig.MIN_Q_PER_WORKER, perlConfig.qPerWorker);
-            this.channels = new CQueueChannel[workers];
-            this.index = workers;
+            this.shardIdleStrategies = null;
         }
+        createChannels(perlConfig, shards > 1);
+        if (shards > 1) {
+            Printer.log.info("Performance Channels: Concurrent Queues, Consumer Shards: " + shards);
+        }
+    }
+
+    private static int getShards(@NotNull PerlConfig perlConfig, int channelsCount) {
+        final int shards = perlConfig.cqueueShards > 0 ? perlConfig.cqueueShards :
+                Runtime.getRuntime().availableProcessors() / SHARDS_CORES_FRACTION;
+        return Math.max(1, Math.min(shards, channelsCount));
+    }
+
+    private void createChannels(@NotNull PerlConfig perlConfig, boolean countSends) {
+        final int maxQs = perlConfig.maxQs > 0 ?
+                perlConfig.maxQs : Math.max(PerlConfig.MIN_Q_PER_WORKER, perlConfig.qPerWorker);
         for (int i = 0; i < channels.length; i++) {
-            channels[i] = new CQueueChannel(maxQs, new OnError());
+            channels[i] = new CQueueChannel(maxQs, new OnError(), countSends,
+                    shardIdleStrategies != null ? shardIdleStrategies[i % shards] : idleStrategy);
         }
     }
 
 
-    private void runPerformance(final long secondsToRun, final long totalRecords) {
+    @Override
+    protected void runPerformance(final long secondsToRun, final long totalRecords) {
+        if (shards > 1) {
+            runShards(secondsToRun, totalRecords);
+            return;
+        }
         final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
-        final ElasticWaitCounter idleCounter = new ElasticWaitCounter(windowIntervalMS, timeoutMS, idleNS);
+        final ElasticWaitCounter idleCounter = new ElasticWaitCounter(windowIntervalMS, timeoutMS, idleNS,
+                idleStrategy);
         final long startTime = time.getCurrentTime();
         boolean doWork = true;
         long ctime = startTime;
@@ -102,6 +152,9 @@ final public class CQueuePerformance implements Performance {
                         doWork = false;
                     } else {
                         recordsCnt += t.records;
+                        if (overhead != null) {
+                            overhead.received(t.endTime);
+                        }
                         periodicLogger.record(t.startTime, t.endTime, t.bytes, t.records);
                         if (msToRun > 0) {
                             if (time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
@@ -113,6 +166,7 @@ final public class CQueuePerformance implements Performance {
                     }
                     if (periodicLogger.elapsedMilliSecondsWindow(ctime) > windowIntervalMS) {
                         periodicLogger.stopWindow(ctime);
+                        reportOverhead();
                         periodicLogger.startWindow(ctime);
                         idleCounter.reset();
                     }
@@ -120,11 +174,12 @@ final public class CQueuePerformance implements Performance {
             }
             if (doWork) {
                 if (notFound) {
-                    if (idleCounter.waitAndCheck()) {
+                    if (overhead != null ? overhead.waitAndCheck(idleCounter) : idleCounter.waitAndCheck()) {
                         ctime = time.getCurrentTime();
                         final long diffTime = periodicLogger.elapsedMilliSecondsWindow(ctime);
                         if (diffTime > windowIntervalMS) {
                             periodicLogger.stopWindow(ctime);
+                            reportOverhead();
                             periodicLogger.startWindow(ctime);
                             idleCounter.reset();
                             idleCounter.setElastic(diffTime);
@@ -132,6 +187,8 @@ final public class CQueuePerformance implements Performance {
                             idleCounter.updateElastic(diffTime);
                         }
                     }
+                } else {
+                    idleStrategy.reset();
                 }
                 if (msToRun > 0 && time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
                     doWork = false;
@@ -139,115 +196,238 @@ final public class CQueuePerformance implements Performance {
             }
         }
         periodicLogger.stop(ctime);
+        reportOverhead();
     }
 
-    @Override
-    @Synchronized
-    public SendChannel getSendChannel() {
-        if (channels.length == 1) {
-            return channels[0];
+    /**
+     * Run the consumer shards; the performance logger thread coordinates the reporting windows.
+     * At every reporting interval, every shard swaps its active window and arrives at the phaser; once all
+     * the shards have arrived, the retired windows are merged into the latency recorder, while the shards keep
+     * consuming into the other windows.
+     *
+     * @param secondsToRun number of seconds to run
+     * @param totalRecords total number of records to benchmark
+     */
+    private void runShards(final long secondsToRun, final long totalRecords) {
+        final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
+        final Phaser phaser = new Phaser(1 + shards);
+        final Shard[] consumers = new Shard[shards];
+        for (int i = 0; i < shards; i++) {
+            final List<Channel> shardChannels = new ArrayList<>();
+            for (int j = i; j < channels.length; j += shards) {
+                shardChannels.add(channels[j]);
+            }
+            consumers[i] = new Shard(shardChannels.toArray(new Channel[0]), windowSupplier.get(),
+                    windowSupplier.get(), shardIdleStrategies[i], phaser);
+        }
+        final ExecutorService shardExecutor = Executors.newFixedThreadPool(shards);
+        final long startTime = time.getCurrentTime();
+        boolean doWork = true;
+        long ctime = startTime;
+        long recordsCnt = 0;
+        Printer.log.info("Performance Logger Started");
+        latencyRecorder.start(startTime);
+        latencyRecorder.startWindow(startTime);
+        for (Shard shard : consumers) {
+            shard.reset(startTime);
         }
-        index += 1;
-        if (index >= channels.length) {
-            index = 0;
+        swapRequests = 0;
+        running = true;
+        for (Shard shard : consumers) {
+            shardExecutor.execute(shard::run);
         }
-        return channels[index];
-    }
-
-    @Synchronized
-    private void shutdown(Throwable ex) {
-        if (state != State.END) {
-            state = State.END;
-            if (qFuture != null) {
-                if (!qFuture.isDone()) {
-                    long endTime = time.getCurrentTime();
-                    for (Channel ch : channels) {
-                        ch.sendEndTime(endTime);
-                    }
-                    try {
-                        qFuture.get();
-                    } catch (ExecutionException | InterruptedException e) {
-                        e.printStackTrace();
+        try {
+            while (doWork) {
+                if (overhead != null) {
+                    overhead.park(idleNS);
+                } else {
+                    LockSupport.parkNanos(idleNS);
+                }
+                ctime = time.getCurrentTime();
+                boolean merge = latencyRecorder.elapsedMilliSecondsWindow(ctime) > windowIntervalMS;
+                for (Shard shard : consumers) {
+                    if (shard.end) {
+                        ctime = shard.endTime;
+                        doWork = false;
+                        merge = true;
+                    } else if (shard.full) {
+                        merge = true;
                     }
-                    for (Channel ch : channels) {
-                        ch.clear();
+                }
+                if (msToRun > 0 && time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
+                    doWork = false;
+                    merge = true;
+                }
+                if (merge) {
+                    recordsCnt += mergeShards(consumers, phaser, ctime, doWork);
+                    latencyRecorder.checkWindowFullAndReset(ctime);
+                    if (latencyRecorder.elapsedMilliSecondsWindow(ctime) > windowIntervalMS) {
+                        latencyRecorder.stopWindow(ctime);
+                        reportOverhead();
+                        logShardsBacklog(consumers);
+                        latencyRecorder.startWindow(ctime);
                     }
                 }
-                qFuture = null;
+                if (doWork && msToRun <= 0 && totalRecords > 0 && recordsCnt >= totalRecords) {
+                    recordsCnt += mergeShards(consumers, phaser, ctime, false);
+                    doWork = false;
+                }
             }
-            if (ex != null) {
-                Printer.log.warn("Performance Logger Shutdown with Exception:" + ex);
-                retFuture.completeExceptionally(ex);
-            } else {
-                Printer.log.info("Performance Logger Shutdown");
-                retFuture.complete(null);
+        } finally {
+            if (running) {
+                running = false;
+                swapRequests += 1;
+            }
+            shardExecutor.shutdown();
+        }
+        latencyRecorder.stop(ctime);
+        reportOverhead();
+        for (Shard shard : consumers) {
+            if (shard.error != null) {
+                throw new CompletionException(shard.error);
             }
         }
     }
 
-    @Override
-    @Synchronized
-    public CompletableFuture<Void> run(long secondsToRun, long recordsCount) {
-        if (state == State.BEGIN) {
-            state = State.RUN;
-            qFuture = CompletableFuture.runAsync(() -> runPerformance(secondsToRun, recordsCount), executor);
-            qFuture.whenComplete((ret, ex) -> {
-                shutdown(ex);
-            });
+    /**
+     * Swap the windows of all shards and merge the retired windows into the latency recorder.
+     *
+     * @param consumers consumer shards
+     * @param phaser    phaser of the shards
+     * @param ctime     current time
+     * @param doWork    false, if the shards should stop after the swap
+     * @return number of records merged
+     */
+    private long mergeShards(Shard[] consumers, @NotNull Phaser phaser, long ctime, boolean doWork) {
+        running = doWork;
+        swapRequests += 1;
+        phaser.arriveAndAwaitAdvance();
+        long records = 0;
+        for (Shard shard : consumers) {
+            final LatencyRecordWindow window = shard.retired();
+            if (window.getTotalRecords() > 0) {
+                records += window.getTotalRecords();
+                window.copyPercentiles(percentiles, latencyRecorder);
+            }
+            window.reset(ctime);
         }
-        return retFuture;
+        return records;
     }
 
-    @Override
-    public void stop() {
-        shutdown(null);
+    /**
+     * Log the number of benchmark data waiting in the channels of every shard at the last swap.
+     */
+    private void logShardsBacklog(Shard[] consumers) {
+        final long[] backlog = new long[consumers.length];
+        for (int i = 0; i < consumers.length; i++) {
+            backlog[i] = consumers[i].backlog;
+        }
+        Printer.log.info("Performance Consumer Shards Backlog: " + Arrays.toString(backlog));
     }
 
-    interface Throw {
-        void onException(Throwable ex);
-    }
 
     /**
-     * Private class for counter implementation to reduce time.getCurrentTime() invocation.
+     * Consumer of a disjoint subset of the channels, which records the latencies into its own windows.
      */
-    @NotThreadSafe
-    final static private class ElasticWaitCounter {
-        final private int windowInterval;
-        final private int idleNS;
-        final private double countRatio;
-        final private long minIdleCount;
-        private long elasticCount;
-        private long idleCount;
-        private long totalCount;
+    final private class Shard {
+        final private Channel[] shardChannels;
+        final private LatencyRecordWindow[] windows;
+        final private IdleStrategy shardIdleStrategy;
+        final private Phaser phaser;
+        private volatile boolean full;
+        private volatile boolean end;
+        private volatile long endTime;
+        private volatile Throwable error;
 
-        public ElasticWaitCounter(int windowInterval, int timeoutMS, int idleNS) {
-            this.windowInterval = windowInterval;
-            this.idleNS = idleNS;
-            countRatio = (PerlConfig.NS_PER_MS * 1.0) / this.idleNS;
-            minIdleCount = (long) (countRatio * timeoutMS);
-            elasticCount = minIdleCount;
-            idleCount = 0;
-            totalCount = 0;
-        }
+        /* written by the shard before arriving at the phaser */
+        private int active;
+        private long backlog;
+        /* phase of the last arrival of the shard; accessed by the shard only */
+        private int arrivedPhase;
 
-        public boolean waitAndCheck() {
-            LockSupport.parkNanos(idleNS);
-            idleCount++;
-            totalCount++;
-            return idleCount > elasticCount;
+        Shard(Channel[] shardChannels, LatencyRecordWindow window1, LatencyRecordWindow window2,
+              IdleStrategy shardIdleStrategy, Phaser phaser) {
+            this.shardChannels = shardChannels;
+            this.windows = new LatencyRecordWindow[]{window1, window2};
+            this.shardIdleStrategy = shardIdleStrategy;
+            this.phaser = phaser;
+            this.active = 0;
+            this.arrivedPhase = -1;
+            this.full = false;
+            this.end = false;
         }
 
-        public void reset() {
-            idleCount = 0;
+        void reset(long startTime) {
+            for (LatencyRecordWindow window : windows) {
+                window.reset(startTime);
+            }
         }
 
-        public void updateElastic(long diffTime) {
-            elasticCount = Math.max((long) (countRatio * (windowInterval - diffTime)), minIdleCount);
+        /**
+         * Get the retired window; invoked after all the shards arrived at the phaser.
+         *
+         * @return the retired window; it is not accessed by the shard till the next swap.
+         */
+        LatencyRecordWindow retired() {
+            return windows[1 - active];
         }
 
-        public void setElastic(long diffTime) {
-            elasticCount = (totalCount * windowInterval) / diffTime;
-            totalCount = 0;
+        void run() {
+            int swaps = 0;
+            long received = 0;
+            try {
+                while (true) {
+                    if (swapRequests != swaps) {
+                        swaps += 1;
+                        final boolean stop = !running;
+                        long sends = 0;
+                        for (Channel ch : shardChannels) {
+                            sends += ((CQueueChannel) ch).getSends();
+                        }
+                        backlog = Math.max(0, sends - received);
+                        active = 1 - active;
+                        full = false;
+                        if (stop) {
+                            phaser.arriveAndDeregister();
+                            return;
+                        }
+                        arrivedPhase = phaser.arrive();
+                    }
+                    boolean notFound = true;
+                    for (Channel ch : shardChannels) {
+                        final TimeStamp t = ch.receive(windowIntervalMS);
+                        if (t != null) {
+                            notFound = false;
+                            if (t.isEnd()) {
+                                endTime = t.endTime;
+                                end = true;
+                            } else {
+                                final LatencyRecordWindow window = windows[active];
+                                received++;
+                                window.recordLatency(t.startTime, t.bytes, t.records,
+                                        time.elapsed(t.endTime, t.startTime));
+                                if (window.isFull()) {
+                                    full = true;
+                                }
+                            }
+                        }
+                    }
+                    if (notFound) {
+                        shardIdleStrategy.idle();
+                    } else {
+                        shardIdleStrategy.reset();
+                    }
+                }
+            } catch (Throwable ex) {
+                error = ex;
+                endTime = time.getCurrentTime();
+                end = true;
+                if (arrivedPhase == phaser.getPhase()) {
+                    // already arrived at the current phase; a second arrival would advance it before the others
+                    phaser.awaitAdvance(arrivedPhase);
+                }
+                phaser.arriveAndDeregister();
+            }
         }
     }
 
@@ -255,11 +435,19 @@ final public class CQueuePerformance implements Performance {
     static final class CQueueChannel implements Channel {
         final private ConcurrentLinkedQueue<TimeStamp>[] cQueues;
         final private Throw eThrow;
+        final private LongAdder sends;
+        final private IdleStrategy idleStrategy;
         private int index;
 
         public CQueueChannel(int qSize, Throw eThrow) {
+            this(qSize, eThrow, false, new ParkIdleStrategy(PerlConfig.MIN_IDLE_NS));
+        }
+
+        public CQueueChannel(int qSize, Throw eThrow, boolean countSends, IdleStrategy idleStrategy) {
             this.index = qSize;
             this.eThrow = eThrow;
+            this.sends = countSends ? new LongAdder() : null;
+            this.idleStrategy = idleStrategy;
             this.cQueues = new ConcurrentLinkedQueue[qSize];
             for (int i = 0; i < cQueues.length; i++) {
                 cQueues[i] = new ConcurrentLinkedQueue<>();
@@ -276,6 +464,7 @@ final public class CQueuePerformance implements Performance {
 
         public void sendEndTime(long endTime) {
             cQueues[0].add(new TimeStamp(endTime));
+            idleStrategy.signal();
         }
 
         public void clear() {
@@ -284,19 +473,26 @@ final public class CQueuePerformance implements Performance {
             }
         }
 
+        /**
+         * Get the number of benchmark data sent, if the sends are counted.
+         *
+         * @return number of benchmark data sent, or 0 if the sends are not counted.
+         */
+        long getSends() {
+            return sends != null ? sends.sum() : 0;
+        }
+
         /* This Method is Thread Safe */
         public void send(int id, long startTime, long endTime, int bytes, int records) {
             cQueues[id].add(new TimeStamp(startTime, endTime, bytes, records));
+            if (sends != null) {
+                sends.increment();
+            }
+            idleStrategy.signal();
         }
 
         public void sendException(int id, Throwable ex) {
             eThrow.onException(ex);
         }
     }
-
-    final private class OnError implements Throw {
-        public void onException(Throwable ex) {
-            shutdown(ex);
-        }
-    }
-}
\ No newline at end of file
+}
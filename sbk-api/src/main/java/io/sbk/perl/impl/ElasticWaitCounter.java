@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.IdleStrategy;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Class for counter implementation to reduce time.getCurrentTime() invocation.
+ */
+@NotThreadSafe
+final class ElasticWaitCounter {
+    final private int windowInterval;
+    final private int idleNS;
+    final private double countRatio;
+    final private long minIdleCount;
+    final private IdleStrategy idleStrategy;
+    private long elasticCount;
+    private long idleCount;
+    private long totalCount;
+
+    public ElasticWaitCounter(int windowInterval, int timeoutMS, int idleNS, IdleStrategy idleStrategy) {
+        this.windowInterval = windowInterval;
+        this.idleStrategy = idleStrategy;
+        this.idleNS = idleNS;
+        countRatio = (PerlConfig.NS_PER_MS * 1.0) / this.idleNS;
+        minIdleCount = (long) (countRatio * timeoutMS);
+        elasticCount = minIdleCount;
+        idleCount = 0;
+        totalCount = 0;
+    }
+
+    public boolean waitAndCheck() {
+        idleStrategy.idle();
+        idleCount++;
+        totalCount++;
+        return idleCount > elasticCount;
+    }
+
+    public void reset() {
+        idleCount = 0;
+    }
+
+    public void updateElastic(long diffTime) {
+        elasticCount = Math.max((long) (countRatio * (windowInterval - diffTime)), minIdleCount);
+    }
+
+    public void setElastic(long diffTime) {
+        elasticCount = (totalCount * windowInterval) / diffTime;
+        totalCount = 0;
+    }
+}
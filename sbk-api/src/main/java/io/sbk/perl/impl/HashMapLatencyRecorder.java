@@ -18,8 +18,6 @@ import io.sbk.perl.ReportLatencies;
 import io.sbk.time.Time;
 
 import javax.annotation.concurrent.NotThreadSafe;
-import java.util.HashMap;
-import java.util.Iterator;
 
 
 /**
@@ -27,20 +25,18 @@ import java.util.Iterator;
  */
 @NotThreadSafe
 final public class HashMapLatencyRecorder extends LatencyRecordWindow {
-    final private HashMap<Long, Long> latencies;
+    final private static int INITIAL_ENTRIES = 4096;
+    final private LongLongHashMap latencies;
     final private int maxHashMapSizeMB;
     final private long maxHashMapSizeBytes;
-    final private int incBytes;
-    private long hashMapBytesCount;
 
     public HashMapLatencyRecorder(long lowLatency, long highLatency, long totalLatencyMax, long totalRecordsMax, long bytesMax,
                                   double[] percentiles, Time time, int maxHashMapSizeMB) {
         super(lowLatency, highLatency, totalLatencyMax, totalRecordsMax, bytesMax, percentiles, time);
-        this.latencies = new HashMap<>();
         this.maxHashMapSizeMB = maxHashMapSizeMB;
         this.maxHashMapSizeBytes = (long) maxHashMapSizeMB * PerlConfig.BYTES_PER_MB;
-        this.incBytes = PerlConfig.LATENCY_VALUE_SIZE_BYTES * 2;
-        this.hashMapBytesCount = 0;
+        this.latencies = new LongLongHashMap((int) Math.min(INITIAL_ENTRIES,
+                maxHashMapSizeBytes / LongLongHashMap.ENTRY_BYTES));
     }
 
 
@@ -48,12 +44,11 @@ final public class HashMapLatencyRecorder extends LatencyRecordWindow {
     public void reset(long startTime) {
         super.reset(startTime);
         this.latencies.clear();
-        this.hashMapBytesCount = 0;
     }
 
     @Override
     public boolean isFull() {
-        return (this.hashMapBytesCount > this.maxHashMapSizeBytes) || super.isOverflow();
+        return this.latencies.isFull(this.maxHashMapSizeBytes) || super.isOverflow();
     }
 
     @Override
@@ -68,10 +63,9 @@ final public class HashMapLatencyRecorder extends LatencyRecordWindow {
             copyLatencies.reportLatencyRecord(this);
         }
         percentiles.reset(validLatencyRecords);
-        Iterator<Long> keys = latencies.keySet().stream().sorted().iterator();
+        final long[] keys = latencies.sortedKeys();
         long curIndex = 0;
-        while (keys.hasNext()) {
-            final long latency = keys.next();
+        for (long latency : keys) {
             final long count = latencies.get(latency);
             final long nextIndex = curIndex + count;
 
@@ -80,9 +74,8 @@ final public class HashMapLatencyRecorder extends LatencyRecordWindow {
             }
             percentiles.copyLatency(latency, count, curIndex, nextIndex);
             curIndex = nextIndex;
-            latencies.remove(latency);
         }
-        hashMapBytesCount = 0;
+        latencies.clear();
     }
 
 
@@ -94,12 +87,7 @@ final public class HashMapLatencyRecorder extends LatencyRecordWindow {
 
     @Override
     public void reportLatency(long latency, long count) {
-        Long val = latencies.get(latency);
-        if (val == null) {
-            val = 0L;
-            hashMapBytesCount += incBytes;
-        }
-        latencies.put(latency, val + count);
+        latencies.add(latency, count);
     }
 
     /**
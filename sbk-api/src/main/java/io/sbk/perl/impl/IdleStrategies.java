@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.perl.IdleStrategy;
+import io.sbk.perl.IdleStrategyType;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Factory of the Idle Strategies.
+ */
+final public class IdleStrategies {
+
+    /**
+     * Create the Idle Strategy.
+     *
+     * @param type      idle strategy type; if null, then the consumer thread is parked.
+     * @param maxIdleNS maximum idle time in nanoseconds of a single wait
+     * @return new Idle Strategy
+     */
+    public static @NotNull IdleStrategy create(IdleStrategyType type, long maxIdleNS) {
+        if (type == null) {
+            return new ParkIdleStrategy(maxIdleNS);
+        }
+        return switch (type) {
+            case spin -> new SpinIdleStrategy();
+            case yield -> new YieldIdleStrategy();
+            case backoff -> new BackoffIdleStrategy(maxIdleNS);
+            case block -> new BlockingIdleStrategy(maxIdleNS);
+            default -> new ParkIdleStrategy(maxIdleNS);
+        };
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.ReportLatencies;
+import io.sbk.time.Time;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * class for Performance statistics using log linear buckets.
+ * The latencies less than 2 * subBucketHalfCount are recorded exactly; above that, every power of 2 range
+ * is split into subBucketHalfCount linear sub buckets, so that the relative error of a recorded latency
+ * is bounded by the given number of significant digits, and the memory size does not depend on the
+ * latency range.
+ */
+@NotThreadSafe
+final public class LogLinearLatencyRecorder extends LatencyRecordWindow {
+    final private static int MIN_DIGITS = 1;
+    final private static int MAX_DIGITS = 5;
+    final private long[] counts;
+    final private long maxValue;
+    final private int subBucketHalfCountMagnitude;
+    final private long subBucketCount;
+    final private long maxMemorySizeBytes;
+    private int minIndex;
+    private int maxIndex;
+
+    public LogLinearLatencyRecorder(long lowLatency, long highLatency, long totalLatencyMax, long totalRecordsMax,
+                                    long bytesMax, double[] percentiles, Time time, int significantDigits) {
+        super(lowLatency, highLatency, totalLatencyMax, totalRecordsMax, bytesMax, percentiles, time);
+        final int digits = Math.min(MAX_DIGITS, Math.max(MIN_DIGITS, significantDigits));
+        final long largestExactValue = 2 * (long) Math.pow(10, digits);
+        final int subBucketCountMagnitude = Long.SIZE - Long.numberOfLeadingZeros(largestExactValue - 1);
+        this.subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+        this.subBucketCount = 1L << subBucketCountMagnitude;
+        this.maxValue = highLatency - lowLatency;
+        this.counts = new long[getIndex(maxValue) + 1];
+        this.maxMemorySizeBytes = (long) PerlConfig.LATENCY_VALUE_SIZE_BYTES * counts.length;
+        this.minIndex = counts.length;
+        this.maxIndex = 0;
+    }
+
+    private int getIndex(long value) {
+        if (value < subBucketCount) {
+            return (int) value;
+        }
+        final int bucket = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - subBucketHalfCountMagnitude;
+        return (int) (((long) bucket << subBucketHalfCountMagnitude) + (value >>> bucket));
+    }
+
+    private long getHighestValue(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        final int bucket = (index >>> subBucketHalfCountMagnitude) - 1;
+        final long subBucket = index - ((long) bucket << subBucketHalfCountMagnitude);
+        return Math.min(((subBucket + 1) << bucket) - 1, maxValue);
+    }
+
+    @Override
+    public void reset(long startTime) {
+        super.reset(startTime);
+        this.maxIndex = 0;
+        this.minIndex = Integer.MAX_VALUE;
+    }
+
+
+    @Override
+    public void copyPercentiles(LatencyPercentiles percentiles, ReportLatencies copyLatencies) {
+        if (copyLatencies != null) {
+            copyLatencies.reportLatencyRecord(this);
+        }
+        percentiles.reset(validLatencyRecords);
+        long curIndex = 0;
+        for (int i = minIndex; i < Math.min(counts.length, this.maxIndex + 1); i++) {
+            if (counts[i] > 0) {
+                final long latency = getHighestValue(i) + lowLatency;
+                final long count = counts[i];
+                final long nextIndex = curIndex + count;
+
+                if (copyLatencies != null) {
+                    copyLatencies.reportLatency(latency, count);
+                }
+                percentiles.copyLatency(latency, count, curIndex, nextIndex);
+                curIndex = nextIndex;
+                counts[i] = 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isFull() {
+        return super.isOverflow();
+    }
+
+    @Override
+    public long getMaxMemoryBytes() {
+        return this.maxMemorySizeBytes;
+    }
+
+    @Override
+    public void reportLatencyRecord(LatencyRecord record) {
+        super.update(record);
+    }
+
+
+    @Override
+    public void reportLatency(long latency, long count) {
+        final long value = latency - this.lowLatency;
+        if (value >= 0 && value <= this.maxValue) {
+            final int index = getIndex(value);
+            this.minIndex = Math.min(this.minIndex, index);
+            this.maxIndex = Math.max(this.maxIndex, index);
+            this.counts[index] += count;
+        }
+    }
+
+
+    /**
+     * Record the latency.
+     *
+     * @param startTime start time.
+     * @param bytes     number of bytes.
+     * @param events    number of events(records).
+     * @param latency   latency value in milliseconds.
+     */
+    @Override
+    public void recordLatency(long startTime, int bytes, int events, long latency) {
+        if (record(bytes, events, latency)) {
+            reportLatency(latency, events);
+        }
+    }
+
+}
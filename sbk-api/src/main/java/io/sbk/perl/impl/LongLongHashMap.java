@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+/**
+ * Open addressing hash map of primitive long keys to long counts.
+ * Uses linear probing on power of 2 sized arrays; a slot with zero count is free,
+ * so the zero counts are never stored and there is no boxing of keys or values.
+ */
+@NotThreadSafe
+final public class LongLongHashMap {
+    final public static int ENTRY_BYTES = PerlConfig.LATENCY_VALUE_SIZE_BYTES * 2;
+    final private static int MIN_CAPACITY = 16;
+    final private static double LOAD_FACTOR = 0.75;
+    final private static long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int shift;
+    private int threshold;
+    private int size;
+
+    public LongLongHashMap(int initialCapacity) {
+        allocate(1 << (Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(MIN_CAPACITY, initialCapacity) - 1)));
+        this.size = 0;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        this.mask = capacity - 1;
+        this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int index(long key) {
+        return (int) ((key * HASH_MULTIPLIER) >>> shift);
+    }
+
+    /**
+     * Add the count to the key.
+     *
+     * @param key   key
+     * @param count count to add; zero counts are ignored
+     */
+    public void add(long key, long count) {
+        if (count == 0) {
+            return;
+        }
+        int idx = index(key);
+        while (values[idx] != 0) {
+            if (keys[idx] == key) {
+                values[idx] += count;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = count;
+        if (++size > threshold) {
+            resize();
+        }
+    }
+
+    /**
+     * Get the count of the key.
+     *
+     * @param key key
+     * @return count of the key; 0 if the key is not present.
+     */
+    public long get(long key) {
+        int idx = index(key);
+        while (values[idx] != 0) {
+            if (keys[idx] == key) {
+                return values[idx];
+            }
+            idx = (idx + 1) & mask;
+        }
+        return 0;
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != 0) {
+                int idx = index(oldKeys[i]);
+                while (values[idx] != 0) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = oldKeys[i];
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Get the keys in ascending order.
+     *
+     * @return array of sorted keys.
+     */
+    public long[] sortedKeys() {
+        final long[] sorted = new long[size];
+        int cnt = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != 0) {
+                sorted[cnt++] = keys[i];
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Remove all the keys; the allocated memory is retained.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(values, 0);
+            size = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Memory allocated for the keys and counts.
+     *
+     * @return memory size in bytes.
+     */
+    public long memoryBytes() {
+        return (long) keys.length * ENTRY_BYTES;
+    }
+
+    /**
+     * Is the map full for the given memory limit.
+     * The map is full if the current memory exceeds the limit, or if the next new key would
+     * resize the map beyond the limit.
+     *
+     * @param maxMemoryBytes memory limit in bytes.
+     * @return true if the map is full.
+     */
+    public boolean isFull(long maxMemoryBytes) {
+        final long bytes = memoryBytes();
+        return bytes > maxMemoryBytes || (size >= threshold && bytes * 2 > maxMemoryBytes);
+    }
+}
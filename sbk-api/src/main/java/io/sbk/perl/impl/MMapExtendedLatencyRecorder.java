@@ -0,0 +1,354 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.LatencyRecorder;
+import io.sbk.perl.ReportLatencies;
+import io.sbk.system.Printer;
+import io.sbk.time.Time;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class for the total window latencies which spills the latency buffer to a memory mapped file.
+ * Every spill writes the sorted (latency, count) pairs of the latency buffer as fixed width binary
+ * values; this sorted run is merged with the other runs while copying the percentiles.
+ */
+final public class MMapExtendedLatencyRecorder extends LatencyRecordWindow {
+    final private LatencyRecordWindow latencyBuffer;
+    final private MMapLatencyReporter mmapReporter;
+    final private String fileName;
+
+    public MMapExtendedLatencyRecorder(long lowLatency, long highLatency, long totalLatencyMax, long totalRecordsMax,
+                                       long bytesMax, double[] percentilesFractions, Time time,
+                                       LatencyRecordWindow latencyBuffer, int fileSizeGB, String fileName) {
+        super(lowLatency, highLatency, totalLatencyMax, totalRecordsMax, bytesMax, percentilesFractions, time);
+        this.latencyBuffer = latencyBuffer;
+        this.fileName = fileName;
+        this.mmapReporter = new MMapLatencyReporter(this, fileSizeGB, fileName);
+    }
+
+    private void spillBuffer() {
+        mmapReporter.startRun();
+        latencyBuffer.copyPercentiles(percentiles, mmapReporter);
+        latencyBuffer.reset();
+        mmapReporter.endRun();
+    }
+
+    private void checkBufferFull() {
+        if (latencyBuffer.isFull()) {
+            spillBuffer();
+        }
+    }
+
+    @Override
+    public void reset(long startTime) {
+        super.reset(startTime);
+        latencyBuffer.reset(startTime);
+        mmapReporter.reset();
+    }
+
+    @Override
+    public void reportLatencyRecord(LatencyRecord record) {
+        latencyBuffer.reportLatencyRecord(record);
+        checkBufferFull();
+    }
+
+    @Override
+    public void reportLatency(long latency, long count) {
+        latencyBuffer.reportLatency(latency, count);
+        checkBufferFull();
+    }
+
+    @Override
+    public void recordLatency(long startTime, int bytes, int events, long latency) {
+        latencyBuffer.recordLatency(startTime, bytes, events, latency);
+        checkBufferFull();
+    }
+
+    @Override
+    public void copyPercentiles(LatencyPercentiles percentiles, ReportLatencies reportLatencies) {
+        if (mmapReporter.runsCount() == 0 && !mmapReporter.hasDroppedRecords()) {
+            latencyBuffer.copyPercentiles(percentiles, reportLatencies);
+            // Update the current Window values to print
+            super.reset();
+            super.update(latencyBuffer);
+            latencyBuffer.reset();
+            return;
+        }
+        if (latencyBuffer.getTotalRecords() > 0) {
+            spillBuffer();
+        }
+        final long droppedRecords = mmapReporter.takeDroppedRecords();
+        if (droppedRecords > 0) {
+            Printer.log.warn("Memory mapped file: " + fileName + " , dropped " + droppedRecords
+                    + " latency records which could not be stored");
+            validLatencyRecords -= droppedRecords;
+            invalidLatencyRecords += droppedRecords;
+        }
+        if (reportLatencies != null) {
+            reportLatencies.reportLatencyRecord(this);
+        }
+        percentiles.reset(validLatencyRecords);
+        mmapReporter.mergeRuns(percentiles, reportLatencies);
+    }
+
+    @Override
+    final public boolean isFull() {
+        return mmapReporter.isFull() || super.isOverflow();
+    }
+
+    @Override
+    final public long getMaxMemoryBytes() {
+        return mmapReporter.getMaxMemoryBytes();
+    }
+
+    private static class MMapLatencyReporter implements ReportLatencies {
+        final private static int ENTRY_BYTES = PerlConfig.LATENCY_VALUE_SIZE_BYTES * 2;
+        final private static int SEGMENT_BYTES = 1 << 27;
+        final private static int SEGMENT_ENTRIES = SEGMENT_BYTES / ENTRY_BYTES;
+
+        final private LatencyRecorder recorder;
+        final private String fileName;
+        final private long maxFileSizeBytes;
+        final private List<MappedByteBuffer> segments;
+        final private List<long[]> runs;
+        private FileChannel fileChannel;
+        private long entries;
+        private long runStart;
+        private long droppedRecords;
+        private boolean mapFailed;
+
+        public MMapLatencyReporter(LatencyRecorder recorder, int fileSizeGB, String fileName) {
+            this.recorder = recorder;
+            this.fileName = fileName;
+            this.maxFileSizeBytes = fileSizeGB * PerlConfig.BYTES_PER_GB;
+            this.segments = new ArrayList<>();
+            this.runs = new ArrayList<>();
+            this.fileChannel = null;
+            this.entries = 0;
+            this.runStart = 0;
+            this.droppedRecords = 0;
+            this.mapFailed = false;
+        }
+
+        @Override
+        public void reportLatencyRecord(LatencyRecord record) {
+            recorder.update(record);
+        }
+
+        @Override
+        public void reportLatency(long latency, long count) {
+            final int segment = (int) (entries / SEGMENT_ENTRIES);
+            if (segment >= segments.size() && !mapSegment()) {
+                droppedRecords += count;
+                return;
+            }
+            final int offset = (int) (entries % SEGMENT_ENTRIES) * ENTRY_BYTES;
+            final MappedByteBuffer buffer = segments.get(segment);
+            buffer.putLong(offset, latency);
+            buffer.putLong(offset + PerlConfig.LATENCY_VALUE_SIZE_BYTES, count);
+            entries++;
+        }
+
+        private boolean mapSegment() {
+            if (mapFailed) {
+                return false;
+            }
+            try {
+                if (fileChannel == null) {
+                    deleteFile();
+                    Printer.log.info("Creating memory mapped file: " + fileName + " ...");
+                    fileChannel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE,
+                            StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                }
+                segments.add(fileChannel.map(FileChannel.MapMode.READ_WRITE,
+                        (long) segments.size() * SEGMENT_BYTES, SEGMENT_BYTES));
+                return true;
+            } catch (IOException ex) {
+                Printer.log.warn("Memory mapped file: " + fileName + " , mapping failed, latencies are dropped: " + ex);
+                mapFailed = true;
+                return false;
+            }
+        }
+
+        boolean hasDroppedRecords() {
+            return droppedRecords > 0;
+        }
+
+        long takeDroppedRecords() {
+            final long ret = droppedRecords;
+            droppedRecords = 0;
+            return ret;
+        }
+
+        private long getLatency(long index) {
+            return segments.get((int) (index / SEGMENT_ENTRIES))
+                    .getLong((int) (index % SEGMENT_ENTRIES) * ENTRY_BYTES);
+        }
+
+        private long getCount(long index) {
+            return segments.get((int) (index / SEGMENT_ENTRIES))
+                    .getLong((int) (index % SEGMENT_ENTRIES) * ENTRY_BYTES + PerlConfig.LATENCY_VALUE_SIZE_BYTES);
+        }
+
+        void startRun() {
+            runStart = entries;
+        }
+
+        void endRun() {
+            if (entries > runStart) {
+                runs.add(new long[]{runStart, entries});
+            }
+        }
+
+        int runsCount() {
+            return runs.size();
+        }
+
+        /**
+         * Merge the sorted runs and copy the latencies in ascending order.
+         * The runs are consumed; only the current position of each run is kept in a min heap.
+         *
+         * @param percentiles     Copy Percentiles
+         * @param reportLatencies Copy Latency records.
+         */
+        void mergeRuns(LatencyPercentiles percentiles, ReportLatencies reportLatencies) {
+            Printer.log.info("Merging " + runs.size() + " sorted runs of memory mapped file: " + fileName + " ...");
+            final int runsCnt = runs.size();
+            final long[] positions = new long[runsCnt];
+            final long[] ends = new long[runsCnt];
+            final long[] heapLatencies = new long[runsCnt];
+            final int[] heap = new int[runsCnt];
+            int heapSize = 0;
+
+            for (int i = 0; i < runsCnt; i++) {
+                positions[i] = runs.get(i)[0];
+                ends[i] = runs.get(i)[1];
+                heapLatencies[i] = getLatency(positions[i]);
+                heap[heapSize] = i;
+                siftUp(heap, heapLatencies, heapSize++);
+            }
+
+            long curIndex = 0;
+            while (heapSize > 0) {
+                final long latency = heapLatencies[heap[0]];
+                long count = 0;
+                while (heapSize > 0 && heapLatencies[heap[0]] == latency) {
+                    final int run = heap[0];
+                    count += getCount(positions[run]);
+                    positions[run]++;
+                    if (positions[run] < ends[run]) {
+                        heapLatencies[run] = getLatency(positions[run]);
+                    } else {
+                        heap[0] = heap[--heapSize];
+                    }
+                    siftDown(heap, heapLatencies, heapSize);
+                }
+                final long nextIndex = curIndex + count;
+                if (reportLatencies != null) {
+                    reportLatencies.reportLatency(latency, count);
+                }
+                percentiles.copyLatency(latency, count, curIndex, nextIndex);
+                curIndex = nextIndex;
+            }
+            runs.clear();
+            entries = 0;
+        }
+
+        private static void siftUp(int[] heap, long[] keys, int index) {
+            final int run = heap[index];
+            while (index > 0) {
+                final int parent = (index - 1) >> 1;
+                if (keys[heap[parent]] <= keys[run]) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = run;
+        }
+
+        private static void siftDown(int[] heap, long[] keys, int size) {
+            if (size == 0) {
+                return;
+            }
+            final int run = heap[0];
+            int index = 0;
+            while (true) {
+                int child = (index << 1) + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                    child++;
+                }
+                if (keys[run] <= keys[heap[child]]) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = run;
+        }
+
+        private void deleteFile() {
+            Path fileToDeletePath = Paths.get(fileName);
+            if (!Files.exists(fileToDeletePath)) {
+                return;
+            }
+            Printer.log.info("Deleting memory mapped file: " + fileName + " ...");
+            try {
+                Files.delete(fileToDeletePath);
+            } catch (IOException ex) {
+                Printer.log.warn("Deleting memory mapped file: " + fileName + " failed: " + ex);
+            }
+        }
+
+        public boolean isFull() {
+            return (entries + 1) * ENTRY_BYTES >= maxFileSizeBytes;
+        }
+
+        public long getMaxMemoryBytes() {
+            return maxFileSizeBytes;
+        }
+
+        public void reset() {
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                fileChannel = null;
+            }
+            segments.clear();
+            runs.clear();
+            deleteFile();
+            entries = 0;
+            runStart = 0;
+            droppedRecords = 0;
+            mapFailed = false;
+        }
+    }
+
+}
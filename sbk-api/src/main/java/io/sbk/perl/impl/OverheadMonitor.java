@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.Channel;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.TimeStamp;
+import io.sbk.time.Time;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Class for measuring the overhead of the benchmark harness.
+ * The time spent in the send channels is sampled once every {@link OverheadMonitor#SAMPLE_INTERVAL} sends of
+ * every Writer/Reader, and the delivery delay once every {@link OverheadMonitor#SAMPLE_INTERVAL} benchmark data
+ * consumed by the performance logger; so that the measurement itself does not add a clock read to every
+ * benchmarked operation. Every Writer/Reader counts its sends in its own send channel wrapper, so that the
+ * Writers/Readers do not share a counter; the counts are summed at every report.
+ * Only the send channel wrappers are thread safe; the other methods are invoked by the performance logger thread.
+ */
+final class OverheadMonitor {
+    final private static int SAMPLE_INTERVAL = 64;
+    final private static int SAMPLE_MASK = SAMPLE_INTERVAL - 1;
+
+    final private ReportOverhead reporter;
+    final private Time time;
+    final private boolean delivery;
+    final private List<TimedChannel> timedChannels;
+    final private LongAdder sampledSends;
+    final private LongAdder sendNS;
+    final private LongAccumulator maxSendNS;
+    private long sendsMark;
+    private long received;
+    private long polls;
+    private long emptyPolls;
+    private long idleNS;
+    private long delaySamples;
+    private long delaySum;
+    private long maxDelay;
+    private long windowStartNS;
+
+    /**
+     * Create the Overhead Monitor.
+     *
+     * @param reporter reporter of the harness overhead
+     * @param time     time interface of the benchmark data
+     * @param delivery true if the benchmark data is delivered to the performance logger through the channels;
+     *                 if false, the backlog and delivery delay are not measured.
+     */
+    OverheadMonitor(ReportOverhead reporter, Time time, boolean delivery) {
+        this.reporter = reporter;
+        this.time = time;
+        this.delivery = delivery;
+        this.timedChannels = new CopyOnWriteArrayList<>();
+        this.sampledSends = new LongAdder();
+        this.sendNS = new LongAdder();
+        this.maxSendNS = new LongAccumulator(Math::max, 0);
+        this.windowStartNS = System.nanoTime();
+    }
+
+    /**
+     * Wrap the channel to measure the time spent in the send method.
+     *
+     * @param channel channel to wrap
+     * @return send channel for a Writer/Reader
+     */
+    Channel wrap(Channel channel) {
+        final TimedChannel timedChannel = new TimedChannel(channel);
+        timedChannels.add(timedChannel);
+        return timedChannel;
+    }
+
+    /**
+     * Record the consumption of the benchmark data by the performance logger.
+     *
+     * @param endTime end time of the benchmark data
+     */
+    void received(long endTime) {
+        polls++;
+        if ((++received & SAMPLE_MASK) == 0) {
+            final long delay = time.elapsed(time.getCurrentTime(), endTime);
+            delaySamples++;
+            delaySum += delay;
+            maxDelay = Math.max(maxDelay, delay);
+        }
+    }
+
+    /**
+     * Invoke the idle wait of the performance logger and measure the idle time.
+     *
+     * @param idleCounter idle counter of the performance logger
+     * @return the result of {@link ElasticWaitCounter#waitAndCheck()}
+     */
+    boolean waitAndCheck(ElasticWaitCounter idleCounter) {
+        final long startNS = System.nanoTime();
+        final boolean ret = idleCounter.waitAndCheck();
+        idleNS += System.nanoTime() - startNS;
+        polls++;
+        emptyPolls++;
+        return ret;
+    }
+
+    /**
+     * Park the performance logger and measure the idle time.
+     *
+     * @param nanos nanoseconds to park
+     */
+    void park(long nanos) {
+        final long startNS = System.nanoTime();
+        LockSupport.parkNanos(nanos);
+        idleNS += System.nanoTime() - startNS;
+        polls++;
+        emptyPolls++;
+    }
+
+    /**
+     * Report the harness overhead since the last report and start a new window.
+     */
+    void report() {
+        final long nowNS = System.nanoTime();
+        final long elapsedNS = Math.max(1, nowNS - windowStartNS);
+        long totalSends = 0;
+        for (TimedChannel timedChannel : timedChannels) {
+            totalSends += timedChannel.count.get();
+        }
+        final long sampled = sampledSends.sumThenReset();
+        final long sampledNS = sendNS.sumThenReset();
+        final long maxNS = maxSendNS.getThenReset();
+        final long backlog = delivery ? Math.max(0, totalSends - received) : 0;
+        reporter.reportOverhead((elapsedNS * 1.0) / PerlConfig.NS_PER_SEC, totalSends - sendsMark,
+                sampled > 0 ? (sampledNS * 1.0) / sampled : 0, maxNS,
+                (Math.max(0, elapsedNS - idleNS) * 100.0) / elapsedNS,
+                polls > 0 ? (emptyPolls * 1.0) / polls : 0, backlog,
+                delaySamples > 0 ? time.convertToNanoSeconds((delaySum * 1.0) / delaySamples) : 0,
+                (long) time.convertToNanoSeconds(maxDelay));
+        sendsMark = totalSends;
+        polls = 0;
+        emptyPolls = 0;
+        idleNS = 0;
+        delaySamples = 0;
+        delaySum = 0;
+        maxDelay = 0;
+        windowStartNS = nowNS;
+    }
+
+
+    final private class TimedChannel implements Channel {
+        final private Channel channel;
+        final private AtomicLong count;
+
+        TimedChannel(Channel channel) {
+            this.channel = channel;
+            this.count = new AtomicLong(0);
+        }
+
+        @Override
+        public TimeStamp receive(int timeout) {
+            return null;
+        }
+
+        @Override
+        public void sendEndTime(long endTime) {
+
+        }
+
+        @Override
+        public void clear() {
+
+        }
+
+        /* This Method is Thread Safe; the asynchronous completions of a Writer/Reader may send concurrently */
+        @Override
+        public void send(int id, long startTime, long endTime, int dataSize, int records) {
+            if ((count.incrementAndGet() & SAMPLE_MASK) != 0) {
+                channel.send(id, startTime, endTime, dataSize, records);
+                return;
+            }
+            final long startNS = System.nanoTime();
+            channel.send(id, startTime, endTime, dataSize, records);
+            final long ns = System.nanoTime() - startNS;
+            sampledSends.increment();
+            sendNS.add(ns);
+            maxSendNS.accumulate(ns);
+        }
+
+        @Override
+        public void sendException(int id, Throwable ex) {
+            channel.sendException(id, ex);
+        }
+    }
+}
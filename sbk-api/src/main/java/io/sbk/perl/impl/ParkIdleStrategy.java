@@ -0,0 +1,30 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.perl.IdleStrategy;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle Strategy which parks the consumer thread for the fixed idle time.
+ */
+final public class ParkIdleStrategy implements IdleStrategy {
+    final private long idleNS;
+
+    public ParkIdleStrategy(long idleNS) {
+        this.idleNS = idleNS;
+    }
+
+    @Override
+    public void idle() {
+        LockSupport.parkNanos(idleNS);
+    }
+}
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.Channel;
+import io.sbk.perl.IdleStrategy;
+import io.sbk.perl.PeriodicRecorder;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.RingFullPolicy;
+import io.sbk.perl.TimeStamp;
+import io.sbk.system.Printer;
+import io.sbk.time.Time;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Class for Performance statistics using pre-allocated ring buffers.
+ * The benchmark data is written into primitive arrays, so there is no object allocation
+ * per benchmarked operation in the writers/readers and no garbage for the performance logger.
+ */
+final public class RingBufferPerformance extends AbstractPerformance {
+    final private static int MIN_RING_SIZE = 2;
+
+    public RingBufferPerformance(@NotNull PerlConfig perlConfig, int workers, PeriodicRecorder periodicLogger,
+                                 int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor,
+                                 ReportOverhead overheadReporter) {
+        super(perlConfig, perlConfig.maxQs > 0 ? 1 : workers, periodicLogger, reportingIntervalMS, timeoutMS,
+                time, executor, overheadReporter, true);
+        final int maxQs = perlConfig.maxQs > 0 ?
+                perlConfig.maxQs : Math.max(PerlConfig.MIN_Q_PER_WORKER, perlConfig.qPerWorker);
+        final int ringSize = 1 << (Integer.SIZE - Integer.numberOfLeadingZeros(
+                Math.max(MIN_RING_SIZE, perlConfig.ringSize) - 1));
+        final RingFullPolicy fullPolicy = perlConfig.ringFull == null ? RingFullPolicy.park : perlConfig.ringFull;
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new RingBufferChannel(maxQs, ringSize, fullPolicy, idleStrategy, new OnError());
+        }
+        Printer.log.info("Performance Channels: Ring Buffers, Size: " + ringSize + ", Full Policy: " + fullPolicy);
+    }
+
+
+    @Override
+    protected void runPerformance(final long secondsToRun, final long totalRecords) {
+        final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
+        final ElasticWaitCounter idleCounter = new ElasticWaitCounter(windowIntervalMS, timeoutMS, idleNS,
+                idleStrategy);
+        final long startTime = time.getCurrentTime();
+        Printer.log.info("Performance Logger Started");
+        periodicLogger.start(startTime);
+        periodicLogger.startWindow(startTime);
+        try {
+            consume(startTime, msToRun, totalRecords, idleCounter);
+        } finally {
+            /* nothing drains the ring buffers anymore; the writers/readers must not wait for the free slots */
+            for (Channel channel : channels) {
+                ((RingBufferChannel) channel).close();
+            }
+        }
+    }
+
+    private void consume(final long startTime, final long msToRun, final long totalRecords,
+                         final ElasticWaitCounter idleCounter) {
+        boolean doWork = true;
+        long ctime = startTime;
+        long recordsCnt = 0;
+        boolean notFound;
+        RingBufferChannel ch;
+        while (doWork) {
+            notFound = true;
+            for (int i = 0; doWork && (i < channels.length); i++) {
+                ch = (RingBufferChannel) channels[i];
+                if (ch.poll()) {
+                    notFound = false;
+                    ctime = ch.endTime;
+                    if (ch.isEnd()) {
+                        doWork = false;
+                    } else {
+                        recordsCnt += ch.records;
+                        if (overhead != null) {
+                            overhead.received(ch.endTime);
+                        }
+                        periodicLogger.record(ch.startTime, ch.endTime, ch.bytes, ch.records);
+                        if (msToRun > 0) {
+                            if (time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
+                                doWork = false;
+                            }
+                        } else if (totalRecords > 0 && recordsCnt >= totalRecords) {
+                            doWork = false;
+                        }
+                    }
+                    if (periodicLogger.elapsedMilliSecondsWindow(ctime) > windowIntervalMS) {
+                        periodicLogger.stopWindow(ctime);
+                        reportOverhead();
+                        periodicLogger.startWindow(ctime);
+                        idleCounter.reset();
+                        checkRingsFull();
+                    }
+                }
+            }
+            if (doWork) {
+                if (notFound) {
+                    if (overhead != null ? overhead.waitAndCheck(idleCounter) : idleCounter.waitAndCheck()) {
+                        ctime = time.getCurrentTime();
+                        final long diffTime = periodicLogger.elapsedMilliSecondsWindow(ctime);
+                        if (diffTime > windowIntervalMS) {
+                            periodicLogger.stopWindow(ctime);
+                            reportOverhead();
+                            periodicLogger.startWindow(ctime);
+                            idleCounter.reset();
+                            idleCounter.setElastic(diffTime);
+                            checkRingsFull();
+                        } else {
+                            idleCounter.updateElastic(diffTime);
+                        }
+                    }
+                } else {
+                    idleStrategy.reset();
+                }
+                if (msToRun > 0 && time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
+                    doWork = false;
+                }
+            }
+        }
+        periodicLogger.stop(ctime);
+        reportOverhead();
+        checkRingsFull();
+    }
+
+    /**
+     * Log the number of times the writers/readers found the ring buffers full since the last check.
+     */
+    private void checkRingsFull() {
+        long fullCnt = 0;
+        long dropCnt = 0;
+        for (Channel channel : channels) {
+            final RingBufferChannel ch = (RingBufferChannel) channel;
+            fullCnt += ch.fullCount.sumThenReset();
+            dropCnt += ch.dropCount.sumThenReset();
+        }
+        if (fullCnt > 0) {
+            Printer.log.warn("Performance Channels: Ring Buffers full " + fullCnt + " times, " +
+                    "dropped benchmark data of " + dropCnt + " operations");
+        }
+    }
+
+
+    /**
+     * Bounded ring buffer of the benchmark data with multiple producers and single consumer.
+     * Each slot carries a sequence number which is published after the slot data is written,
+     * so that the consumer reads the slot data without any locks or allocations.
+     */
+    static final class RingBuffer {
+        final private int mask;
+        final private long[] startTimes;
+        final private long[] endTimes;
+        final private int[] bytes;
+        final private int[] records;
+        final private AtomicLongArray sequences;
+        final private AtomicLong tail;
+        private long head;
+
+        RingBuffer(int size) {
+            this.mask = size - 1;
+            this.startTimes = new long[size];
+            this.endTimes = new long[size];
+            this.bytes = new int[size];
+            this.records = new int[size];
+            this.sequences = new AtomicLongArray(size);
+            this.tail = new AtomicLong(0);
+            this.head = 0;
+            for (int i = 0; i < size; i++) {
+                sequences.set(i, i);
+            }
+        }
+
+        /* This Method is Thread Safe */
+        boolean offer(long startTime, long endTime, int size, int recordsCnt) {
+            long pos = tail.get();
+            while (true) {
+                final int idx = (int) (pos & mask);
+                final long diff = sequences.get(idx) - pos;
+                if (diff == 0) {
+                    if (tail.compareAndSet(pos, pos + 1)) {
+                        startTimes[idx] = startTime;
+                        endTimes[idx] = endTime;
+                        bytes[idx] = size;
+                        records[idx] = recordsCnt;
+                        sequences.lazySet(idx, pos + 1);
+                        return true;
+                    }
+                    pos = tail.get();
+                } else if (diff < 0) {
+                    return false;
+                } else {
+                    pos = tail.get();
+                }
+            }
+        }
+
+        /**
+         * Move the consumer to the next slot, if the data is published.
+         *
+         * @param ch channel to which slot data is copied.
+         * @return true if the slot data is copied.
+         */
+        boolean poll(RingBufferChannel ch) {
+            final int idx = (int) (head & mask);
+            if (sequences.get(idx) != head + 1) {
+                return false;
+            }
+            ch.startTime = startTimes[idx];
+            ch.endTime = endTimes[idx];
+            ch.bytes = bytes[idx];
+            ch.records = records[idx];
+            sequences.lazySet(idx, head + mask + 1);
+            head++;
+            return true;
+        }
+
+        void clear(RingBufferChannel ch) {
+            boolean polled;
+            do {
+                polled = poll(ch);
+            } while (polled);
+        }
+    }
+
+
+    @NotThreadSafe
+    static final class RingBufferChannel implements Channel {
+        final private RingBuffer[] rings;
+        final private RingFullPolicy fullPolicy;
+        final private Throw eThrow;
+        final private LongAdder fullCount;
+        final private LongAdder dropCount;
+        final private IdleStrategy idleStrategy;
+        private volatile long endTimeMark;
+        private volatile boolean end;
+        private volatile boolean closed;
+        private int index;
+
+        /* slot data of the last poll */
+        private long startTime;
+        private long endTime;
+        private int bytes;
+        private int records;
+
+        public RingBufferChannel(int qSize, int ringSize, RingFullPolicy fullPolicy, IdleStrategy idleStrategy,
+                                 Throw eThrow) {
+            this.index = qSize;
+            this.fullPolicy = fullPolicy;
+            this.idleStrategy = idleStrategy;
+            this.eThrow = eThrow;
+            this.fullCount = new LongAdder();
+            this.dropCount = new LongAdder();
+            this.end = false;
+            this.closed = false;
+            this.rings = new RingBuffer[qSize];
+            for (int i = 0; i < rings.length; i++) {
+                rings[i] = new RingBuffer(ringSize);
+            }
+        }
+
+        /**
+         * Poll the ring buffers in round-robin order.
+         *
+         * @return true if the benchmark data or end time indication is copied to this channel.
+         */
+        boolean poll() {
+            if (end) {
+                startTime = -1;
+                endTime = endTimeMark;
+                bytes = 0;
+                records = 0;
+                return true;
+            }
+            for (int i = 0; i < rings.length; i++) {
+                index += 1;
+                if (index >= rings.length) {
+                    index = 0;
+                }
+                if (rings[index].poll(this)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isEnd() {
+            return startTime == -1;
+        }
+
+        public TimeStamp receive(int timeout) {
+            if (!poll()) {
+                return null;
+            }
+            return isEnd() ? new TimeStamp(endTime) : new TimeStamp(startTime, endTime, bytes, records);
+        }
+
+        public void sendEndTime(long endTime) {
+            endTimeMark = endTime;
+            end = true;
+            idleStrategy.signal();
+        }
+
+        public void clear() {
+            for (RingBuffer ring : rings) {
+                ring.clear(this);
+            }
+            end = false;
+        }
+
+        /**
+         * Close the channel, once the performance logger stops reading it; the writers/readers which find
+         * the ring buffer full drop the benchmark data instead of waiting for the free slots.
+         */
+        void close() {
+            closed = true;
+        }
+
+        /* This Method is Thread Safe */
+        public void send(int id, long startTime, long endTime, int bytes, int records) {
+            final RingBuffer ring = rings[id];
+            if (ring.offer(startTime, endTime, bytes, records)) {
+                idleStrategy.signal();
+                return;
+            }
+            fullCount.increment();
+            switch (fullPolicy) {
+                case spin -> {
+                    while (!ring.offer(startTime, endTime, bytes, records)) {
+                        if (closed) {
+                            dropCount.increment();
+                            return;
+                        }
+                        Thread.onSpinWait();
+                    }
+                    idleStrategy.signal();
+                }
+                case park -> {
+                    while (!ring.offer(startTime, endTime, bytes, records)) {
+                        if (closed) {
+                            dropCount.increment();
+                            return;
+                        }
+                        LockSupport.parkNanos(PerlConfig.MIN_IDLE_NS);
+                    }
+                    idleStrategy.signal();
+                }
+                default -> dropCount.increment();
+            }
+        }
+
+        public void sendException(int id, Throwable ex) {
+            eThrow.onException(ex);
+        }
+    }
+}
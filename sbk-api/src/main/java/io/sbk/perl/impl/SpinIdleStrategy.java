@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.perl.IdleStrategy;
+
+/**
+ * Idle Strategy which busy spins; the lowest delivery latency, but it occupies a CPU core.
+ */
+final public class SpinIdleStrategy implements IdleStrategy {
+
+    @Override
+    public void idle() {
+        Thread.onSpinWait();
+    }
+}
@@ -10,15 +10,25 @@
 
 package io.sbk.perl.impl;
 
+import io.sbk.config.PerlConfig;
 import io.sbk.perl.LatencyRecordWindow;
 import io.sbk.perl.Print;
+import io.sbk.perl.ReportWindowIndex;
 import io.sbk.perl.TotalPeriodicWindow;
+import io.sbk.perl.WindowStats;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class TotalLatencyRecordWindow implements TotalPeriodicWindow {
     final protected LatencyRecordWindow window;
     final protected LatencyRecordWindow totalWindow;
     final protected Print windowLogger;
     final protected Print totalLogger;
+    final private List<WindowStats> windowStats;
+    private int alignedWindowMS;
+    private ReportWindowIndex reportWindowIndex;
+    private long windowOffsetMS;
 
     public TotalLatencyRecordWindow(LatencyRecordWindow window, LatencyRecordWindow totalWindow,
                                     Print windowLogger, Print totalLogger) {
@@ -26,6 +36,35 @@ public class TotalLatencyRecordWindow implements TotalPeriodicWindow {
         this.totalWindow = totalWindow;
         this.windowLogger = windowLogger;
         this.totalLogger = totalLogger;
+        this.windowStats = new ArrayList<>();
+        this.alignedWindowMS = 0;
+        this.reportWindowIndex = null;
+        this.windowOffsetMS = 0;
+    }
+
+    /**
+     * Align the windows to the wall clock.
+     * The elapsed time of a window includes the wall clock time since the last multiple of the interval,
+     * so that every window ends on a multiple of the interval since the epoch, and the windows of the SBK
+     * instances on different hosts cover the same intervals; the first window is shorter than the interval.
+     * The index of every window is reported when the window is started.
+     *
+     * @param intervalMS        reporting interval in milliseconds; 0 disables the alignment.
+     * @param reportWindowIndex to report the index of every window.
+     */
+    public void setAlignedWindowMS(int intervalMS, ReportWindowIndex reportWindowIndex) {
+        this.alignedWindowMS = intervalMS;
+        this.reportWindowIndex = reportWindowIndex;
+    }
+
+    /**
+     * Add the statistics to report at the end of every window.
+     * The statistics must be added before the performance logger thread is started.
+     *
+     * @param stats window statistics
+     */
+    public void addWindowStats(WindowStats stats) {
+        windowStats.add(stats);
     }
 
     public void checkWindowFullAndReset(long currTime) {
@@ -45,15 +84,28 @@ public class TotalLatencyRecordWindow implements TotalPeriodicWindow {
     @Override
     public void startWindow(long startTime) {
         window.reset(startTime);
+        if (alignedWindowMS > 0) {
+            final long nowMS = System.currentTimeMillis();
+            windowOffsetMS = nowMS % alignedWindowMS;
+            reportWindowIndex.reportWindowIndex(nowMS / alignedWindowMS);
+        } else {
+            windowOffsetMS = 0;
+        }
     }
 
     @Override
     public long elapsedMilliSecondsWindow(long currentTime) {
-        return window.elapsedMilliSeconds(currentTime);
+        return window.elapsedMilliSeconds(currentTime) + windowOffsetMS;
     }
 
     @Override
     public void stopWindow(long stopTime) {
+        if (windowStats.size() > 0) {
+            final double seconds = window.elapsedMilliSeconds(stopTime) / (PerlConfig.MS_PER_SEC * 1.0);
+            for (WindowStats stats : windowStats) {
+                stats.reportWindow(seconds);
+            }
+        }
         window.print(stopTime, windowLogger, totalWindow);
         checkTotalWindowFullAndReset(stopTime);
     }
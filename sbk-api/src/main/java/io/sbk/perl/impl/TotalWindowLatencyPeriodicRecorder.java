@@ -10,21 +10,32 @@
 
 package io.sbk.perl.impl;
 
+import io.sbk.perl.LatencyRecord;
 import io.sbk.perl.LatencyRecordWindow;
-import io.sbk.perl.PeriodicRecorder;
+import io.sbk.perl.PeriodicLatencyRecorder;
 import io.sbk.perl.Print;
+import io.sbk.perl.ReportLatencies;
 import io.sbk.perl.ReportLatency;
 import io.sbk.time.Time;
 
-public final class TotalWindowLatencyPeriodicRecorder extends TotalWindowLatencyRecorder implements PeriodicRecorder {
+public final class TotalWindowLatencyPeriodicRecorder extends TotalWindowLatencyRecorder implements PeriodicLatencyRecorder {
     private final Time time;
     private final ReportLatency reportLatency;
+    private final ReportLatencies reportLatencies;
 
     public TotalWindowLatencyPeriodicRecorder(LatencyRecordWindow window, LatencyRecordWindow totalWindow,
                                               Print windowLogger, Print totalLogger,
                                               ReportLatency reportLatency, Time time) {
+        this(window, totalWindow, windowLogger, totalLogger, reportLatency, null, time);
+    }
+
+    public TotalWindowLatencyPeriodicRecorder(LatencyRecordWindow window, LatencyRecordWindow totalWindow,
+                                              Print windowLogger, Print totalLogger,
+                                              ReportLatency reportLatency, ReportLatencies reportLatencies,
+                                              Time time) {
         super(window, totalWindow, windowLogger, totalLogger);
         this.reportLatency = reportLatency;
+        this.reportLatencies = reportLatencies;
         this.time = time;
     }
 
@@ -34,4 +45,31 @@ public final class TotalWindowLatencyPeriodicRecorder extends TotalWindowLatency
         this.reportLatency.recordLatency(startTime, bytes, events, latency);
         recordLatency(startTime, bytes, events, latency);
     }
+
+    /**
+     * Merge the latency record of another window into the current window.
+     *
+     * @param record Latency Record
+     */
+    @Override
+    public void reportLatencyRecord(LatencyRecord record) {
+        window.reportLatencyRecord(record);
+        if (reportLatencies != null) {
+            reportLatencies.reportLatencyRecord(record);
+        }
+    }
+
+    /**
+     * Merge the latency values of another window into the current window.
+     *
+     * @param latency Latency value
+     * @param count   Number of times the latency value is observed
+     */
+    @Override
+    public void reportLatency(long latency, long count) {
+        window.reportLatency(latency, count);
+        if (reportLatencies != null) {
+            reportLatencies.reportLatency(latency, count);
+        }
+    }
 }
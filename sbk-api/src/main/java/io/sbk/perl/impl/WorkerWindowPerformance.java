@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.Channel;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.PeriodicLatencyRecorder;
+import io.sbk.perl.ReportOverhead;
+import io.sbk.perl.TimeStamp;
+import io.sbk.system.Printer;
+import io.sbk.time.Time;
+import lombok.Synchronized;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+
+/**
+ * Class for Performance statistics using per worker latency windows.
+ * Every Writer/Reader records the latencies into its own window, there is no queue between the
+ * workers and the performance logger. Each worker has two windows; at every reporting interval,
+ * the performance logger swaps the active window of each worker and merges the retired window into
+ * the periodic recorder, while the worker keeps recording into the other window.
+ */
+final public class WorkerWindowPerformance extends AbstractPerformance {
+    final private PeriodicLatencyRecorder latencyRecorder;
+    final private LatencyPercentiles percentiles;
+
+    public WorkerWindowPerformance(@NotNull PerlConfig perlConfig, int workers,
+                                   PeriodicLatencyRecorder latencyRecorder,
+                                   Supplier<LatencyRecordWindow> windowSupplier, double[] percentileFractions,
+                                   int reportingIntervalMS, int timeoutMS, Time time, ExecutorService executor,
+                                   ReportOverhead overheadReporter) {
+        super(perlConfig, workers, latencyRecorder, reportingIntervalMS, timeoutMS, time, executor,
+                overheadReporter, false);
+        this.latencyRecorder = latencyRecorder;
+        this.percentiles = new LatencyPercentiles(percentileFractions);
+        for (int i = 0; i < channels.length; i++) {
+            channels[i] = new WindowChannel(windowSupplier.get(), windowSupplier.get(), time, new OnError());
+        }
+        Printer.log.info("Performance Channels: Worker Windows, Windows: " + channels.length * 2);
+    }
+
+
+    @Override
+    protected void runPerformance(final long secondsToRun, final long totalRecords) {
+        final long msToRun = secondsToRun * PerlConfig.MS_PER_SEC;
+        final long startTime = time.getCurrentTime();
+        boolean doWork = true;
+        long ctime = startTime;
+        long recordsCnt = 0;
+        Printer.log.info("Performance Logger Started");
+        latencyRecorder.start(startTime);
+        latencyRecorder.startWindow(startTime);
+        for (Channel ch : channels) {
+            ((WindowChannel) ch).reset(startTime);
+        }
+        while (doWork) {
+            if (overhead != null) {
+                overhead.park(idleNS);
+            } else {
+                LockSupport.parkNanos(idleNS);
+            }
+            ctime = time.getCurrentTime();
+            boolean merge = latencyRecorder.elapsedMilliSecondsWindow(ctime) > windowIntervalMS;
+            for (Channel channel : channels) {
+                final WindowChannel ch = (WindowChannel) channel;
+                if (ch.isEnd()) {
+                    ctime = ch.endTime;
+                    doWork = false;
+                    merge = true;
+                } else if (ch.full) {
+                    merge = true;
+                }
+            }
+            if (merge) {
+                recordsCnt += mergeWindows(ctime);
+                latencyRecorder.checkWindowFullAndReset(ctime);
+                if (latencyRecorder.elapsedMilliSecondsWindow(ctime) > windowIntervalMS) {
+                    latencyRecorder.stopWindow(ctime);
+                    reportOverhead();
+                    latencyRecorder.startWindow(ctime);
+                }
+            }
+            if (msToRun > 0) {
+                if (time.elapsedMilliSeconds(ctime, startTime) >= msToRun) {
+                    doWork = false;
+                }
+            } else if (totalRecords > 0 && recordsCnt >= totalRecords) {
+                doWork = false;
+            }
+        }
+        mergeWindows(ctime);
+        latencyRecorder.stop(ctime);
+        reportOverhead();
+    }
+
+    /**
+     * Swap the windows of all workers and merge the retired windows into the latency recorder.
+     *
+     * @param ctime current time
+     * @return number of records merged
+     */
+    private long mergeWindows(long ctime) {
+        long records = 0;
+        for (Channel channel : channels) {
+            final LatencyRecordWindow window = ((WindowChannel) channel).swap();
+            if (window.getTotalRecords() > 0) {
+                records += window.getTotalRecords();
+                window.copyPercentiles(percentiles, latencyRecorder);
+            }
+            window.reset(ctime);
+        }
+        return records;
+    }
+
+
+    static final class WindowChannel implements Channel {
+        final private LatencyRecordWindow[] windows;
+        final private Time time;
+        final private Throw eThrow;
+        private volatile boolean full;
+        private volatile boolean end;
+        private volatile long endTime;
+
+        @GuardedBy("this")
+        private int active;
+
+        public WindowChannel(LatencyRecordWindow window1, LatencyRecordWindow window2, Time time, Throw eThrow) {
+            this.windows = new LatencyRecordWindow[]{window1, window2};
+            this.time = time;
+            this.eThrow = eThrow;
+            this.active = 0;
+            this.full = false;
+            this.end = false;
+        }
+
+        void reset(long startTime) {
+            for (LatencyRecordWindow window : windows) {
+                window.reset(startTime);
+            }
+        }
+
+        boolean isEnd() {
+            return end;
+        }
+
+        /**
+         * Swap the active window.
+         *
+         * @return the retired window; it is not accessed by the worker till the next swap.
+         */
+        @Synchronized
+        LatencyRecordWindow swap() {
+            final LatencyRecordWindow retired = windows[active];
+            active = 1 - active;
+            full = false;
+            return retired;
+        }
+
+        public TimeStamp receive(int timeout) {
+            return null;
+        }
+
+        public void sendEndTime(long endTime) {
+            this.endTime = endTime;
+            this.end = true;
+        }
+
+        public void clear() {
+            this.end = false;
+        }
+
+        /* This Method is Thread Safe */
+        @Synchronized
+        public void send(int id, long startTime, long endTime, int bytes, int records) {
+            final LatencyRecordWindow window = windows[active];
+            window.recordLatency(startTime, bytes, records, time.elapsed(endTime, startTime));
+            if (window.isFull()) {
+                full = true;
+            }
+        }
+
+        public void sendException(int id, Throwable ex) {
+            eThrow.onException(ex);
+        }
+    }
+}
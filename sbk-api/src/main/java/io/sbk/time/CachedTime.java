@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.time;
+
+import io.sbk.config.PerlConfig;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse clock which returns the time cached by a ticker thread.
+ * The ticker thread reads the given time at every resolution interval and publishes it, so that
+ * {@link CachedTime#getCurrentTime()} is a single volatile read instead of a system clock call.
+ * The precision of the time stamps is the resolution plus the jitter of the ticker thread; use it for
+ * throughput benchmarks, where the latencies shorter than the resolution are not relevant.
+ */
+final public class CachedTime implements Time {
+    final private Time time;
+    final private long resolutionNS;
+    final private Thread ticker;
+    private volatile long currentTime;
+    private volatile boolean running;
+
+    /* written by the ticker thread only */
+    private volatile long ticks;
+    private volatile long jitterSumNS;
+    private volatile long maxJitterNS;
+
+    /**
+     * Create the cached time and start the ticker thread.
+     *
+     * @param time         time to cache
+     * @param resolutionNS resolution in nanoseconds
+     */
+    public CachedTime(Time time, long resolutionNS) {
+        this.time = time;
+        this.resolutionNS = resolutionNS;
+        this.currentTime = time.getCurrentTime();
+        this.running = true;
+        this.ticker = new Thread(this::tick, "sbk-cached-time");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    private void tick() {
+        long prevNS = System.nanoTime();
+        while (running) {
+            LockSupport.parkNanos(resolutionNS);
+            currentTime = time.getCurrentTime();
+            final long nowNS = System.nanoTime();
+            final long jitterNS = Math.abs(nowNS - prevNS - resolutionNS);
+            prevNS = nowNS;
+            ticks = ticks + 1;
+            jitterSumNS = jitterSumNS + jitterNS;
+            if (jitterNS > maxJitterNS) {
+                maxJitterNS = jitterNS;
+            }
+        }
+    }
+
+    /**
+     * Stop the ticker thread; the current time is not updated after this call.
+     */
+    public void stop() {
+        running = false;
+        try {
+            ticker.join(PerlConfig.MS_PER_SEC);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * get the resolution.
+     *
+     * @return resolution in nanoseconds
+     */
+    public long getResolutionNS() {
+        return resolutionNS;
+    }
+
+    /**
+     * get the number of ticks of the ticker thread.
+     *
+     * @return number of ticks
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * get the average deviation of the tick intervals from the resolution.
+     *
+     * @return average jitter in nanoseconds
+     */
+    public double getAvgJitterNS() {
+        final long cnt = ticks;
+        return cnt > 0 ? (jitterSumNS * 1.0) / cnt : 0;
+    }
+
+    /**
+     * get the maximum deviation of the tick intervals from the resolution.
+     *
+     * @return maximum jitter in nanoseconds
+     */
+    public long getMaxJitterNS() {
+        return maxJitterNS;
+    }
+
+    /**
+     * get the Time Unit.
+     *
+     * @return time Unit of the cached time
+     */
+    public TimeUnit getTimeUnit() {
+        return time.getTimeUnit();
+    }
+
+    /**
+     * get the cached current Time.
+     *
+     * @return current Time, updated at every resolution interval
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public double elapsedMilliSeconds(long h, long l) {
+        return time.elapsedMilliSeconds(h, l);
+    }
+
+    public double elapsedSeconds(long h, long l) {
+        return time.elapsedSeconds(h, l);
+    }
+
+    public double convertToNanoSeconds(double t) {
+        return time.convertToNanoSeconds(t);
+    }
+
+    public double convertToMicroSeconds(double t) {
+        return time.convertToMicroSeconds(t);
+    }
+
+    public double convertToMilliSeconds(double t) {
+        return time.convertToMilliSeconds(t);
+    }
+}
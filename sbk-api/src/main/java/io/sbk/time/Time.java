@@ -10,7 +10,7 @@
 
 package io.sbk.time;
 
-public sealed interface Time permits MilliSeconds, MicroSeconds, NanoSeconds {
+public sealed interface Time permits MilliSeconds, MicroSeconds, NanoSeconds, CachedTime {
 
     /**
      * get the Time Unit.
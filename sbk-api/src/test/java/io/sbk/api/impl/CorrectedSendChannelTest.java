@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.api.impl;
+
+import io.sbk.api.Status;
+import io.sbk.api.Writer;
+import io.sbk.perl.Channel;
+import io.sbk.perl.TimeStamp;
+import io.sbk.time.NanoSeconds;
+import io.sbk.time.Time;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Class for testing the latencies corrected by the intended start times of the operations.
+ */
+public class CorrectedSendChannelTest {
+    final static int OPERATIONS = 8;
+
+    /**
+     * Channel which keeps the start times of the benchmark data by the record id.
+     */
+    private static final class StartTimes implements Channel {
+        final private Map<Integer, Long> startTimes = new HashMap<>();
+
+        @Override
+        public TimeStamp receive(int timeout) {
+            return null;
+        }
+
+        @Override
+        public void sendEndTime(long endTime) {
+
+        }
+
+        @Override
+        public void clear() {
+
+        }
+
+        @Override
+        public void send(int id, long startTime, long endTime, int dataSize, int records) {
+            startTimes.put(id, startTime);
+        }
+
+        @Override
+        public void sendException(int id, Throwable ex) {
+            Assert.fail("Unexpected exception: " + ex);
+        }
+    }
+
+    /**
+     * Writer which completes the writes, after all the writes are issued.
+     */
+    private static final class AsyncWriter implements Writer<Object> {
+        final private List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+        @Override
+        public CompletableFuture<?> writeAsync(Object data) {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            futures.add(future);
+            return future;
+        }
+
+        @Override
+        public void close() {
+
+        }
+    }
+
+    @Test
+    public void testAsyncCompletions() throws IOException {
+        final Time time = new NanoSeconds();
+        final StartTimes startTimes = new StartTimes();
+        final StartTimes correctedTimes = new StartTimes();
+        final CorrectedSendChannel channel = new CorrectedSendChannel(startTimes, correctedTimes);
+        final SbkRateController rController = new SbkRateController(time);
+        final AsyncWriter writer = new AsyncWriter();
+        final Status status = new Status();
+        final long[] intendedTimes = new long[OPERATIONS];
+
+        /* one operation per nanosecond; every operation starts late */
+        rController.start(1000000000);
+        for (int i = 0; i < OPERATIONS; i++) {
+            status.intendedTime = rController.getIntendedTime();
+            intendedTimes[i] = status.intendedTime;
+            writer.recordWrite(null, null, 10, time, status, channel, i);
+            rController.control(i + 1, Double.MAX_VALUE);
+        }
+        /* the writes complete in the reverse order, after the rate controller moved past all of them */
+        for (int i = OPERATIONS - 1; i >= 0; i--) {
+            writer.futures.get(i).complete(null);
+        }
+        assertEquals(OPERATIONS, correctedTimes.startTimes.size());
+        for (int i = 0; i < OPERATIONS; i++) {
+            assertEquals(intendedTimes[0] + i, intendedTimes[i]);
+            assertEquals("operation " + i, intendedTimes[i], (long) correctedTimes.startTimes.get(i));
+        }
+    }
+
+    @Test
+    public void testWithoutIntendedTime() {
+        final StartTimes startTimes = new StartTimes();
+        final StartTimes correctedTimes = new StartTimes();
+        final CorrectedSendChannel channel = new CorrectedSendChannel(startTimes, correctedTimes);
+        /* not corrected without the intended time, or if the operation started in time */
+        channel.send(1, 100, 200, 10, 1);
+        channel.send(2, 100, 200, 10, 1, 0);
+        channel.send(3, 100, 200, 10, 1, 150);
+        channel.send(4, 100, 200, 10, 1, 50);
+        assertEquals(100, (long) correctedTimes.startTimes.get(1));
+        assertEquals(100, (long) correctedTimes.startTimes.get(2));
+        assertEquals(100, (long) correctedTimes.startTimes.get(3));
+        assertEquals(50, (long) correctedTimes.startTimes.get(4));
+        assertEquals(100, (long) startTimes.startTimes.get(4));
+    }
+}
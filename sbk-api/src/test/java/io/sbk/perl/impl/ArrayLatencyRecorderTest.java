@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.ReportLatencies;
+import io.sbk.time.MilliSeconds;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the two level bitmap of the Array latency recorder.
+ */
+public class ArrayLatencyRecorderTest {
+    final static double[] PERCENTILES = {0.1, 0.5, 0.9, 0.99};
+    /* three block words and a partial slot word */
+    final static int LOW_LATENCY = 10;
+    final static int SIZE = 64 * 64 * 3 + 17;
+
+    /**
+     * Latencies copied from the recorder in ascending order.
+     */
+    private static final class CopiedLatencies implements ReportLatencies {
+        final private TreeMap<Long, Long> latencies = new TreeMap<>();
+        private long prev = Long.MIN_VALUE;
+
+        @Override
+        public void reportLatencyRecord(LatencyRecord record) {
+
+        }
+
+        @Override
+        public void reportLatency(long latency, long count) {
+            assertTrue(latency > prev);
+            prev = latency;
+            latencies.put(latency, count);
+        }
+    }
+
+    private static ArrayLatencyRecorder createRecorder() {
+        return new ArrayLatencyRecorder(LOW_LATENCY, LOW_LATENCY + SIZE, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                PerlConfig.LONG_MAX, PERCENTILES, new MilliSeconds());
+    }
+
+    private static void record(ArrayLatencyRecorder recorder, Map<Long, Long> expected, long latency, int count) {
+        recorder.recordLatency(0, 1, count, latency);
+        expected.merge(latency, (long) count, Long::sum);
+    }
+
+    /**
+     * Copy the latencies of the window, compare them and the percentiles with the expected latencies,
+     * and start the next window.
+     */
+    private static void checkWindow(ArrayLatencyRecorder recorder, TreeMap<Long, Long> expected) {
+        final CopiedLatencies copied = new CopiedLatencies();
+        final LatencyPercentiles percentiles = new LatencyPercentiles(PERCENTILES);
+        recorder.copyPercentiles(percentiles, copied);
+        assertEquals(expected, copied.latencies);
+
+        long total = 0;
+        for (long count : expected.values()) {
+            total += count;
+        }
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            final long percentileIndex = (long) (total * PERCENTILES[i]);
+            long curIndex = 0;
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                curIndex += entry.getValue();
+                if (percentileIndex < curIndex) {
+                    assertEquals(entry.getKey().longValue(), percentiles.latencies[i]);
+                    break;
+                }
+            }
+        }
+        expected.clear();
+        recorder.reset(0);
+    }
+
+    @Test
+    public void testWordBoundaries() {
+        final ArrayLatencyRecorder recorder = createRecorder();
+        final TreeMap<Long, Long> expected = new TreeMap<>();
+        final int[] indexes = {0, 1, 63, 64, 65, 127, 4095, 4096, 4097, 64 * 64 * 2 - 1, SIZE - 1};
+        for (int index : indexes) {
+            record(recorder, expected, LOW_LATENCY + index, index % 5 + 1);
+        }
+        checkWindow(recorder, expected);
+    }
+
+    @Test
+    public void testReuseAcrossWindows() {
+        final ArrayLatencyRecorder recorder = createRecorder();
+        final TreeMap<Long, Long> expected = new TreeMap<>();
+        final Random random = new Random(1);
+        for (int window = 0; window < 100; window++) {
+            /* sparse, dense and empty windows in random sub ranges */
+            final int records = window % 10 == 9 ? 0 : random.nextInt(window % 2 == 0 ? 20 : 20000) + 1;
+            final int from = random.nextInt(SIZE);
+            final int range = random.nextInt(SIZE - from) + 1;
+            for (int i = 0; i < records; i++) {
+                record(recorder, expected, LOW_LATENCY + from + random.nextInt(range), random.nextInt(3) + 1);
+            }
+            checkWindow(recorder, expected);
+        }
+    }
+
+    @Test
+    public void testHighThenLowWindow() {
+        /* the slots of a window above the next window are cleared by the copy of the first window */
+        final ArrayLatencyRecorder recorder = createRecorder();
+        final TreeMap<Long, Long> expected = new TreeMap<>();
+        record(recorder, expected, LOW_LATENCY + SIZE - 1, 2);
+        record(recorder, expected, LOW_LATENCY + 64 * 64 * 2, 1);
+        checkWindow(recorder, expected);
+        record(recorder, expected, LOW_LATENCY + 3, 4);
+        checkWindow(recorder, expected);
+        checkWindow(recorder, expected);
+    }
+
+    @Test
+    public void testMergedLatencies() {
+        final ArrayLatencyRecorder recorder = createRecorder();
+        final TreeMap<Long, Long> expected = new TreeMap<>();
+        recorder.reportLatency(LOW_LATENCY + 100, 5);
+        recorder.reportLatency(LOW_LATENCY + 100, 2);
+        recorder.reportLatency(LOW_LATENCY + 200, 0);
+        recorder.reportLatency(LOW_LATENCY + SIZE, 1);
+        expected.put((long) LOW_LATENCY + 100, 7L);
+        final CopiedLatencies copied = new CopiedLatencies();
+        recorder.copyPercentiles(new LatencyPercentiles(PERCENTILES), copied);
+        assertEquals(expected, copied.latencies);
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.ReportLatencies;
+import io.sbk.time.MilliSeconds;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the bucket boundaries of the Log Linear latency recorder.
+ */
+public class LogLinearLatencyRecorderTest {
+    final static double[] PERCENTILES = {0.5, 0.99};
+
+    /**
+     * Latencies copied from the recorder; the latency of a bucket is the highest value of the bucket.
+     */
+    private static final class CopiedLatencies implements ReportLatencies {
+        final private List<long[]> latencies = new ArrayList<>();
+
+        @Override
+        public void reportLatencyRecord(LatencyRecord record) {
+
+        }
+
+        @Override
+        public void reportLatency(long latency, long count) {
+            latencies.add(new long[]{latency, count});
+        }
+    }
+
+    private static LogLinearLatencyRecorder createRecorder(long lowLatency, long highLatency, int digits) {
+        return new LogLinearLatencyRecorder(lowLatency, highLatency, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                PerlConfig.LONG_MAX, PERCENTILES, new MilliSeconds(), digits);
+    }
+
+    private static List<long[]> copyLatencies(LogLinearLatencyRecorder recorder) {
+        final CopiedLatencies copied = new CopiedLatencies();
+        recorder.copyPercentiles(new LatencyPercentiles(PERCENTILES), copied);
+        return copied.latencies;
+    }
+
+    /**
+     * Record every latency of the range once; the copied buckets must cover the range without gaps
+     * or overlaps, and the width of every bucket is bounded by the significant digits.
+     */
+    private static void checkBuckets(long lowLatency, long highLatency, int digits) {
+        final LogLinearLatencyRecorder recorder = createRecorder(lowLatency, highLatency, digits);
+        for (long latency = lowLatency; latency <= highLatency; latency++) {
+            recorder.recordLatency(0, 1, 1, latency);
+        }
+        final long largestExactValue = 2 * (long) Math.pow(10, digits);
+        final double maxError = Math.pow(10, -digits);
+        long prev = lowLatency - 1;
+        for (long[] latency : copyLatencies(recorder)) {
+            final long low = prev + 1 - lowLatency;
+            final long high = latency[0] - lowLatency;
+            assertEquals("bucket [" + low + ", " + high + "]", high - low + 1, latency[1]);
+            if (low < largestExactValue) {
+                assertEquals("exact value " + low, low, high);
+            } else {
+                assertTrue("bucket [" + low + ", " + high + "]", (double) (high - low) / low < maxError);
+            }
+            prev = latency[0];
+        }
+        assertEquals(highLatency, prev);
+    }
+
+    @Test
+    public void testBucketBoundaries() {
+        for (int digits = 1; digits <= 3; digits++) {
+            checkBuckets(0, 1000000, digits);
+        }
+    }
+
+    @Test
+    public void testBucketBoundariesFiveDigits() {
+        checkBuckets(0, 2000000, 5);
+    }
+
+    @Test
+    public void testLowLatencyOffset() {
+        /* the buckets are relative to the low latency and the last bucket ends at the high latency */
+        checkBuckets(1000, 123457, 2);
+    }
+
+    @Test
+    public void testPowerOf2Boundaries() {
+        /* 3 digits: values below 2048 are exact, 2048 to 4095 are in buckets of 2, 4096 to 8191 of 4 */
+        final LogLinearLatencyRecorder recorder = createRecorder(0, 100000, 3);
+        final long[] values = {2047, 2048, 2049, 4095, 4096, 4099, 4100};
+        for (long value : values) {
+            recorder.recordLatency(0, 1, 1, value);
+        }
+        final List<long[]> latencies = copyLatencies(recorder);
+        final long[][] expected = {{2047, 1}, {2049, 2}, {4095, 1}, {4099, 2}, {4103, 1}};
+        assertEquals(expected.length, latencies.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], latencies.get(i)[0]);
+            assertEquals(expected[i][1], latencies.get(i)[1]);
+        }
+    }
+
+    @Test
+    public void testOutOfRangeLatencies() {
+        final LogLinearLatencyRecorder recorder = createRecorder(10, 1000, 2);
+        recorder.recordLatency(0, 1, 1, 5);
+        recorder.recordLatency(0, 1, 1, 1001);
+        recorder.recordLatency(0, 1, 1, 500);
+        assertEquals(1, recorder.getLowerLatencyDiscardRecords());
+        assertEquals(1, recorder.getHigherLatencyDiscardRecords());
+        final List<long[]> latencies = copyLatencies(recorder);
+        assertEquals(1, latencies.size());
+        assertEquals(1, latencies.get(0)[1]);
+    }
+
+    @Test
+    public void testCopyClearsCounts() {
+        final LogLinearLatencyRecorder recorder = createRecorder(0, 100000, 3);
+        recorder.recordLatency(0, 1, 3, 50000);
+        assertEquals(1, copyLatencies(recorder).size());
+        recorder.reset(0);
+        recorder.recordLatency(0, 1, 1, 7);
+        final List<long[]> latencies = copyLatencies(recorder);
+        assertEquals(1, latencies.size());
+        assertEquals(7, latencies.get(0)[0]);
+        assertEquals(1, latencies.get(0)[1]);
+    }
+}
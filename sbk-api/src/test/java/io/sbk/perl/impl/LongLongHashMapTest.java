@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the primitive long to long hash map.
+ */
+public class LongLongHashMapTest {
+    final static int MIN_CAPACITY = 16;
+
+    private static void checkEquals(Map<Long, Long> expected, LongLongHashMap map) {
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+            assertEquals((long) entry.getValue(), map.get(entry.getKey()));
+        }
+        final long[] sorted = new TreeMap<>(expected).keySet().stream().mapToLong(Long::longValue).toArray();
+        assertArrayEquals(sorted, map.sortedKeys());
+    }
+
+    @Test
+    public void testAddAndGet() {
+        final LongLongHashMap map = new LongLongHashMap(0);
+        map.add(5, 2);
+        map.add(5, 3);
+        map.add(7, 0);
+        assertEquals(5, map.get(5));
+        assertEquals(0, map.get(7));
+        assertEquals(0, map.get(6));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    public void testSpecialKeys() {
+        final LongLongHashMap map = new LongLongHashMap(MIN_CAPACITY);
+        final long[] keys = {0, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE};
+        for (int i = 0; i < keys.length; i++) {
+            map.add(keys[i], i + 1);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i + 1, map.get(keys[i]));
+        }
+        assertArrayEquals(new long[]{Long.MIN_VALUE, -1, 0, 1, Long.MAX_VALUE}, map.sortedKeys());
+    }
+
+    @Test
+    public void testCollisions() {
+        final Random random = new Random(1);
+        /* up to the resize threshold of the smallest map, so the keys collide in 16 slots and the probe
+         * sequences wrap around the end of the arrays */
+        for (int trial = 0; trial < 1000; trial++) {
+            final LongLongHashMap map = new LongLongHashMap(MIN_CAPACITY);
+            final Map<Long, Long> expected = new HashMap<>();
+            final long memoryBytes = map.memoryBytes();
+            for (int i = 0; i < MIN_CAPACITY * 3 / 4; i++) {
+                final long key = random.nextInt(1000);
+                final long count = random.nextInt(10) + 1;
+                map.add(key, count);
+                expected.merge(key, count, Long::sum);
+            }
+            assertEquals(memoryBytes, map.memoryBytes());
+            checkEquals(expected, map);
+        }
+    }
+
+    @Test
+    public void testResize() {
+        final LongLongHashMap map = new LongLongHashMap(MIN_CAPACITY);
+        final Map<Long, Long> expected = new HashMap<>();
+        final long initialBytes = map.memoryBytes();
+        for (long key = 0; key < 100000; key++) {
+            /* keys with a common stride, as the latencies of the coarse clocks */
+            map.add(key * 1024, key + 1);
+            expected.put(key * 1024, key + 1);
+        }
+        assertTrue(map.memoryBytes() > initialBytes);
+        /* power of 2 capacity */
+        final long capacity = map.memoryBytes() / LongLongHashMap.ENTRY_BYTES;
+        assertEquals(0, capacity & (capacity - 1));
+        checkEquals(expected, map);
+
+        /* the counts are added to the existing keys after the resize */
+        for (long key = 0; key < 100000; key++) {
+            map.add(key * 1024, 1);
+            expected.merge(key * 1024, 1L, Long::sum);
+        }
+        checkEquals(expected, map);
+    }
+
+    @Test
+    public void testClearAndReuse() {
+        final LongLongHashMap map = new LongLongHashMap(MIN_CAPACITY);
+        for (long key = 0; key < 1000; key++) {
+            map.add(key, 1);
+        }
+        final long memoryBytes = map.memoryBytes();
+        map.clear();
+        assertEquals(0, map.size());
+        assertEquals(0, map.get(10));
+        assertEquals(0, map.sortedKeys().length);
+        assertEquals(memoryBytes, map.memoryBytes());
+
+        final Map<Long, Long> expected = new HashMap<>();
+        for (long key = 500; key < 1500; key++) {
+            map.add(key, 2);
+            expected.put(key, 2L);
+        }
+        assertEquals(memoryBytes, map.memoryBytes());
+        checkEquals(expected, map);
+    }
+
+    @Test
+    public void testIsFull() {
+        final LongLongHashMap map = new LongLongHashMap(MIN_CAPACITY);
+        final long maxBytes = map.memoryBytes();
+        assertFalse(map.isFull(maxBytes));
+        for (long key = 0; key < MIN_CAPACITY * 3 / 4; key++) {
+            map.add(key, 1);
+        }
+        /* the next new key resizes the map beyond the limit */
+        assertTrue(map.isFull(maxBytes));
+        assertFalse(map.isFull(maxBytes * 2));
+    }
+}
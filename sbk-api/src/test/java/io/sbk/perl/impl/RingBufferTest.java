@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.IdleStrategyType;
+import io.sbk.perl.RingFullPolicy;
+import io.sbk.perl.TimeStamp;
+import org.junit.Assert;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the ring buffers of the performance channels.
+ */
+public class RingBufferTest {
+    final static int RING_SIZE = 4;
+
+    private static RingBufferPerformance.RingBufferChannel createChannel(int qSize, RingFullPolicy fullPolicy) {
+        return new RingBufferPerformance.RingBufferChannel(qSize, RING_SIZE, fullPolicy,
+                IdleStrategies.create(IdleStrategyType.spin, PerlConfig.MIN_IDLE_NS),
+                ex -> Assert.fail("Unexpected exception: " + ex));
+    }
+
+    private static void checkReceive(RingBufferPerformance.RingBufferChannel ch, long startTime) {
+        final TimeStamp t = ch.receive(0);
+        assertNotNull(t);
+        assertFalse(t.isEnd());
+        assertEquals(startTime, t.startTime);
+        assertEquals(startTime + 1, t.endTime);
+        assertEquals((int) startTime % 100, t.bytes);
+        assertEquals(1, t.records);
+    }
+
+    private static void send(RingBufferPerformance.RingBufferChannel ch, long startTime) {
+        ch.send(0, startTime, startTime + 1, (int) startTime % 100, 1);
+    }
+
+    @Test
+    public void testWraparound() {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, RingFullPolicy.drop);
+        long next = 0;
+        for (int round = 0; round < 10; round++) {
+            /* fill the ring; the slots are reused from the second round on */
+            for (int i = 0; i < RING_SIZE; i++) {
+                send(ch, next + i);
+            }
+            /* dropped, the ring is full */
+            send(ch, -1);
+            for (int i = 0; i < RING_SIZE; i++) {
+                checkReceive(ch, next + i);
+            }
+            assertNull(ch.receive(0));
+            next += RING_SIZE;
+        }
+    }
+
+    @Test
+    public void testPartialWraparound() {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, RingFullPolicy.drop);
+        long sent = 0;
+        long received = 0;
+        /* the producer stays ahead of the consumer by less than the ring size,
+         * so that the head and the tail wrap around at different slots */
+        for (int i = 0; i < 100; i++) {
+            final int count = i % 3 + 1;
+            for (int j = 0; j < count; j++) {
+                send(ch, sent++);
+            }
+            while (sent - received > 1) {
+                checkReceive(ch, received++);
+            }
+        }
+        checkReceive(ch, received++);
+        assertEquals(sent, received);
+        assertNull(ch.receive(0));
+    }
+
+    @Test
+    public void testRingFullDrop() {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, RingFullPolicy.drop);
+        for (int i = 0; i < RING_SIZE + 3; i++) {
+            send(ch, i);
+        }
+        for (int i = 0; i < RING_SIZE; i++) {
+            checkReceive(ch, i);
+        }
+        assertNull(ch.receive(0));
+        /* the slots are free again after the drops */
+        send(ch, 100);
+        checkReceive(ch, 100);
+    }
+
+    @Test
+    public void testEndTime() {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(2, RingFullPolicy.drop);
+        send(ch, 1);
+        ch.sendEndTime(100);
+        final TimeStamp t = ch.receive(0);
+        assertNotNull(t);
+        assertTrue(t.isEnd());
+        assertEquals(100, t.endTime);
+        ch.clear();
+        assertNull(ch.receive(0));
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final int producers = 4;
+        final int count = 20000;
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, RingFullPolicy.park);
+        final Thread[] threads = new Thread[producers];
+        for (int i = 0; i < producers; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 1; j <= count; j++) {
+                    ch.send(0, j, j, 1, j);
+                }
+            });
+            threads[i].start();
+        }
+        long received = 0;
+        long records = 0;
+        while (received < (long) producers * count) {
+            final TimeStamp t = ch.receive(0);
+            if (t != null) {
+                assertEquals(t.startTime, t.records);
+                received++;
+                records += t.records;
+            } else {
+                Thread.yield();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(ch.receive(0));
+        assertEquals((long) producers * count * (count + 1) / 2, records);
+    }
+
+    private static void checkSendAfterClose(RingFullPolicy fullPolicy) throws InterruptedException {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, fullPolicy);
+        /* the producer fills the ring after the consumer has stopped */
+        final Thread producer = new Thread(() -> {
+            for (int i = 0; i < RING_SIZE * 4; i++) {
+                send(ch, i);
+            }
+        });
+        ch.close();
+        producer.start();
+        producer.join(10000);
+        assertFalse("producer blocked on the full ring", producer.isAlive());
+        for (int i = 0; i < RING_SIZE; i++) {
+            checkReceive(ch, i);
+        }
+        assertNull(ch.receive(0));
+    }
+
+    @Test
+    public void testSendAfterClose() throws InterruptedException {
+        checkSendAfterClose(RingFullPolicy.park);
+        checkSendAfterClose(RingFullPolicy.spin);
+    }
+
+    @Test
+    public void testCloseWhileWaiting() throws InterruptedException {
+        final RingBufferPerformance.RingBufferChannel ch = createChannel(1, RingFullPolicy.park);
+        for (int i = 0; i < RING_SIZE; i++) {
+            send(ch, i);
+        }
+        /* the producer waits for a free slot, until the consumer stops */
+        final Thread producer = new Thread(() -> send(ch, RING_SIZE));
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        ch.close();
+        producer.join(10000);
+        assertFalse("producer blocked on the full ring", producer.isAlive());
+        for (int i = 0; i < RING_SIZE; i++) {
+            checkReceive(ch, i);
+        }
+        assertNull(ch.receive(0));
+    }
+}
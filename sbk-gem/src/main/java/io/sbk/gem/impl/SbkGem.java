@@ -241,9 +241,9 @@ final public class SbkGem {
             }
 
             int minSize = dType.getWriteReadMinSize();
-            if (params.isWriteAndRead() && params.getRecordSize() < minSize) {
+            if (params.isWriteAndRead() && params.getRecordSizeDistribution().getMinSize() < minSize) {
                 String errMsg =
-                        "Invalid record size: " + params.getRecordSize() +
+                        "Invalid record size: " + params.getRecordSizeDistribution() +
                                 ", For both Writers and Readers, minimum data size should be " + minSize +
                                 " for data type: " + dType.getClass().getName();
                 Printer.log.error(errMsg);
@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.jmh;
+
+import io.sbk.data.DataType;
+import io.sbk.data.impl.ByteArray;
+import io.sbk.data.impl.NioByteBuffer;
+import io.sbk.data.impl.ProtoBufByteString;
+import io.sbk.data.impl.SbkString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of setting and getting the time header of the data types used by the Writers and Readers
+ * in the write and read mode (End to End latency).
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class DataTypeBenchmark {
+
+    @Param({"bytearray", "bytebuffer", "bytestring", "string"})
+    public String type;
+
+    @Param({"100", "10240"})
+    public int size;
+    public DataType<Object> dType;
+    public Object data;
+    public long time;
+
+    @SuppressWarnings("unchecked")
+    private static DataType<Object> createDataType(String type) {
+        final DataType<?> dType = switch (type) {
+            case "bytearray" -> new ByteArray();
+            case "bytebuffer" -> new NioByteBuffer();
+            case "bytestring" -> new ProtoBufByteString();
+            case "string" -> new SbkString();
+            default -> throw new IllegalArgumentException("Unknown data type: " + type);
+        };
+        return (DataType<Object>) dType;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        dType = createDataType(type);
+        time = System.currentTimeMillis();
+        data = dType.setTime(dType.create(size), time);
+    }
+
+    @Benchmark
+    public Object setTime() {
+        time++;
+        data = dType.setTime(data, time);
+        return data;
+    }
+
+    @Benchmark
+    public long getTime() {
+        return dType.getTime(data);
+    }
+
+    @Benchmark
+    public long setGetTime() {
+        time++;
+        data = dType.setTime(data, time);
+        return dType.getTime(data);
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.jmh;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.perl.LatencyPercentiles;
+import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.impl.ArrayLatencyRecorder;
+import io.sbk.perl.impl.HashMapLatencyRecorder;
+import io.sbk.perl.impl.HdrExtendedLatencyRecorder;
+import io.sbk.time.MicroSeconds;
+import io.sbk.time.Time;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of recording the latencies and copying the percentiles of the window latency recorders.
+ * The recorded latencies are in microseconds and log-uniformly distributed between 1 micro second and 1 second.
+ * The copied windows have a fixed number of populated latencies, spread over a varying latency range,
+ * so that the copy time can be compared against the populated latencies and against the range.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LatencyRecorderBenchmark {
+    final private static int LATENCIES_COUNT = 1 << 16;
+    final private static long MAX_LATENCY = PerlConfig.MICROS_PER_SEC;
+    final private static int FLUSH_WINDOWS = 8;
+
+    private static LatencyRecordWindow createRecorder(String recorder, long maxLatency) {
+        final Time time = new MicroSeconds();
+        final double[] fractions = Arrays.stream(PerlConfig.PERCENTILES).map(x -> x / 100).toArray();
+        return switch (recorder) {
+            case "array" -> new ArrayLatencyRecorder(0, maxLatency, PerlConfig.TOTAL_LATENCY_MAX,
+                    PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, fractions, time);
+            case "hashmap" -> new HashMapLatencyRecorder(0, maxLatency, PerlConfig.TOTAL_LATENCY_MAX,
+                    PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, fractions, time, 64);
+            case "hdr" -> new HdrExtendedLatencyRecorder(0, maxLatency, PerlConfig.TOTAL_LATENCY_MAX,
+                    PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, fractions, time,
+                    new HashMapLatencyRecorder(0, maxLatency, PerlConfig.TOTAL_LATENCY_MAX,
+                            PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, fractions, time, 1));
+            default -> throw new IllegalArgumentException("Unknown latency recorder: " + recorder);
+        };
+    }
+
+    private static long[] createLatencies(long seed) {
+        final Random random = new Random(seed);
+        final long[] latencies = new long[LATENCIES_COUNT];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = (long) Math.pow(MAX_LATENCY, random.nextDouble());
+        }
+        return latencies;
+    }
+
+    @State(Scope.Thread)
+    public static class RecordState {
+        @Param({"array", "hashmap", "hdr"})
+        public String recorder;
+        public LatencyRecordWindow window;
+        public long[] latencies;
+        public int index;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            window = createRecorder(recorder, MAX_LATENCY);
+            latencies = createLatencies(1);
+            index = 0;
+        }
+    }
+
+    /**
+     * The windows to copy are filled once per iteration; every invocation copies all the windows.
+     * The layout "spread" places the populated latencies at equal distances over the range, the layout
+     * "outlier" places them at the start of the range, with one outlier at the end of the range.
+     */
+    @State(Scope.Thread)
+    public static class FlushState {
+        @Param({"array", "hashmap", "hdr"})
+        public String recorder;
+
+        @Param({"100", "1000"})
+        public int populated;
+
+        @Param({"10000", "1000000", "10000000"})
+        public long range;
+
+        @Param({"spread", "outlier"})
+        public String layout;
+        public LatencyRecordWindow[] windows;
+        public LatencyPercentiles percentiles;
+        public long[] latencies;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            windows = new LatencyRecordWindow[FLUSH_WINDOWS];
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = createRecorder(recorder, range);
+            }
+            percentiles = new LatencyPercentiles(Arrays.stream(PerlConfig.PERCENTILES).map(x -> x / 100).toArray());
+            latencies = new long[populated];
+            for (int i = 0; i < populated; i++) {
+                latencies[i] = switch (layout) {
+                    case "spread" -> 1 + i * ((range - 1) / populated);
+                    case "outlier" -> i < populated - 1 ? i + 1 : range - 1;
+                    default -> throw new IllegalArgumentException("Unknown latency layout: " + layout);
+                };
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void fill() {
+            for (LatencyRecordWindow window : windows) {
+                window.reset(0);
+                for (int i = 0; i < latencies.length; i++) {
+                    window.recordLatency(0, 100, i + 1, latencies[i]);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void recordLatency(RecordState state) {
+        state.window.recordLatency(0, 100, 1, state.latencies[state.index]);
+        state.index = (state.index + 1) & (LATENCIES_COUNT - 1);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+    @Warmup(iterations = 50)
+    @Measurement(iterations = 200)
+    @OperationsPerInvocation(FLUSH_WINDOWS)
+    public long copyPercentiles(FlushState state) {
+        long median = 0;
+        for (LatencyRecordWindow window : state.windows) {
+            window.copyPercentiles(state.percentiles, null);
+            median += state.percentiles.medianLatency;
+        }
+        return median;
+    }
+}
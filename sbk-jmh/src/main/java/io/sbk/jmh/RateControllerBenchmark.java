@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.jmh;
+
+import io.sbk.api.impl.SbkRateController;
+import io.sbk.config.PerlConfig;
+import io.sbk.time.NanoSeconds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the per record overhead of {@link SbkRateController#control(long, double)}.
+ * The records per second is either 0 (no rate control) or so high that the controller never sleeps,
+ * so that only the bookkeeping of the controller is measured.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class RateControllerBenchmark {
+
+    @Param({"0", "2147483647"})
+    public int recordsPerSec;
+    public SbkRateController controller;
+    public long startNs;
+    public long records;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        controller = new SbkRateController(new NanoSeconds());
+        controller.start(recordsPerSec);
+        startNs = System.nanoTime();
+        records = 0;
+    }
+
+    @Benchmark
+    public long control() {
+        records++;
+        controller.control(records, (System.nanoTime() - startNs) * 1.0 / PerlConfig.NS_PER_SEC);
+        return controller.getIntendedTime();
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.jmh;
+
+import io.sbk.api.Benchmark;
+import io.sbk.api.impl.Sbk;
+import io.sbk.logger.impl.SystemLogger;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End to end benchmark of SBK writing the given number of records with the Null storage driver.
+ * The Null driver does not perform any I/O, so the measured time is the overhead of the SBK benchmark
+ * harness: the Writer loops, the benchmark data channels and the latency recorders.
+ * The Null Reader does not return any records, so the Readers are not benchmarked.
+ */
+@Fork(1)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class SbkNullBenchmark {
+
+    @Param({"1", "4"})
+    public int writers;
+
+    @Param({"100"})
+    public int size;
+
+    @Param({"1000000"})
+    public long records;
+
+    @org.openjdk.jmh.annotations.Benchmark
+    public void write() throws Exception {
+        final String[] args = {"-class", "null", "-writers", String.valueOf(writers),
+                "-size", String.valueOf(size), "-records", String.valueOf(records)};
+        final Benchmark benchmark = Sbk.buildBenchmark(args, null, null, new SystemLogger());
+        benchmark.start().get();
+    }
+}
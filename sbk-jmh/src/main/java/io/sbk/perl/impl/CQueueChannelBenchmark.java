@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.perl.impl;
+
+import io.sbk.perl.TimeStamp;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmark of the send/receive path of the concurrent queue channel of {@link CQueuePerformance}, with 3 Writers
+ * sending the benchmark data to their own queues and 1 performance thread receiving it.
+ * The benchmark is in the package of {@link CQueuePerformance}, because the channel is package private.
+ * The Writers wait if the receiver falls behind by more than {@link CQueueChannelBenchmark#MAX_BACKLOG} records,
+ * so that the queues do not grow without bound; the waits are part of the measured send time.
+ * The receive operations include the empty polls; the throughput of the received benchmark data is reported by
+ * the counter 'received' and the empty polls by the counter 'emptyPolls'.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CQueueChannelBenchmark {
+    final private static int WRITERS = 3;
+    final private static long MAX_BACKLOG = 1 << 16;
+
+    @State(Scope.Group)
+    public static class ChannelState {
+        public CQueuePerformance.CQueueChannel channel;
+        public AtomicInteger ids;
+        public AtomicLong received;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            channel = new CQueuePerformance.CQueueChannel(WRITERS, ex -> {
+            });
+            ids = new AtomicInteger(0);
+            received = new AtomicLong(0);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            channel.clear();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WriterState {
+        public int id;
+        public long sent;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            id = -1;
+            sent = 0;
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class ReceiverCounters {
+        public long received;
+        public long emptyPolls;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            received = 0;
+            emptyPolls = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("channel")
+    @GroupThreads(WRITERS)
+    public void send(ChannelState state, WriterState writer, Control control) {
+        if (writer.id < 0) {
+            writer.id = state.ids.getAndIncrement() % WRITERS;
+        }
+        while (writer.sent * WRITERS - state.received.getOpaque() > MAX_BACKLOG && !control.stopMeasurement) {
+            Thread.onSpinWait();
+        }
+        state.channel.send(writer.id, writer.sent, writer.sent + 1, 100, 1);
+        writer.sent++;
+    }
+
+    @Benchmark
+    @Group("channel")
+    @GroupThreads(1)
+    public TimeStamp receive(ChannelState state, ReceiverCounters counters) {
+        final TimeStamp t = state.channel.receive(0);
+        if (t != null) {
+            state.received.setOpaque(state.received.getPlain() + 1);
+            counters.received++;
+        } else {
+            counters.emptyPolls++;
+        }
+        return t;
+    }
+}
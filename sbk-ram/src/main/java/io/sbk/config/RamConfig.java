@@ -10,6 +10,8 @@
 
 package io.sbk.config;
 
+import io.sbk.perl.IdleStrategyType;
+
 final public class RamConfig {
     public final static String NAME = "sbk-ram";
     final public static String DESC = "Storage Benchmark Kit - Results Aggregation Monitor";
@@ -19,9 +21,18 @@ final public class RamConfig {
     public int maxArraySizeMB;
     public int maxHashMapSizeMB;
     public int totalMaxHashMapSizeMB;
+    public boolean logLinear;
+    public int logLinearDigits;
     public int maxQueues;
     public int idleMS;
+    public IdleStrategyType idleStrategy;
+    public boolean parallelMerge;
+    public boolean alignedWindows;
+    public int alignedGraceMS;
+    public int relayMaxRecordSizeMB;
     public boolean histogram;
     public boolean csv;
     public int csvFileSizeGB;
+    public boolean mmap;
+    public int mmapFileSizeGB;
 }
@@ -42,5 +42,19 @@ public interface RamParameters {
      */
     int getMaxConnections();
 
+    /**
+     * get the parent SBK RAM host to relay the latency records.
+     *
+     * @return parent SBK RAM host; null if the relay is disabled.
+     */
+    String getRelayHost();
+
+    /**
+     * get the parent SBK RAM port.
+     *
+     * @return parent SBK RAM port number.
+     */
+    int getRelayPort();
+
 
 }
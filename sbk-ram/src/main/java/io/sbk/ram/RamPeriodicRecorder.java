@@ -11,6 +11,7 @@
 package io.sbk.ram;
 
 import io.sbk.grpc.LatenciesRecord;
+import io.sbk.perl.LatencyRecord;
 import io.sbk.perl.TotalPeriodicWindow;
 
 /**
@@ -26,4 +27,37 @@ public interface RamPeriodicRecorder extends TotalPeriodicWindow {
      */
     void record(long currentTime, LatenciesRecord record);
 
+    /**
+     * Merge the totals of the latency records into the current window.
+     *
+     * @param record totals of the latency records
+     */
+    void mergeLatencyRecord(LatencyRecord record);
+
+    /**
+     * Merge the latency values into the current window.
+     *
+     * @param latency latency value
+     * @param count   number of records with the latency value
+     */
+    void mergeLatency(long latency, long count);
+
+    /**
+     * Merge the readers and writers of the client into the current window.
+     *
+     * @param clientID   client ID
+     * @param readers    number of readers
+     * @param writers    number of writers
+     * @param maxReaders maximum number of readers
+     * @param maxWriters maximum number of writers
+     */
+    void mergeRW(long clientID, int readers, int writers, int maxReaders, int maxWriters);
+
+    /**
+     * Print and reset the current window if it is full.
+     *
+     * @param currentTime current time
+     */
+    void checkWindowFullAndReset(long currentTime);
+
 }
@@ -18,4 +18,6 @@ public interface RamRegistry {
 
     void enQueue(LatenciesRecord record);
 
+    void closeClient(long id);
+
 }
@@ -12,6 +12,8 @@ package io.sbk.ram.impl;
 
 import io.sbk.api.Benchmark;
 import io.sbk.grpc.LatenciesRecord;
+import io.sbk.perl.IdleStrategy;
+import io.sbk.perl.ReportWindowIndex;
 import io.sbk.ram.RamPeriodicRecorder;
 import io.sbk.ram.RamRegistry;
 import io.sbk.state.State;
@@ -21,18 +23,33 @@ import lombok.Synchronized;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.concurrent.GuardedBy;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
 final public class RamBenchmark implements Benchmark, RamRegistry {
-    private final int idleMS;
+    private final IdleStrategy idleStrategy;
     private final Time time;
     private final int reportingIntervalMS;
     private final RamPeriodicRecorder window;
+    private final RamIngestStats ingestStats;
     private final ConcurrentLinkedQueue<LatenciesRecord>[] cQueues;
+    private final boolean parallelMerge;
+    private final List<RamPartialWindow> partialWindows;
+    private final ThreadLocal<RamPartialWindow> partialWindow;
+    private final boolean alignedWindows;
+    private final int alignedGraceMS;
+    private final ReportWindowIndex reportWindowIndex;
+    private final ConcurrentSkipListMap<Long, RamPartialWindow> alignedPartialWindows;
+    private final LongAdder alignedLateRecords;
+    private volatile long nextWindowIndex;
     private final AtomicLong counter;
     private final CompletableFuture<Void> retFuture;
 
@@ -42,22 +59,37 @@ final public class RamBenchmark implements Benchmark, RamRegistry {
     @GuardedBy("this")
     private CompletableFuture<Void> qFuture;
 
-    public RamBenchmark(int maxQueue, int idleMS, Time time, RamPeriodicRecorder window, int reportingIntervalMS) {
-        this.idleMS = idleMS;
+    public RamBenchmark(int maxQueue, boolean parallelMerge, boolean alignedWindows, int alignedGraceMS,
+                        ReportWindowIndex reportWindowIndex, IdleStrategy idleStrategy, Time time, RamPeriodicRecorder window, int reportingIntervalMS) {
+        this.idleStrategy = idleStrategy;
         this.window = window;
+        this.ingestStats = new RamIngestStats();
         this.time = time;
         this.reportingIntervalMS = reportingIntervalMS;
         this.cQueues = new ConcurrentLinkedQueue[maxQueue];
         for (int i = 0; i < cQueues.length; i++) {
             cQueues[i] = new ConcurrentLinkedQueue<>();
         }
+        this.parallelMerge = parallelMerge;
+        this.partialWindows = new CopyOnWriteArrayList<>();
+        this.partialWindow = ThreadLocal.withInitial(() -> {
+            final RamPartialWindow partial = new RamPartialWindow();
+            partialWindows.add(partial);
+            return partial;
+        });
+        this.alignedWindows = alignedWindows;
+        this.alignedGraceMS = alignedGraceMS;
+        this.reportWindowIndex = reportWindowIndex;
+        this.alignedPartialWindows = new ConcurrentSkipListMap<>();
+        this.alignedLateRecords = new LongAdder();
+        this.nextWindowIndex = System.currentTimeMillis() / reportingIntervalMS;
         this.counter = new AtomicLong(0);
         this.retFuture = new CompletableFuture<>();
         this.state = State.BEGIN;
         this.qFuture = null;
     }
 
-    void run() throws InterruptedException {
+    void run() {
         LatenciesRecord record;
         boolean doWork = true;
         boolean notFound;
@@ -65,6 +97,11 @@ final public class RamBenchmark implements Benchmark, RamRegistry {
         long currentTime = time.getCurrentTime();
         window.start(currentTime);
         window.startWindow(currentTime);
+        if (alignedWindows) {
+            nextWindowIndex = System.currentTimeMillis() / reportingIntervalMS;
+            Printer.log.info("LatenciesRecord Benchmark, windows aligned to the wall clock, grace period: "
+                    + alignedGraceMS + " ms");
+        }
         while (doWork) {
             notFound = true;
             for (ConcurrentLinkedQueue<LatenciesRecord> queue : cQueues) {
@@ -79,28 +116,113 @@ final public class RamBenchmark implements Benchmark, RamRegistry {
                 }
             }
             if (notFound) {
-                Thread.sleep(idleMS);
+                idleStrategy.idle();
+            } else {
+                idleStrategy.reset();
             }
 
             currentTime = time.getCurrentTime();
-            if (window.elapsedMilliSecondsWindow(currentTime) > reportingIntervalMS) {
+            if (alignedWindows) {
+                final long nowMS = System.currentTimeMillis();
+                while ((nextWindowIndex + 1) * reportingIntervalMS + alignedGraceMS <= nowMS) {
+                    mergeAlignedWindows(currentTime, nextWindowIndex);
+                    /* several windows are printed one after the other, if the reporting thread is late */
+                    reportWindowIndex.reportWindowIndex(nextWindowIndex);
+                    nextWindowIndex = nextWindowIndex + 1;
+                    window.stopWindow(currentTime);
+                    ingestStats.print();
+                    printAlignedLateRecords();
+                    window.startWindow(currentTime);
+                }
+            } else if (window.elapsedMilliSecondsWindow(currentTime) > reportingIntervalMS) {
+                mergePartialWindows(currentTime);
                 window.stopWindow(currentTime);
+                ingestStats.print();
                 window.startWindow(currentTime);
             }
         }
+        mergePartialWindows(currentTime);
+        mergeAlignedWindows(currentTime, Long.MAX_VALUE);
+        if (alignedWindows) {
+            reportWindowIndex.reportWindowIndex(nextWindowIndex);
+        }
         window.stop(currentTime);
     }
 
+    /**
+     * Merge the aligned partial windows up to the window index; the partial windows of the indexes lower than
+     * the window index are the windows created by the latency records which arrived while they were merged.
+     */
+    private void mergeAlignedWindows(long currentTime, long windowIndex) {
+        final Map<Long, RamPartialWindow> windows = alignedPartialWindows.headMap(windowIndex, true);
+        for (Map.Entry<Long, RamPartialWindow> entry : windows.entrySet()) {
+            entry.getValue().mergeAndClose(window);
+            windows.remove(entry.getKey());
+            window.checkWindowFullAndReset(currentTime);
+        }
+    }
+
+    private void printAlignedLateRecords() {
+        final long late = alignedLateRecords.sumThenReset();
+        if (late > 0) {
+            Printer.log.warn("Aligned Windows: " + late + " latency records arrived after the grace period of "
+                    + alignedGraceMS + " ms; merged into the next window");
+        }
+    }
+
+    /**
+     * Add the latency record to the partial window of its window index; the latency records without the window
+     * index are added to the window of the current wall clock time.
+     */
+    private void addAligned(LatenciesRecord record) {
+        long index = record.getWindowIndex() > 0 ? record.getWindowIndex()
+                : System.currentTimeMillis() / reportingIntervalMS;
+        while (true) {
+            final long next = nextWindowIndex;
+            if (index < next) {
+                alignedLateRecords.increment();
+                index = next;
+            }
+            if (alignedPartialWindows.computeIfAbsent(index, k -> new RamPartialWindow()).add(record)) {
+                return;
+            }
+        }
+    }
+
+    private void mergePartialWindows(long currentTime) {
+        for (RamPartialWindow partial : partialWindows) {
+            partial.mergeTo(window);
+            window.checkWindowFullAndReset(currentTime);
+        }
+    }
+
 
     @Override
     public long getID() {
         return counter.incrementAndGet();
     }
 
+    @Override
+    public void closeClient(long id) {
+        ingestStats.close(id);
+    }
+
     @Override
     public void enQueue(@NotNull LatenciesRecord record) {
+        if (!ingestStats.record(record)) {
+            return;
+        }
+        if (alignedWindows) {
+            addAligned(record);
+            return;
+        }
+        if (parallelMerge) {
+            partialWindow.get().add(record);
+            return;
+        }
         final int index = (int) (record.getClientID() % cQueues.length);
         cQueues[index].add(record);
+        idleStrategy.signal();
     }
 
     @Synchronized
@@ -111,6 +233,7 @@ final public class RamBenchmark implements Benchmark, RamRegistry {
                 if (!qFuture.isDone()) {
                     try {
                         cQueues[0].add(LatenciesRecord.newBuilder().setSequenceNumber(-1).build());
+                        idleStrategy.signal();
                         qFuture.get();
                         for (ConcurrentLinkedQueue<LatenciesRecord> queue : cQueues) {
                             queue.clear();
@@ -137,13 +260,7 @@ final public class RamBenchmark implements Benchmark, RamRegistry {
     public CompletableFuture<Void> start() throws IllegalStateException {
         if (state == State.BEGIN) {
             state = State.RUN;
-            qFuture = CompletableFuture.runAsync(() -> {
-                try {
-                    run();
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            });
+            qFuture = CompletableFuture.runAsync(this::run);
             qFuture.whenComplete((ret, ex) -> {
                 shutdown(ex);
             });
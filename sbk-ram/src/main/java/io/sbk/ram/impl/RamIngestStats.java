@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.system.Printer;
+import lombok.Synchronized;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Class for the ingest rate of the latency records, the lag of every SBK client and the sequence numbers of
+ * the latency records of every SBK client.
+ * The lag is the difference between the wall clock time of SBK RAM, when the latency record is received,
+ * and the wall clock time of the client, when the latency record is sent; so it includes the clock skew
+ * between the hosts. The clients which do not send the report time are not included in the lag.
+ * The sequence numbers of a client are checked against a window of the last {@link Client#SEQUENCE_WINDOW}
+ * sequence numbers: a skipped sequence number is missing until it arrives late, and a sequence number
+ * received twice is a duplicate, which is not recorded.
+ * The closed clients are removed after their statistics are logged.
+ */
+@ThreadSafe
+final class RamIngestStats {
+    final private static int MAX_CLIENTS_PRINT = 5;
+    final private ConcurrentHashMap<Long, Client> clients;
+    final private LongAdder latenciesRecords;
+    final private LongAdder latencies;
+    private long windowStartNS;
+
+    RamIngestStats() {
+        this.clients = new ConcurrentHashMap<>();
+        this.latenciesRecords = new LongAdder();
+        this.latencies = new LongAdder();
+        this.windowStartNS = System.nanoTime();
+    }
+
+    /**
+     * Record the reception of the latency record.
+     * This Method is Thread Safe.
+     *
+     * @param record latency record
+     * @return false if the latency record is a duplicate, which should not be recorded.
+     */
+    boolean record(LatenciesRecord record) {
+        final Client client = clients.computeIfAbsent(record.getClientID(), Client::new);
+        if (!client.record(record.getSequenceNumber(), record.getReportTime())) {
+            return false;
+        }
+        latenciesRecords.increment();
+        latencies.add(record.getTotalRecords());
+        return true;
+    }
+
+    /**
+     * Mark the client as closed; the client is removed after its statistics are logged by the next
+     * {@link RamIngestStats#print()}.
+     * This Method is Thread Safe.
+     *
+     * @param id client id
+     */
+    void close(long id) {
+        final Client client = clients.get(id);
+        if (client != null) {
+            client.closed = true;
+        }
+    }
+
+    /**
+     * Log the ingest rate, the client lags and the sequence errors since the last call, and start a new window.
+     * Invoked by the reporting thread only.
+     */
+    void print() {
+        final long nowNS = System.nanoTime();
+        final double seconds = Math.max(1, nowNS - windowStartNS) / (PerlConfig.NS_PER_SEC * 1.0);
+        windowStartNS = nowNS;
+        final long recordsCnt = latenciesRecords.sumThenReset();
+        final long latenciesCnt = latencies.sumThenReset();
+        final StringBuilder out = new StringBuilder(String.format("Ingest: %d latency records, %.1f records/sec, " +
+                "%d latencies, %.1f latencies/sec", recordsCnt, recordsCnt / seconds, latenciesCnt,
+                latenciesCnt / seconds));
+
+        final List<long[]> lags = new ArrayList<>();
+        long missing = 0;
+        long late = 0;
+        long duplicates = 0;
+        final List<Long> missingClients = new ArrayList<>();
+        for (Client client : clients.values()) {
+            if (client.closed) {
+                clients.remove(client.id, client);
+            }
+            final long[] stats = client.getAndReset();
+            if (stats[Client.LAG_COUNT] > 0) {
+                lags.add(stats);
+            }
+            if (stats[Client.MISSING] > 0) {
+                missingClients.add(client.id);
+            }
+            missing += stats[Client.MISSING];
+            late += stats[Client.LATE];
+            duplicates += stats[Client.DUPLICATES];
+        }
+        if (lags.size() > 0) {
+            long lagSum = 0;
+            long lagCount = 0;
+            long maxLag = Long.MIN_VALUE;
+            for (long[] stats : lags) {
+                lagSum += stats[Client.LAG_SUM];
+                lagCount += stats[Client.LAG_COUNT];
+                maxLag = Math.max(maxLag, stats[Client.MAX_LAG]);
+            }
+            out.append(String.format("; Client Lag: %d clients, %.1f ms avg, %d ms max; highest: ",
+                    lags.size(), (lagSum * 1.0) / lagCount, maxLag));
+            out.append(lags.stream()
+                    .sorted((a, b) -> Long.compare(b[Client.MAX_LAG], a[Client.MAX_LAG]))
+                    .limit(MAX_CLIENTS_PRINT)
+                    .map(stats -> "client " + stats[Client.ID] + ": " + stats[Client.MAX_LAG] + " ms")
+                    .collect(Collectors.joining(", ")));
+        }
+        Printer.log.info(out.toString());
+        if (missing > 0 || late > 0 || duplicates > 0) {
+            Printer.log.warn(String.format("Latency Records Sequence: %d missing, %d late, %d duplicates; " +
+                            "clients with missing records: %s", missing, late, duplicates,
+                    missingClients.stream().limit(MAX_CLIENTS_PRINT).map(String::valueOf)
+                            .collect(Collectors.joining(", "))));
+        }
+    }
+
+
+    final static class Client {
+        final static int SEQUENCE_WINDOW = Long.SIZE;
+        final static int ID = 0;
+        final static int LAG_SUM = 1;
+        final static int LAG_COUNT = 2;
+        final static int MAX_LAG = 3;
+        final static int MISSING = 4;
+        final static int LATE = 5;
+        final static int DUPLICATES = 6;
+
+        final private long id;
+
+        private volatile boolean closed;
+
+        @GuardedBy("this")
+        private long highest;
+
+        /* bit i is set if the sequence number (highest - i) is received */
+        @GuardedBy("this")
+        private long received;
+
+        @GuardedBy("this")
+        private long missing;
+
+        @GuardedBy("this")
+        private long late;
+
+        @GuardedBy("this")
+        private long duplicates;
+
+        @GuardedBy("this")
+        private long lagSum;
+
+        @GuardedBy("this")
+        private long lagCount;
+
+        @GuardedBy("this")
+        private long maxLag;
+
+        Client(long id) {
+            this.id = id;
+            this.highest = 0;
+            this.received = 1;
+            this.maxLag = Long.MIN_VALUE;
+            this.closed = false;
+        }
+
+        @Synchronized
+        boolean record(long sequenceNumber, long reportTime) {
+            if (sequenceNumber > highest) {
+                final long gap = sequenceNumber - highest;
+                missing += gap - 1;
+                received = gap < SEQUENCE_WINDOW ? (received << gap) | 1 : 1;
+                highest = sequenceNumber;
+            } else {
+                final long distance = highest - sequenceNumber;
+                if (distance < SEQUENCE_WINDOW) {
+                    final long bit = 1L << distance;
+                    if ((received & bit) != 0) {
+                        duplicates++;
+                        return false;
+                    }
+                    received |= bit;
+                }
+                missing = Math.max(0, missing - 1);
+                late++;
+            }
+            if (reportTime > 0) {
+                final long lag = System.currentTimeMillis() - reportTime;
+                lagSum += lag;
+                lagCount++;
+                maxLag = Math.max(maxLag, lag);
+            }
+            return true;
+        }
+
+        /**
+         * Get the lag, late and duplicate counts since the last call, and the missing count.
+         *
+         * @return counts indexed by the index constants
+         */
+        @Synchronized
+        long[] getAndReset() {
+            final long[] ret = new long[]{id, lagSum, lagCount, maxLag, missing, late, duplicates};
+            lagSum = 0;
+            lagCount = 0;
+            maxLag = Long.MIN_VALUE;
+            late = 0;
+            duplicates = 0;
+            return ret;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import io.sbk.config.PerlConfig;
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.perl.LatencyRecorder;
+import io.sbk.perl.impl.LongLongHashMap;
+import io.sbk.ram.RamPeriodicRecorder;
+import lombok.Synchronized;
+
+import javax.annotation.concurrent.GuardedBy;
+import java.util.HashMap;
+
+/**
+ * Class for the partial window of the latency records received by one GRPC thread.
+ * The GRPC thread decodes its latency records into the partial window, and the reporting thread
+ * merges the partial windows into the current window at the end of every reporting interval;
+ * the lock is contended only while the partial window is merged.
+ */
+final class RamPartialWindow {
+    final private static int LATENCIES_INITIAL_ENTRIES = 1024;
+
+    @GuardedBy("this")
+    final private LatencyRecorder recorder;
+
+    @GuardedBy("this")
+    final private LongLongHashMap latencies;
+
+    @GuardedBy("this")
+    final private HashMap<Long, int[]> clientRW;
+
+    @GuardedBy("this")
+    private boolean closed;
+
+    RamPartialWindow() {
+        this.recorder = new LatencyRecorder(0, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                PerlConfig.LONG_MAX, PerlConfig.LONG_MAX);
+        this.latencies = new LongLongHashMap(LATENCIES_INITIAL_ENTRIES);
+        this.clientRW = new HashMap<>();
+        this.closed = false;
+    }
+
+    /**
+     * Add the latency record.
+     *
+     * @param record latency record
+     * @return false if the partial window is closed, and the latency record is not added.
+     */
+    @Synchronized
+    boolean add(LatenciesRecord record) {
+        if (closed) {
+            return false;
+        }
+        recorder.update(record.getTotalRecords(), record.getTotalLatency(), record.getTotalBytes(),
+                record.getInvalidLatencyRecords(), record.getLowerLatencyDiscardRecords(),
+                record.getHigherLatencyDiscardRecords(), record.getValidLatencyRecords(), record.getMaxLatency());
+        final int packedCount = record.getLatencyDeltasCount();
+        long latency = 0;
+        for (int i = 0; i < packedCount; i++) {
+            latency += record.getLatencyDeltas(i);
+            latencies.add(latency, record.getLatencyCounts(i));
+        }
+        record.getLatencyMap().forEach(latencies::add);
+        final int[] rw = clientRW.computeIfAbsent(record.getClientID(), k -> new int[4]);
+        rw[0] = Math.max(rw[0], record.getReaders());
+        rw[1] = Math.max(rw[1], record.getWriters());
+        rw[2] = Math.max(rw[2], record.getMaxReaders());
+        rw[3] = Math.max(rw[3], record.getMaxWriters());
+        return true;
+    }
+
+    /**
+     * Merge the partial window into the window and reset the partial window.
+     *
+     * @param window window to merge
+     */
+    @Synchronized
+    void mergeTo(RamPeriodicRecorder window) {
+        merge(window);
+    }
+
+    /**
+     * Merge the partial window into the window and close the partial window; the latency records are not added
+     * to the partial window after this call.
+     *
+     * @param window window to merge
+     */
+    @Synchronized
+    void mergeAndClose(RamPeriodicRecorder window) {
+        merge(window);
+        closed = true;
+    }
+
+    private void merge(RamPeriodicRecorder window) {
+        if (clientRW.isEmpty()) {
+            return;
+        }
+        window.mergeLatencyRecord(recorder);
+        for (long latency : latencies.sortedKeys()) {
+            window.mergeLatency(latency, latencies.get(latency));
+        }
+        clientRW.forEach((id, rw) -> window.mergeRW(id, rw[0], rw[1], rw[2], rw[3]));
+        recorder.reset();
+        latencies.clear();
+        clientRW.clear();
+    }
+}
@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import com.google.protobuf.Empty;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.sbk.action.Action;
+import io.sbk.config.PerlConfig;
+import io.sbk.grpc.ClientID;
+import io.sbk.grpc.Config;
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.grpc.ServiceGrpc;
+import io.sbk.logger.RamLogger;
+import io.sbk.logger.SetRW;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.perl.LatencyRecorder;
+import io.sbk.perl.Print;
+import io.sbk.perl.ReportLatencies;
+import io.sbk.perl.ReportWindowIndex;
+import io.sbk.perl.impl.LongLongHashMap;
+import io.sbk.system.Printer;
+import io.sbk.time.Time;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class for relaying the latency records of SBK RAM to a parent SBK RAM.
+ * The relay is the window logger of this SBK RAM: it forwards the latencies, the totals and the readers/writers
+ * of every window to the RAM logger and sends them as pre-aggregated latency records to the parent SBK RAM,
+ * which counts this SBK RAM as one client. The latencies of a window are split into multiple latency records
+ * of at most maxRecordSizeMB, and the totals of the window are sent in the first latency record only.
+ * If the windows are aligned, the latency records carry the window index reported by the RAM benchmark.
+ * So, a tree of SBK RAM instances aggregates the latency records of any number of SBK instances,
+ * and the parent SBK RAM sums the readers/writers of its child SBK RAMs.
+ * All the methods except open and close are invoked by the reporting thread only.
+ */
+@NotThreadSafe
+final public class RamRelay implements Print, ReportLatencies, SetRW, ReportWindowIndex {
+    final private static int LATENCIES_INITIAL_ENTRIES = 1024;
+    final private static int CLOSE_TIMEOUT_SECONDS = 5;
+    final private static int LATENCY_MAP_BYTES = 16;
+    final private static int PACKED_LATENCY_BYTES = 6;
+
+    final private RamLogger logger;
+    final private String host;
+    final private int port;
+    final private int maxLatencyBytes;
+    final private LatencyRecorder recorder;
+    final private LongLongHashMap latencies;
+    private int readers;
+    private int writers;
+    private int maxReaders;
+    private int maxWriters;
+    private long windowIndex;
+    private ManagedChannel channel;
+    private ServiceGrpc.ServiceBlockingStub blockingStub;
+    private StreamObserver<LatenciesRecord> recordsStream;
+    private boolean packed;
+    private int maxLatencies;
+    private long clientID;
+    private long seqNum;
+
+    /**
+     * Create the relay.
+     *
+     * @param logger          RAM logger to forward the windows
+     * @param host            parent SBK RAM host
+     * @param port            parent SBK RAM port
+     * @param maxRecordSizeMB maximum size of a latency record sent to the parent SBK RAM in MB
+     */
+    public RamRelay(RamLogger logger, String host, int port, int maxRecordSizeMB) {
+        this.logger = logger;
+        this.host = host;
+        this.port = port;
+        this.maxLatencyBytes = Math.max(1, maxRecordSizeMB) * PerlConfig.BYTES_PER_MB;
+        this.recorder = new LatencyRecorder(0, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                PerlConfig.LONG_MAX, PerlConfig.LONG_MAX);
+        this.latencies = new LongLongHashMap(LATENCIES_INITIAL_ENTRIES);
+    }
+
+    /**
+     * Connect and register to the parent SBK RAM.
+     *
+     * @param storageName storage name
+     * @param action      action
+     * @param time        time interface
+     * @param maxLatency  maximum latency of this SBK RAM
+     * @throws IOException              if the parent SBK RAM is not reachable
+     * @throws IllegalArgumentException if the parent SBK RAM benchmarks another storage, action or time unit
+     */
+    public void open(String storageName, Action action, Time time, long maxLatency) throws IOException,
+            IllegalArgumentException {
+        channel = ManagedChannelBuilder.forTarget(host + ":" + port).usePlaintext().build();
+        blockingStub = ServiceGrpc.newBlockingStub(channel);
+        final Config config;
+        try {
+            config = blockingStub.getConfig(Empty.newBuilder().build());
+        } catch (StatusRuntimeException ex) {
+            ex.printStackTrace();
+            throw new IOException("GRPC GetConfig of the parent SBK RAM failed");
+        }
+        if (!config.getStorageName().equalsIgnoreCase(storageName)) {
+            throw new IllegalArgumentException("Parent SBK RAM storage name : " + config.getStorageName()
+                    + " ,Supplied storage name: " + storageName + " are not same!");
+        }
+        if (!config.getAction().name().equalsIgnoreCase(action.name())) {
+            throw new IllegalArgumentException("Parent SBK RAM action: " + config.getAction().name()
+                    + " ,Supplied action : " + action.name() + " are not same!");
+        }
+        if (!config.getTimeUnit().name().equalsIgnoreCase(time.getTimeUnit().name())) {
+            throw new IllegalArgumentException("Parent SBK RAM Time Unit: " + config.getTimeUnit().name()
+                    + " ,Supplied Time Unit : " + time.getTimeUnit().name() + " are not same!");
+        }
+        if (config.getMaxLatency() < maxLatency) {
+            Printer.log.warn("Parent SBK RAM, max latency : " + config.getMaxLatency()
+                    + ", local max latency: " + maxLatency + "; the higher latencies are discarded by the parent");
+        }
+        try {
+            clientID = blockingStub.registerClient(config).getId();
+        } catch (StatusRuntimeException ex) {
+            ex.printStackTrace();
+            throw new IOException("GRPC registerClient of the parent SBK RAM failed");
+        }
+        seqNum = 0;
+        packed = config.getPackedLatencies();
+        maxLatencies = maxLatencyBytes / (packed ? PACKED_LATENCY_BYTES : LATENCY_MAP_BYTES);
+        recordsStream = config.getStreaming() ?
+                ServiceGrpc.newStub(channel).streamLatenciesRecords(new StreamObserver<>() {
+                    @Override
+                    public void onNext(Empty value) {
+
+                    }
+
+                    @Override
+                    public void onError(Throwable ex) {
+                        Printer.log.error("SBK RAM Relay, latency records stream failed: " + ex);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+
+                    }
+                }) : null;
+        Printer.log.info("SBK RAM Relay Started, parent: " + host + ":" + port + ", client ID: " + clientID);
+    }
+
+    /**
+     * Close the stream and deregister from the parent SBK RAM.
+     */
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (recordsStream != null) {
+                recordsStream.onCompleted();
+            }
+            blockingStub.closeClient(ClientID.newBuilder().setId(clientID).build());
+            channel.shutdown().awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (StatusRuntimeException | InterruptedException ex) {
+            ex.printStackTrace();
+        }
+        channel = null;
+        Printer.log.info("SBK RAM Relay Shutdown");
+    }
+
+    @Override
+    public void reportLatencyRecord(LatencyRecord record) {
+        logger.reportLatencyRecord(record);
+        recorder.update(record);
+    }
+
+    @Override
+    public void reportLatency(long latency, long count) {
+        logger.reportLatency(latency, count);
+        latencies.add(latency, count);
+    }
+
+    @Override
+    public void setWriters(int val) {
+        logger.setWriters(val);
+        writers = val;
+    }
+
+    @Override
+    public void setMaxWriters(int val) {
+        logger.setMaxWriters(val);
+        maxWriters = val;
+    }
+
+    @Override
+    public void setReaders(int val) {
+        logger.setReaders(val);
+        readers = val;
+    }
+
+    @Override
+    public void setMaxReaders(int val) {
+        logger.setMaxReaders(val);
+        maxReaders = val;
+    }
+
+    @Override
+    public void reportWindowIndex(long windowIndex) {
+        this.windowIndex = windowIndex;
+    }
+
+    @Override
+    public void print(double seconds, long bytes, long records, double recsPerSec, double mbPerSec, double avgLatency,
+                      long maxLatency, long invalid, long lowerDiscard, long higherDiscard,
+                      long slc1, long slc2, long[] percentileValues) {
+        logger.print(seconds, bytes, records, recsPerSec, mbPerSec, avgLatency, maxLatency, invalid, lowerDiscard,
+                higherDiscard, slc1, slc2, percentileValues);
+        if (channel != null) {
+            sendLatenciesRecord();
+        }
+        recorder.reset();
+        latencies.clear();
+    }
+
+    private void sendLatenciesRecord() {
+        final long reportTime = System.currentTimeMillis();
+        LatenciesRecord.Builder builder = newLatenciesRecord(reportTime);
+        builder.setMaxLatency(recorder.getMaxLatency());
+        builder.setTotalLatency(recorder.getTotalLatency());
+        builder.setInvalidLatencyRecords(recorder.getInvalidLatencyRecords());
+        builder.setTotalBytes(recorder.getTotalBytes());
+        builder.setTotalRecords(recorder.getTotalRecords());
+        builder.setHigherLatencyDiscardRecords(recorder.getHigherLatencyDiscardRecords());
+        builder.setLowerLatencyDiscardRecords(recorder.getLowerLatencyDiscardRecords());
+        builder.setValidLatencyRecords(recorder.getValidLatencyRecords());
+        int count = 0;
+        long prev = 0;
+        for (long latency : latencies.sortedKeys()) {
+            if (count == maxLatencies) {
+                if (!send(builder)) {
+                    return;
+                }
+                /* the next latency record of the same window carries only the latencies */
+                builder = newLatenciesRecord(reportTime);
+                count = 0;
+                prev = 0;
+            }
+            if (packed) {
+                builder.addLatencyDeltas(latency - prev);
+                builder.addLatencyCounts(latencies.get(latency));
+                prev = latency;
+            } else {
+                builder.putLatency(latency, latencies.get(latency));
+            }
+            count++;
+        }
+        send(builder);
+    }
+
+    private LatenciesRecord.Builder newLatenciesRecord(long reportTime) {
+        final LatenciesRecord.Builder builder = LatenciesRecord.newBuilder();
+        builder.setClientID(clientID);
+        builder.setSequenceNumber(++seqNum);
+        builder.setReaders(readers);
+        builder.setWriters(writers);
+        builder.setMaxReaders(maxReaders);
+        builder.setMaxWriters(maxWriters);
+        builder.setReportTime(reportTime);
+        builder.setWindowIndex(windowIndex);
+        return builder;
+    }
+
+    private boolean send(LatenciesRecord.Builder builder) {
+        try {
+            if (recordsStream != null) {
+                recordsStream.onNext(builder.build());
+            } else {
+                blockingStub.addLatenciesRecord(builder.build());
+            }
+        } catch (StatusRuntimeException ex) {
+            Printer.log.error("SBK RAM Relay, sending latency record failed: " + ex);
+            return false;
+        }
+        return true;
+    }
+}
@@ -70,9 +70,30 @@ final public class RamTotalWindowLatencyPeriodicRecorder extends TotalLatencyRec
                 record.getInvalidLatencyRecords(), record.getLowerLatencyDiscardRecords(),
                 record.getHigherLatencyDiscardRecords(), record.getValidLatencyRecords(), record.getMaxLatency());
 
+        final int packedCount = record.getLatencyDeltasCount();
+        long latency = 0;
+        for (int i = 0; i < packedCount; i++) {
+            latency += record.getLatencyDeltas(i);
+            window.reportLatency(latency, record.getLatencyCounts(i));
+        }
         record.getLatencyMap().forEach(window::reportLatency);
     }
 
+    @Override
+    public void mergeLatencyRecord(LatencyRecord record) {
+        window.update(record);
+    }
+
+    @Override
+    public void mergeLatency(long latency, long count) {
+        window.reportLatency(latency, count);
+    }
+
+    @Override
+    public void mergeRW(long clientID, int readers, int writers, int maxReaders, int maxWriters) {
+        addRW(clientID, readers, writers, maxReaders, maxWriters);
+    }
+
     public void flush(long currentTime) {
         final RW rwStore = new RW();
         sumRW(rwStore);
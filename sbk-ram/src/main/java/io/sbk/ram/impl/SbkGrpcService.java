@@ -18,6 +18,7 @@ import io.sbk.grpc.ServiceGrpc;
 import io.sbk.logger.CountConnections;
 import io.sbk.ram.RamParameters;
 import io.sbk.ram.RamRegistry;
+import io.sbk.system.Printer;
 import io.sbk.time.Time;
 import org.jetbrains.annotations.NotNull;
 
@@ -42,6 +43,8 @@ final public class SbkGrpcService extends ServiceGrpc.ServiceImplBase {
         builder.setTimeUnitValue(time.getTimeUnit().ordinal());
         builder.setMaxLatency(maxLatency);
         builder.setMinLatency(minLatency);
+        builder.setStreaming(true);
+        builder.setPackedLatencies(true);
         config = builder.build();
         this.params = params;
         this.countConnections = countConnections;
@@ -87,11 +90,34 @@ final public class SbkGrpcService extends ServiceGrpc.ServiceImplBase {
         }
     }
 
+    @Override
+    public io.grpc.stub.StreamObserver<io.sbk.grpc.LatenciesRecord> streamLatenciesRecords(
+            io.grpc.stub.StreamObserver<com.google.protobuf.Empty> responseObserver) {
+        return new io.grpc.stub.StreamObserver<>() {
+            @Override
+            public void onNext(io.sbk.grpc.LatenciesRecord record) {
+                registry.enQueue(record);
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+                Printer.log.warn("SBK GRPC Server, latency records stream failed: " + ex);
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onNext(Empty.newBuilder().build());
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
     @Override
     public void closeClient(io.sbk.grpc.ClientID request,
                             io.grpc.stub.StreamObserver<com.google.protobuf.Empty> responseObserver) {
         countConnections.decrementConnections();
         connections.decrementAndGet();
+        registry.closeClient(request.getId());
         if (responseObserver != null) {
             responseObserver.onNext(Empty.newBuilder().build());
             responseObserver.onCompleted();
@@ -19,10 +19,14 @@ import io.sbk.config.RamConfig;
 import io.sbk.grpc.LatenciesRecord;
 import io.sbk.logger.RamLogger;
 import io.sbk.perl.LatencyRecordWindow;
+import io.sbk.perl.ReportWindowIndex;
 import io.sbk.perl.impl.ArrayLatencyRecorder;
 import io.sbk.perl.impl.CSVExtendedLatencyRecorder;
 import io.sbk.perl.impl.HashMapLatencyRecorder;
 import io.sbk.perl.impl.HdrExtendedLatencyRecorder;
+import io.sbk.perl.impl.IdleStrategies;
+import io.sbk.perl.impl.LogLinearLatencyRecorder;
+import io.sbk.perl.impl.MMapExtendedLatencyRecorder;
 import io.sbk.ram.RamParameterOptions;
 import io.sbk.ram.RamPeriodicRecorder;
 import io.sbk.state.State;
@@ -53,6 +57,7 @@ final public class SbkRamBenchmark implements Benchmark {
     final private Server server;
     final private SbkGrpcService service;
     final private RamBenchmark benchmark;
+    final private RamRelay relay;
     final private double[] percentileFractions;
     final private CompletableFuture<Void> retFuture;
 
@@ -83,8 +88,15 @@ final public class SbkRamBenchmark implements Benchmark {
         }
 
         queue = new LinkedBlockingQueue<>();
+        relay = params.getRelayHost() != null ? new RamRelay(logger, params.getRelayHost(), params.getRelayPort(),
+                ramConfig.relayMaxRecordSizeMB) : null;
         latencyRecorder = createLatencyRecorder();
-        benchmark = new RamBenchmark(ramConfig.maxQueues, ramConfig.idleMS, time, latencyRecorder,
+        final ReportWindowIndex reportWindowIndex = relay != null ? relay : windowIndex -> {
+        };
+        benchmark = new RamBenchmark(ramConfig.maxQueues, ramConfig.parallelMerge, ramConfig.alignedWindows,
+                ramConfig.alignedGraceMS, reportWindowIndex,
+                IdleStrategies.create(ramConfig.idleStrategy, (long) ramConfig.idleMS * PerlConfig.NS_PER_MS),
+                time, latencyRecorder,
                 logger.getReportingIntervalSeconds() * PerlConfig.MS_PER_SEC);
         service = new SbkGrpcService(params, time, logger.getMinLatency(), logger.getMaxLatency(), logger, benchmark);
         server = ServerBuilder.forPort(params.getRamPort()).addService(service).directExecutor().build();
@@ -103,6 +115,12 @@ final public class SbkRamBenchmark implements Benchmark {
                     PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions, time);
             Printer.log.info("Window Latency Store: Array, Size: " +
                     window.getMaxMemoryBytes() / PerlConfig.BYTES_PER_MB + " MB");
+        } else if (ramConfig.logLinear) {
+            window = new LogLinearLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
+                    PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions,
+                    time, ramConfig.logLinearDigits);
+            Printer.log.info(String.format("Window Latency Store: LogLinear, Significant Digits: %d, Size: %.2f KB",
+                    ramConfig.logLinearDigits, (window.getMaxMemoryBytes() * 1.0) / PerlConfig.BYTES_PER_KB));
         } else {
             window = new HashMapLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
                     PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX, percentileFractions, time,
@@ -139,11 +157,22 @@ final public class SbkRamBenchmark implements Benchmark {
                     Config.NAME + "-" + String.format("%06d", new Random().nextInt(1000000)) + ".csv");
             Printer.log.info("Total Window Extension: CSV, Size: " +
                     totalWindowExtension.getMaxMemoryBytes() / PerlConfig.BYTES_PER_GB + " GB");
+        } else if (ramConfig.mmap) {
+            totalWindowExtension = new MMapExtendedLatencyRecorder(logger.getMinLatency(), logger.getMaxLatency(),
+                    PerlConfig.TOTAL_LATENCY_MAX, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                    percentileFractions, time, totalWindow, ramConfig.mmapFileSizeGB,
+                    Config.NAME + "-" + String.format("%06d", new Random().nextInt(1000000)) + ".bin");
+            Printer.log.info("Total Window Extension: Memory Mapped File, Size: " +
+                    totalWindowExtension.getMaxMemoryBytes() / PerlConfig.BYTES_PER_GB + " GB");
         } else {
             totalWindowExtension = totalWindow;
             Printer.log.info("Total Window Extension: None, Size: 0 MB");
         }
 
+        if (relay != null) {
+            return new RamTotalWindowLatencyPeriodicRecorder(window, totalWindowExtension, relay, logger::printTotal,
+                    relay, relay);
+        }
         return new RamTotalWindowLatencyPeriodicRecorder(window, totalWindowExtension, logger, logger::printTotal,
                 logger, logger);
     }
@@ -174,6 +203,9 @@ final public class SbkRamBenchmark implements Benchmark {
         state = State.RUN;
         Printer.log.info("SBK RAM Benchmark Started");
         logger.open(params, params.getStorageName(), params.getAction(), time);
+        if (relay != null) {
+            relay.open(params.getStorageName(), params.getAction(), time, logger.getMaxLatency());
+        }
         benchmark.start();
         server.start();
         return retFuture;
@@ -192,6 +224,9 @@ final public class SbkRamBenchmark implements Benchmark {
             try {
                 server.shutdown();
                 benchmark.stop();
+                if (relay != null) {
+                    relay.close();
+                }
                 logger.close(params);
             } catch (IOException e) {
                 e.printStackTrace();
@@ -38,14 +38,25 @@ final public class SbkRamParameters extends SbkInputOptions implements RamParame
     @Getter
     private int ramPort;
 
+    @Getter
+    private String relayHost;
+
+    @Getter
+    private int relayPort;
+
     public SbkRamParameters(String name, int port, int maxConnections) {
         super(name, RamConfig.DESC);
         this.maxConnections = maxConnections;
         this.ramPort = port;
+        this.relayHost = null;
+        this.relayPort = port;
         addOption("class", true, "storage class name; run 'sbk -help' to see the list");
         addOption("action", true, "action [r: read, w: write, wr: write and read], default: r");
         addOption("ramport", true, "RAM port number; default: " + ramPort);
         addOption("max", true, "Maximum number of connections; default: " + maxConnections);
+        addOption("relay", true, "parent SBK RAM host to relay the aggregated latency records" +
+                "; 'no' disables this option, default: no");
+        addOption("relayport", true, "parent SBK RAM port number; default: " + relayPort);
     }
 
 
@@ -66,6 +77,15 @@ final public class SbkRamParameters extends SbkInputOptions implements RamParame
         };
         maxConnections = Integer.parseInt(getOptionValue("max", Integer.toString(maxConnections)));
         ramPort = Integer.parseInt(getOptionValue("ramport", Integer.toString(ramPort)));
+        relayHost = getOptionValue("relay", "no");
+        if (relayHost.equalsIgnoreCase("no")) {
+            relayHost = null;
+        }
+        relayPort = Integer.parseInt(getOptionValue("relayport", Integer.toString(relayPort)));
+        if (relayHost != null && relayPort == ramPort && (relayHost.equalsIgnoreCase("localhost")
+                || relayHost.equals("127.0.0.1"))) {
+            throw new IllegalArgumentException("SBK RAM relay port: " + relayPort + " is same as the RAM port");
+        }
     }
 
 }
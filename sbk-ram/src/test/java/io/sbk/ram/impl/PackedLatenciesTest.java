@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.ram.RamPeriodicRecorder;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the packed delta encoding of the latencies in the latency records.
+ */
+public class PackedLatenciesTest {
+
+    /**
+     * Encode the latencies as the SBK instances do: ascending latencies as the sint64 difference from
+     * the previous latency, with the count of each latency.
+     */
+    private static LatenciesRecord encode(TreeMap<Long, Long> latencies, boolean packed) {
+        final LatenciesRecord.Builder builder = LatenciesRecord.newBuilder().setClientID(1).setSequenceNumber(1);
+        long prev = 0;
+        for (Map.Entry<Long, Long> entry : latencies.entrySet()) {
+            if (packed) {
+                builder.addLatencyDeltas(entry.getKey() - prev);
+                builder.addLatencyCounts(entry.getValue());
+                prev = entry.getKey();
+            } else {
+                builder.putLatency(entry.getKey(), entry.getValue());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Serialize and parse the latency record, and decode its latencies as SBK RAM does.
+     */
+    private static TreeMap<Long, Long> roundTrip(LatenciesRecord record) throws InvalidProtocolBufferException {
+        final RamPartialWindow partial = new RamPartialWindow();
+        assertTrue(partial.add(LatenciesRecord.parseFrom(record.toByteArray())));
+        final TreeMap<Long, Long> decoded = new TreeMap<>();
+        partial.mergeTo((RamPeriodicRecorder) Proxy.newProxyInstance(RamPeriodicRecorder.class.getClassLoader(),
+                new Class<?>[]{RamPeriodicRecorder.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("mergeLatency")) {
+                        decoded.merge((Long) args[0], (Long) args[1], Long::sum);
+                    }
+                    return null;
+                }));
+        return decoded;
+    }
+
+    @Test
+    public void testNegativeLatencies() throws InvalidProtocolBufferException {
+        final TreeMap<Long, Long> latencies = new TreeMap<>();
+        final long[] values = {-1000000, -65, -64, -1, 0, 1, 63, 64, 1000000};
+        for (int i = 0; i < values.length; i++) {
+            latencies.put(values[i], (long) i + 1);
+        }
+        assertEquals(latencies, roundTrip(encode(latencies, true)));
+        assertEquals(latencies, roundTrip(encode(latencies, false)));
+    }
+
+    @Test
+    public void testExtremeLatencies() throws InvalidProtocolBufferException {
+        /* the deltas overflow, and the decoded sums wrap back to the latencies */
+        final TreeMap<Long, Long> latencies = new TreeMap<>();
+        latencies.put(Long.MIN_VALUE, 1L);
+        latencies.put(-1L, 2L);
+        latencies.put(Long.MAX_VALUE, 3L);
+        assertEquals(latencies, roundTrip(encode(latencies, true)));
+    }
+
+    @Test
+    public void testRandomLatencies() throws InvalidProtocolBufferException {
+        final Random random = new Random(1);
+        for (int trial = 0; trial < 100; trial++) {
+            final TreeMap<Long, Long> latencies = new TreeMap<>();
+            final int range = 1 << random.nextInt(30);
+            final int count = random.nextInt(1000) + 1;
+            for (int i = 0; i < count; i++) {
+                latencies.merge((long) random.nextInt(range) - range / 2, (long) random.nextInt(100) + 1,
+                        Long::sum);
+            }
+            assertEquals(latencies, roundTrip(encode(latencies, true)));
+        }
+    }
+
+    @Test
+    public void testPackedSize() {
+        /* dense latencies: one byte delta and one byte count per latency */
+        final TreeMap<Long, Long> latencies = new TreeMap<>();
+        for (long latency = -5000; latency < 5000; latency++) {
+            latencies.put(latency, 10L);
+        }
+        final LatenciesRecord packed = encode(latencies, true);
+        assertTrue(packed.getSerializedSize() < latencies.size() * 2 + 64);
+        assertTrue(packed.getSerializedSize() * 4 < encode(latencies, false).getSerializedSize());
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import io.sbk.grpc.LatenciesRecord;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the sequence number accounting of the SBK RAM clients.
+ */
+public class RamIngestStatsTest {
+
+    private static void checkStats(RamIngestStats.Client client, long missing, long late, long duplicates) {
+        final long[] stats = client.getAndReset();
+        assertEquals("missing", missing, stats[RamIngestStats.Client.MISSING]);
+        assertEquals("late", late, stats[RamIngestStats.Client.LATE]);
+        assertEquals("duplicates", duplicates, stats[RamIngestStats.Client.DUPLICATES]);
+    }
+
+    private static void record(RamIngestStats.Client client, long... sequenceNumbers) {
+        for (long sequenceNumber : sequenceNumbers) {
+            assertTrue(client.record(sequenceNumber, 0));
+        }
+    }
+
+    @Test
+    public void testInOrder() {
+        final RamIngestStats.Client client = new RamIngestStats.Client(1);
+        for (long seq = 1; seq <= 1000; seq++) {
+            assertTrue(client.record(seq, 0));
+        }
+        checkStats(client, 0, 0, 0);
+    }
+
+    @Test
+    public void testMissingAndLate() {
+        final RamIngestStats.Client client = new RamIngestStats.Client(1);
+        record(client, 1, 2, 5);
+        checkStats(client, 2, 0, 0);
+        /* the missing count is kept until the latency records arrive */
+        record(client, 3);
+        checkStats(client, 1, 1, 0);
+        record(client, 6, 4);
+        checkStats(client, 0, 1, 0);
+        checkStats(client, 0, 0, 0);
+    }
+
+    @Test
+    public void testDuplicates() {
+        final RamIngestStats.Client client = new RamIngestStats.Client(1);
+        record(client, 1, 2, 4);
+        assertFalse(client.record(2, 0));
+        assertFalse(client.record(4, 0));
+        record(client, 3);
+        assertFalse(client.record(3, 0));
+        checkStats(client, 0, 1, 3);
+        /* the duplicate counts are reset, after they are logged */
+        checkStats(client, 0, 0, 0);
+    }
+
+    @Test
+    public void testSequenceWindow() {
+        final RamIngestStats.Client client = new RamIngestStats.Client(1);
+        final int window = RamIngestStats.Client.SEQUENCE_WINDOW;
+        record(client, 1);
+        record(client, 2L + window * 2);
+        checkStats(client, window * 2, 0, 0);
+        /* within the window of the last sequence numbers, the duplicates are detected */
+        record(client, window * 2);
+        assertFalse(client.record(window * 2, 0));
+        checkStats(client, window * 2 - 1, 1, 1);
+        /* beyond the window, the latency records are late and the duplicates are not detected */
+        record(client, 2, 2);
+        checkStats(client, window * 2 - 3, 2, 0);
+    }
+
+    @Test
+    public void testDuplicateNotRecorded() {
+        final RamIngestStats stats = new RamIngestStats();
+        final LatenciesRecord record = LatenciesRecord.newBuilder().setClientID(1).setSequenceNumber(1)
+                .setTotalRecords(10).build();
+        assertTrue(stats.record(record));
+        assertFalse(stats.record(record));
+        assertTrue(stats.record(record.toBuilder().setClientID(2).build()));
+        stats.print();
+    }
+
+    @Test
+    public void testClosedClientRemoved() {
+        final RamIngestStats stats = new RamIngestStats();
+        final LatenciesRecord record = LatenciesRecord.newBuilder().setClientID(1).setSequenceNumber(1).build();
+        assertTrue(stats.record(record));
+        stats.close(1);
+        /* the client is removed only after its statistics are logged */
+        assertFalse(stats.record(record));
+        stats.print();
+        /* a new client with the same id starts a new sequence */
+        assertTrue(stats.record(record));
+    }
+}
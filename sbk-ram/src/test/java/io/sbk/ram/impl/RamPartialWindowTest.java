@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.perl.LatencyRecord;
+import io.sbk.ram.RamPeriodicRecorder;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the partial windows of the latency records merged by the GRPC threads.
+ */
+public class RamPartialWindowTest {
+
+    /**
+     * Window which keeps the merged totals, latencies and readers/writers.
+     */
+    private static final class MergedWindow {
+        final private TreeMap<Long, Long> latencies = new TreeMap<>();
+        final private Map<Long, int[]> clientRW = new HashMap<>();
+        private long totalRecords;
+        private long totalBytes;
+        private long maxLatency;
+
+        RamPeriodicRecorder recorder() {
+            return (RamPeriodicRecorder) Proxy.newProxyInstance(RamPeriodicRecorder.class.getClassLoader(),
+                    new Class<?>[]{RamPeriodicRecorder.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "mergeLatencyRecord" -> {
+                                final LatencyRecord record = (LatencyRecord) args[0];
+                                totalRecords += record.getTotalRecords();
+                                totalBytes += record.getTotalBytes();
+                                maxLatency = Math.max(maxLatency, record.getMaxLatency());
+                            }
+                            case "mergeLatency" -> latencies.merge((Long) args[0], (Long) args[1], Long::sum);
+                            case "mergeRW" -> clientRW.put((Long) args[0],
+                                    new int[]{(Integer) args[1], (Integer) args[2], (Integer) args[3],
+                                            (Integer) args[4]});
+                            default -> {
+                            }
+                        }
+                        return null;
+                    });
+        }
+    }
+
+    private static LatenciesRecord createRecord(long clientID, long seq, int writers, long... latencies) {
+        final LatenciesRecord.Builder builder = LatenciesRecord.newBuilder().setClientID(clientID)
+                .setSequenceNumber(seq).setWriters(writers).setMaxWriters(writers)
+                .setTotalRecords(latencies.length).setValidLatencyRecords(latencies.length)
+                .setTotalBytes(latencies.length * 10L);
+        long max = 0;
+        for (long latency : latencies) {
+            builder.putLatency(latency, builder.getLatencyOrDefault(latency, 0) + 1);
+            max = Math.max(max, latency);
+        }
+        return builder.setMaxLatency(max).build();
+    }
+
+    @Test
+    public void testMerge() {
+        final RamPartialWindow partial = new RamPartialWindow();
+        assertTrue(partial.add(createRecord(1, 1, 2, 5, 7, 7)));
+        assertTrue(partial.add(createRecord(2, 1, 3, 5, 100)));
+        assertTrue(partial.add(createRecord(1, 2, 1, 9)));
+        final MergedWindow window = new MergedWindow();
+        partial.mergeTo(window.recorder());
+
+        assertEquals(6, window.totalRecords);
+        assertEquals(60, window.totalBytes);
+        assertEquals(100, window.maxLatency);
+        final TreeMap<Long, Long> expected = new TreeMap<>(Map.of(5L, 2L, 7L, 2L, 9L, 1L, 100L, 1L));
+        assertEquals(expected, window.latencies);
+        /* the readers/writers of a client are the maximum of its latency records */
+        assertEquals(2, window.clientRW.get(1L)[1]);
+        assertEquals(3, window.clientRW.get(2L)[1]);
+
+        /* the partial window is reset after the merge */
+        final MergedWindow next = new MergedWindow();
+        partial.mergeTo(next.recorder());
+        assertEquals(0, next.totalRecords);
+        assertTrue(next.latencies.isEmpty());
+        assertTrue(next.clientRW.isEmpty());
+    }
+
+    @Test
+    public void testMergeOrder() {
+        /* the merged window does not depend on the arrival order of the latency records */
+        final LatenciesRecord[] records = {createRecord(1, 1, 1, 1, 2), createRecord(2, 1, 1, 2, 3),
+                createRecord(1, 2, 1, 3, 4)};
+        final RamPartialWindow forward = new RamPartialWindow();
+        final RamPartialWindow backward = new RamPartialWindow();
+        for (int i = 0; i < records.length; i++) {
+            forward.add(records[i]);
+            backward.add(records[records.length - 1 - i]);
+        }
+        final MergedWindow forwardWindow = new MergedWindow();
+        final MergedWindow backwardWindow = new MergedWindow();
+        forward.mergeTo(forwardWindow.recorder());
+        backward.mergeTo(backwardWindow.recorder());
+        assertEquals(forwardWindow.latencies, backwardWindow.latencies);
+        assertEquals(forwardWindow.totalRecords, backwardWindow.totalRecords);
+    }
+
+    @Test
+    public void testMergeAndClose() {
+        final RamPartialWindow partial = new RamPartialWindow();
+        assertTrue(partial.add(createRecord(1, 1, 1, 10)));
+        final MergedWindow window = new MergedWindow();
+        partial.mergeAndClose(window.recorder());
+        assertEquals(1, window.totalRecords);
+        /* the latency records of a closed window are added to the next window by the caller */
+        assertFalse(partial.add(createRecord(1, 2, 1, 20)));
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) KMG. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.sbk.ram.impl;
+
+import com.google.protobuf.Empty;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.sbk.action.Action;
+import io.sbk.config.PerlConfig;
+import io.sbk.grpc.ActionEnum;
+import io.sbk.grpc.ClientID;
+import io.sbk.grpc.Config;
+import io.sbk.grpc.LatenciesRecord;
+import io.sbk.grpc.ServiceGrpc;
+import io.sbk.grpc.TimeUnitEnum;
+import io.sbk.logger.RamLogger;
+import io.sbk.perl.LatencyRecorder;
+import io.sbk.time.MilliSeconds;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Class for testing the SBK RAM relay against a parent SBK RAM.
+ */
+public class RamRelayTest {
+    final static String STORAGE_NAME = "test";
+    final static long CLIENT_ID = 7;
+    final static int MAX_RECORD_SIZE_MB = 1;
+    final static int LATENCIES = 200000;
+    final static int RECORD_BYTES = 10;
+    final static long WINDOW_INDEX = 1000;
+
+    private Server server;
+    private ParentService parent;
+
+    /**
+     * Parent SBK RAM, which keeps the received latency records.
+     */
+    private static final class ParentService extends ServiceGrpc.ServiceImplBase {
+        final private boolean packed;
+        final private List<LatenciesRecord> records;
+
+        ParentService(boolean packed) {
+            this.packed = packed;
+            this.records = new ArrayList<>();
+        }
+
+        @Override
+        public void getConfig(Empty request, StreamObserver<Config> responseObserver) {
+            responseObserver.onNext(Config.newBuilder().setStorageName(STORAGE_NAME).setAction(ActionEnum.Writing)
+                    .setTimeUnit(TimeUnitEnum.ms).setMaxLatency(PerlConfig.LONG_MAX)
+                    .setPackedLatencies(packed).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void registerClient(Config request, StreamObserver<ClientID> responseObserver) {
+            responseObserver.onNext(ClientID.newBuilder().setId(CLIENT_ID).build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void addLatenciesRecord(LatenciesRecord request, StreamObserver<Empty> responseObserver) {
+            synchronized (records) {
+                records.add(request);
+            }
+            responseObserver.onNext(Empty.newBuilder().build());
+            responseObserver.onCompleted();
+        }
+
+        @Override
+        public void closeClient(ClientID request, StreamObserver<Empty> responseObserver) {
+            responseObserver.onNext(Empty.newBuilder().build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    private RamRelay startRelay(boolean packed) throws IOException {
+        parent = new ParentService(packed);
+        server = ServerBuilder.forPort(0).addService(parent).build().start();
+        final RamLogger logger = (RamLogger) Proxy.newProxyInstance(RamLogger.class.getClassLoader(),
+                new Class<?>[]{RamLogger.class}, (proxy, method, args) -> null);
+        final RamRelay relay = new RamRelay(logger, "localhost", server.getPort(), MAX_RECORD_SIZE_MB);
+        relay.open(STORAGE_NAME, Action.Writing, new MilliSeconds(), PerlConfig.LONG_MAX);
+        return relay;
+    }
+
+    private void relayWindow(RamRelay relay) {
+        final LatencyRecorder recorder = new LatencyRecorder(0, PerlConfig.LONG_MAX, PerlConfig.LONG_MAX,
+                PerlConfig.LONG_MAX, PerlConfig.LONG_MAX);
+        for (int i = 1; i <= LATENCIES; i++) {
+            recorder.record(RECORD_BYTES, latencyCount(i), i);
+            relay.reportLatency(i, latencyCount(i));
+        }
+        relay.reportLatencyRecord(recorder);
+        relay.setWriters(2);
+        relay.setMaxWriters(3);
+        relay.reportWindowIndex(WINDOW_INDEX);
+        relay.print(1, recorder.getTotalBytes(), recorder.getTotalRecords(), 0, 0, 0, recorder.getMaxLatency(),
+                0, 0, 0, 0, 0, new long[0]);
+        relay.close();
+    }
+
+    private static long latencyCount(long latency) {
+        return latency % 3 + 1;
+    }
+
+    private void checkRecords(int maxLatencies) {
+        final List<LatenciesRecord> records = parent.records;
+        assertEquals((LATENCIES + maxLatencies - 1) / maxLatencies, records.size());
+        long totalRecords = 0;
+        long totalBytes = 0;
+        long maxLatency = 0;
+        long nextLatency = 1;
+        for (int i = 0; i < records.size(); i++) {
+            final LatenciesRecord record = records.get(i);
+            assertEquals(CLIENT_ID, record.getClientID());
+            assertEquals(i + 1, record.getSequenceNumber());
+            assertEquals(2, record.getWriters());
+            assertEquals(3, record.getMaxWriters());
+            assertEquals(records.get(0).getReportTime(), record.getReportTime());
+            assertEquals(WINDOW_INDEX, record.getWindowIndex());
+            if (i > 0) {
+                assertEquals(0, record.getTotalRecords());
+            }
+            totalRecords += record.getTotalRecords();
+            totalBytes += record.getTotalBytes();
+            maxLatency = Math.max(maxLatency, record.getMaxLatency());
+
+            final int count = record.getLatencyDeltasCount() + record.getLatencyCount();
+            assertTrue(count <= maxLatencies);
+            long latency = 0;
+            for (int j = 0; j < record.getLatencyDeltasCount(); j++) {
+                latency += record.getLatencyDeltas(j);
+                assertEquals(nextLatency, latency);
+                assertEquals(latencyCount(latency), record.getLatencyCounts(j));
+                nextLatency++;
+            }
+            for (Map.Entry<Long, Long> entry : record.getLatencyMap().entrySet()) {
+                assertEquals(latencyCount(entry.getKey()), (long) entry.getValue());
+                nextLatency++;
+            }
+        }
+        assertEquals(LATENCIES + 1, nextLatency);
+        long expectedRecords = 0;
+        for (int i = 1; i <= LATENCIES; i++) {
+            expectedRecords += latencyCount(i);
+        }
+        assertEquals(expectedRecords, totalRecords);
+        assertEquals((long) LATENCIES * RECORD_BYTES, totalBytes);
+        assertEquals(LATENCIES, maxLatency);
+    }
+
+    @After
+    public void stopServer() throws InterruptedException {
+        if (server != null) {
+            server.shutdownNow().awaitTermination();
+        }
+    }
+
+    @Test
+    public void testSplitPackedLatencies() {
+        try {
+            relayWindow(startRelay(true));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            Assert.fail("Relay to the parent SBK RAM failed!");
+        }
+        checkRecords(MAX_RECORD_SIZE_MB * PerlConfig.BYTES_PER_MB / 6);
+    }
+
+    @Test
+    public void testSplitLatencyMap() {
+        try {
+            relayWindow(startRelay(false));
+        } catch (IOException ex) {
+            ex.printStackTrace();
+            Assert.fail("Relay to the parent SBK RAM failed!");
+        }
+        checkRecords(MAX_RECORD_SIZE_MB * PerlConfig.BYTES_PER_MB / 16);
+    }
+}